@@ -355,6 +355,40 @@ class BufferedInputStream extends FilterInputStream {
         }
     }
 
+    /**
+     * See the general contract of the <code>transferTo</code>
+     * method of <code>InputStream</code>.
+     * <p>
+     * If no mark is set, the bytes remaining in the buffer are written to
+     * the output stream and the rest of the transfer is then handed to the
+     * underlying input stream, so that its own <code>transferTo</code>
+     * method, such as that of a <code>FileInputStream</code>, is used and the
+     * bytes are not copied through the buffer.
+     *
+     * @param      out the output stream, non-null
+     * @return     the number of bytes transferred
+     * @exception  IOException  if this input stream has been closed by
+     *                          invoking its {@link #close()} method,
+     *                          or an I/O error occurs.
+     * @exception  NullPointerException if <code>out</code> is <code>null</code>
+     * @since 1.8
+     */
+    public synchronized long transferTo(OutputStream out) throws IOException {
+        if (out == null)
+            throw new NullPointerException("out");
+        // A subclass may have overridden read, which handing off would bypass
+        if (getClass() != BufferedInputStream.class || markpos >= 0)
+            return super.transferTo(out);
+        byte[] buffer = getBufIfOpen();
+        InputStream input = getInIfOpen();
+        int avail = count - pos;
+        if (avail > 0) {
+            out.write(buffer, pos, avail);
+            pos = count;
+        }
+        return avail + input.transferTo(out);
+    }
+
     /**
      * See the general contract of the <code>skip</code>
      * method of <code>InputStream</code>.
@@ -25,6 +25,9 @@
 
 package java.io;
 
+import java.util.Arrays;
+import java.util.Objects;
+
 /**
  * A <code>ByteArrayInputStream</code> contains
  * an internal buffer that contains bytes that
@@ -196,6 +199,95 @@ class ByteArrayInputStream extends InputStream {
         return len;
     }
 
+    /**
+     * Reads all remaining bytes of this input stream, from <code>pos</code>
+     * to <code>count</code>, with a single copy of the buffer.
+     * <p>
+     * This <code>readAllBytes</code> method cannot block.
+     *
+     * @return  a byte array containing the bytes read from this input stream
+     * @since   1.8
+     */
+    public synchronized byte[] readAllBytes() {
+        if (pos >= count) {
+            return new byte[0];
+        }
+        byte[] result = Arrays.copyOfRange(buf, pos, count);
+        pos = count;
+        return result;
+    }
+
+    /**
+     * Reads up to <code>len</code> bytes of this input stream with a single
+     * copy of the buffer.
+     * <p>
+     * This <code>readNBytes</code> method cannot block.
+     *
+     * @param   len   the maximum number of bytes to read
+     * @return  a byte array containing the bytes read from this input stream
+     * @exception  IllegalArgumentException if <code>len</code> is negative
+     * @since   1.8
+     */
+    public synchronized byte[] readNBytes(int len) {
+        if (len < 0) {
+            throw new IllegalArgumentException("len < 0");
+        }
+        if (pos >= count) {
+            return new byte[0];
+        }
+        int n = Math.min(len, count - pos);
+        byte[] result = Arrays.copyOfRange(buf, pos, pos + n);
+        pos += n;
+        return result;
+    }
+
+    /**
+     * Reads up to <code>len</code> bytes of this input stream into the given
+     * array, as if by {@link #read(byte[], int, int)}, except that
+     * <code>0</code> rather than <code>-1</code> is returned at the end of
+     * the stream.
+     * <p>
+     * This <code>readNBytes</code> method cannot block.
+     *
+     * @param   b     the buffer into which the data is read.
+     * @param   off   the start offset in the destination array <code>b</code>
+     * @param   len   the maximum number of bytes read.
+     * @return  the number of bytes read into the buffer
+     * @exception  NullPointerException If <code>b</code> is <code>null</code>.
+     * @exception  IndexOutOfBoundsException If <code>off</code> is negative,
+     * <code>len</code> is negative, or <code>len</code> is greater than
+     * <code>b.length - off</code>
+     * @since   1.8
+     */
+    public int readNBytes(byte[] b, int off, int len) {
+        int n = read(b, off, len);
+        return n == -1 ? 0 : n;
+    }
+
+    /**
+     * Writes all remaining bytes of this input stream to the given output
+     * stream with a single call to its <code>write(byte[], int, int)</code>
+     * method, so that the bytes are copied at most once, by the output
+     * stream.  Writing to a <code>ByteArrayOutputStream</code> copies the
+     * bytes directly into its buffer.
+     *
+     * @param   out   the output stream, non-null
+     * @return  the number of bytes transferred
+     * @exception  IOException if an I/O error occurs when writing
+     * @exception  NullPointerException if <code>out</code> is <code>null</code>
+     * @since   1.8
+     */
+    public synchronized long transferTo(OutputStream out) throws IOException {
+        Objects.requireNonNull(out, "out");
+        if (pos >= count) {
+            return 0;
+        }
+        int len = count - pos;
+        out.write(buf, pos, len);
+        pos = count;
+        return len;
+    }
+
     /**
      * Skips <code>n</code> bytes of input from this input stream. Fewer
      * bytes might be skipped if the end of the input stream is reached.
@@ -167,6 +167,35 @@ public class ByteArrayOutputStream extends OutputStream {
         out.write(buf, 0, count);
     }
 
+    /**
+     * Reads the remaining bytes of the given input stream directly into the
+     * buffer of this stream, growing it as needed, so that no intermediate
+     * buffer is used.  Used by {@link InputStream#transferTo} for streams
+     * that are trusted with the buffer.
+     *
+     * @param      in   the input stream to read from
+     * @return     the number of bytes read
+     * @exception  IOException  if an I/O error occurs.
+     */
+    synchronized long readFrom(InputStream in) throws IOException {
+        long transferred = 0;
+        for (;;) {
+            if (buf.length - count < MIN_READ_SIZE)
+                ensureCapacity(count + MIN_READ_SIZE);
+            int n = in.read(buf, count, buf.length - count);
+            if (n < 0)
+                return transferred;
+            count += n;
+            transferred += n;
+        }
+    }
+
+    /**
+     * The smallest free space in the buffer that {@link #readFrom} reads
+     * into; it grows the buffer rather than read fewer bytes.
+     */
+    private static final int MIN_READ_SIZE = 8192;
+
     /**
      * Resets the <code>count</code> field of this byte array output
      * stream to zero, so that all currently accumulated output in the
@@ -0,0 +1,246 @@
+/*
+ * Copyright (c) 2013, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.io;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+
+/**
+ * A character stream whose source is the bytes of a {@link ByteBuffer},
+ * decoded with a given charset.
+ *
+ * <p>An {@link InputStreamReader} reads bytes from its input stream into a
+ * buffer of its own before decoding them.  A {@code ByteBufferReader}
+ * decodes the bytes where they are, directly into the array passed to
+ * {@link #read(char[], int, int) read}, so that the bytes of a file that
+ * has been mapped into memory, for example with
+ * <blockquote><pre>
+ *     FileChannel fc = FileChannel.open(path);
+ *     Reader r = new ByteBufferReader(fc.map(MapMode.READ_ONLY, 0, fc.size()),
+ *                                     StandardCharsets.UTF_8);
+ * </pre></blockquote>
+ * are not copied before they are decoded.  For the standard UTF-8,
+ * US-ASCII and ISO-8859-1 charsets, runs of ASCII bytes are decoded eight
+ * at a time.
+ *
+ * <p>The bytes between the buffer's position and its limit are read, and
+ * the buffer's position is advanced past the bytes that have been decoded.
+ * Closing the reader has no effect on the buffer.
+ *
+ * @see     java.io.InputStreamReader
+ * @see     java.nio.channels.FileChannel#map
+ * @since   1.8
+ */
+public class ByteBufferReader extends Reader {
+
+    private final ByteBuffer src;
+    private final CharsetDecoder decoder;
+
+    private boolean closed;
+
+    /**
+     * Whether all of the input has been decoded and the decoder flushed.
+     */
+    private boolean eof;
+
+    /**
+     * The second char of a surrogate pair decoded by a read of a single
+     * char, to be returned by the next read.
+     */
+    private boolean haveLeftover;
+    private char leftover;
+
+    /**
+     * Scratch space for reading a single char.
+     */
+    private char[] pair;
+
+    /**
+     * Creates a reader that decodes the bytes of the given buffer with the
+     * given charset.  Malformed input and unmappable characters are
+     * replaced with the charset's default replacement, as by an
+     * {@code InputStreamReader}.
+     *
+     * @param  src  the buffer
+     * @param  cs   the charset
+     */
+    public ByteBufferReader(ByteBuffer src, Charset cs) {
+        this(src, cs.newDecoder()
+                    .onMalformedInput(CodingErrorAction.REPLACE)
+                    .onUnmappableCharacter(CodingErrorAction.REPLACE));
+    }
+
+    /**
+     * Creates a reader that decodes the bytes of the given buffer with the
+     * given decoder, which is reset first.  If the decoder reports malformed
+     * input or unmappable characters, reading throws the corresponding
+     * {@link java.nio.charset.CharacterCodingException}.
+     *
+     * @param  src  the buffer
+     * @param  dec  the decoder
+     */
+    public ByteBufferReader(ByteBuffer src, CharsetDecoder dec) {
+        super(src);
+        if (dec == null)
+            throw new NullPointerException("dec");
+        this.src = src;
+        this.decoder = dec.reset();
+    }
+
+    /** Check to make sure that the stream has not been closed */
+    private void ensureOpen() throws IOException {
+        if (closed)
+            throw new IOException("Stream closed");
+    }
+
+    /**
+     * Reads characters into a portion of an array.
+     *
+     * @param      cbuf  Destination buffer
+     * @param      off   Offset at which to start writing characters
+     * @param      len   Maximum number of characters to read
+     *
+     * @return     The number of characters read, or -1 if the end of the
+     *             stream has been reached
+     *
+     * @exception  IOException  If an I/O error occurs, including malformed
+     *             input or unmappable characters reported by the decoder
+     */
+    public int read(char cbuf[], int off, int len) throws IOException {
+        synchronized (lock) {
+            ensureOpen();
+            if ((off < 0) || (off > cbuf.length) || (len < 0) ||
+                ((off + len) > cbuf.length) || ((off + len) < 0)) {
+                throw new IndexOutOfBoundsException();
+            } else if (len == 0) {
+                return 0;
+            }
+            int n = 0;
+            if (haveLeftover) {
+                cbuf[off] = leftover;
+                haveLeftover = false;
+                if (len == 1)
+                    return 1;
+                n = 1;
+            }
+            if (len == 1)
+                return readOne(cbuf, off);
+            CharBuffer cb = CharBuffer.wrap(cbuf, off + n, len - n);
+            if (!eof)
+                decode(cb);
+            // Room for at least two chars, so each decode makes progress
+            while (cb.position() == off && !eof)
+                decode(cb);
+            n = cb.position() - off;
+            return (n == 0) ? -1 : n;
+        }
+    }
+
+    /**
+     * Reads characters into the given buffer, decoding directly into it.
+     *
+     * @param      target  the buffer to read characters into
+     * @return     The number of characters added to the buffer, or
+     *             -1 if the end of the stream has been reached
+     * @exception  IOException  If an I/O error occurs, including malformed
+     *             input or unmappable characters reported by the decoder
+     */
+    public int read(CharBuffer target) throws IOException {
+        synchronized (lock) {
+            ensureOpen();
+            if (haveLeftover || target.remaining() < 2)
+                return super.read(target);
+            int start = target.position();
+            while (target.position() == start && !eof)
+                decode(target);
+            int n = target.position() - start;
+            return (n == 0) ? -1 : n;
+        }
+    }
+
+    // Reads a single char, which may be the first of a surrogate pair that
+    // must be decoded together
+    private int readOne(char cbuf[], int off) throws IOException {
+        char[] pair = this.pair;
+        if (pair == null)
+            this.pair = pair = new char[2];
+        CharBuffer cb = CharBuffer.wrap(pair);
+        while (cb.position() == 0 && !eof)
+            decode(cb);
+        if (cb.position() == 0)
+            return -1;
+        cbuf[off] = pair[0];
+        if (cb.position() == 2) {
+            leftover = pair[1];
+            haveLeftover = true;
+        }
+        return 1;
+    }
+
+    // Decodes as many chars as fit into dst, flushing the decoder once all
+    // of the input has been decoded
+    private void decode(CharBuffer dst) throws IOException {
+        CoderResult cr = decoder.decode(src, dst, true);
+        if (cr.isUnderflow()) {
+            cr = decoder.flush(dst);
+            if (cr.isUnderflow()) {
+                eof = true;
+                return;
+            }
+        }
+        if (cr.isOverflow())
+            return;
+        cr.throwException();
+    }
+
+    /**
+     * Tells whether this stream is ready to be read.  A
+     * {@code ByteBufferReader} is ready unless all of its input has been
+     * read, as reading it never blocks.
+     *
+     * @exception  IOException  If the stream is closed
+     */
+    public boolean ready() throws IOException {
+        synchronized (lock) {
+            ensureOpen();
+            return haveLeftover || !eof;
+        }
+    }
+
+    /**
+     * Closes the stream.  The buffer is not affected; a mapped buffer
+     * remains mapped until it is garbage collected.
+     */
+    public void close() {
+        synchronized (lock) {
+            closed = true;
+        }
+    }
+}
@@ -0,0 +1,359 @@
+/*
+ * Copyright (c) 2013, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.io;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.GatheringByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+
+/**
+ * An output stream in which the data is written into a list of byte arrays,
+ * or chunks, for building large outputs, such as a response of a hundred
+ * megabytes, without copying them.
+ *
+ * <p>A {@link ByteArrayOutputStream} keeps its data in a single array,
+ * which it replaces with a copy twice the size whenever it fills up, and
+ * {@code toByteArray} copies the data once more.  A
+ * {@code ChunkedByteArrayOutputStream} writes into a chunk until it is full
+ * and then starts a new one, so data that has been written is never moved.
+ * Chunks start small and double in size up to 256 kilobytes, which keeps
+ * them small enough to be allocated as ordinary objects by the garbage
+ * collectors rather than as single huge arrays.
+ *
+ * <p>The data can be written to an {@link OutputStream} chunk by chunk, or
+ * to a {@link WritableByteChannel} with a single gathering write if the
+ * channel is a {@link GatheringByteChannel}, and it can be viewed as an
+ * array of read-only {@link ByteBuffer}s, none of which requires the data to
+ * be flattened into a single array.  {@link #toByteArray()} is provided for
+ * callers that need one.
+ *
+ * <p>The size of the stream is a {@code long}: it may hold more than
+ * 2<sup>31</sup>-1 bytes, though such a stream cannot be converted to a
+ * single array or string.
+ *
+ * <p>Closing a {@code ChunkedByteArrayOutputStream} has no effect.  The
+ * methods in this class can be called after the stream has been closed
+ * without generating an {@code IOException}.
+ *
+ * @see     java.io.ByteArrayOutputStream
+ * @since   1.8
+ */
+public class ChunkedByteArrayOutputStream extends OutputStream {
+
+    /**
+     * The default size of the first chunk.
+     */
+    private static final int DEFAULT_INITIAL_SIZE = 256;
+
+    /**
+     * The largest size to which chunks grow.
+     */
+    private static final int MAX_CHUNK_SIZE = 256 * 1024;
+
+    /**
+     * The maximum size of array to allocate.
+     * Some VMs reserve some header words in an array.
+     * Attempts to allocate larger arrays may result in
+     * OutOfMemoryError: Requested array size exceeds VM limit
+     */
+    private static final int MAX_ARRAY_SIZE = Integer.MAX_VALUE - 8;
+
+    /**
+     * The chunks: those before {@code chunks[chunkCount - 1]} are full, and
+     * those from {@code chunks[chunkCount]} on, if any, are kept for reuse
+     * after a {@link #reset}.
+     */
+    private byte[][] chunks;
+    private int chunkCount;
+
+    /**
+     * The chunk being written to and the number of bytes in it.
+     */
+    private byte[] current;
+    private int pos;
+
+    /**
+     * The number of bytes in the chunks before the current one.
+     */
+    private long filled;
+
+    /**
+     * Creates a new chunked byte array output stream.  The first chunk is
+     * initially 256 bytes.
+     */
+    public ChunkedByteArrayOutputStream() {
+        this(DEFAULT_INITIAL_SIZE);
+    }
+
+    /**
+     * Creates a new chunked byte array output stream, with a first chunk of
+     * the specified size, in bytes.  Later chunks are twice the size of the
+     * one before, up to 256 kilobytes.
+     *
+     * @param   size   the size of the first chunk.
+     * @exception  IllegalArgumentException if size is not positive.
+     */
+    public ChunkedByteArrayOutputStream(int size) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("Illegal initial size: "
+                                               + size);
+        }
+        chunks = new byte[8][];
+        current = chunks[0] = new byte[size];
+        chunkCount = 1;
+    }
+
+    /**
+     * Writes the specified byte to this output stream.
+     *
+     * @param   b   the byte to be written.
+     */
+    public synchronized void write(int b) {
+        if (pos == current.length)
+            nextChunk();
+        current[pos++] = (byte) b;
+    }
+
+    /**
+     * Writes <code>len</code> bytes from the specified byte array
+     * starting at offset <code>off</code> to this output stream.
+     *
+     * @param   b     the data.
+     * @param   off   the start offset in the data.
+     * @param   len   the number of bytes to write.
+     */
+    public synchronized void write(byte b[], int off, int len) {
+        if ((off < 0) || (off > b.length) || (len < 0) ||
+            ((off + len) - b.length > 0)) {
+            throw new IndexOutOfBoundsException();
+        }
+        while (len > 0) {
+            if (pos == current.length)
+                nextChunk();
+            int n = Math.min(len, current.length - pos);
+            System.arraycopy(b, off, current, pos, n);
+            pos += n;
+            off += n;
+            len -= n;
+        }
+    }
+
+    /**
+     * Reads the remaining bytes of the given input stream directly into the
+     * chunks of this stream, until the end of the input stream is reached.
+     * The input stream is not closed.
+     *
+     * @param      in   the input stream to read from.
+     * @return     the number of bytes read.
+     * @exception  IOException  if an I/O error occurs.
+     */
+    public synchronized long readFrom(InputStream in) throws IOException {
+        long transferred = 0;
+        for (;;) {
+            if (pos == current.length)
+                nextChunk();
+            int n = in.read(current, pos, current.length - pos);
+            if (n < 0)
+                return transferred;
+            pos += n;
+            transferred += n;
+        }
+    }
+
+    // Moves to the next chunk, reusing one kept by reset if there is one
+    private void nextChunk() {
+        if (chunkCount == chunks.length)
+            chunks = Arrays.copyOf(chunks, chunkCount * 2);
+        byte[] c = chunks[chunkCount];
+        if (c == null) {
+            int size = Math.max(current.length,
+                                Math.min(current.length << 1, MAX_CHUNK_SIZE));
+            chunks[chunkCount] = c = new byte[size];
+        }
+        filled += current.length;
+        chunkCount++;
+        current = c;
+        pos = 0;
+    }
+
+    /**
+     * Writes the complete contents of this stream to the specified output
+     * stream argument, chunk by chunk.  The output stream is not flushed.
+     *
+     * @param      out   the output stream to which to write the data.
+     * @exception  IOException  if an I/O error occurs.
+     */
+    public synchronized void writeTo(OutputStream out) throws IOException {
+        int last = chunkCount - 1;
+        for (int i = 0; i < last; i++)
+            out.write(chunks[i], 0, chunks[i].length);
+        if (pos > 0)
+            out.write(current, 0, pos);
+    }
+
+    /**
+     * Writes the complete contents of this stream to the specified channel.
+     * If the channel is a {@link GatheringByteChannel}, the chunks are
+     * written with as few calls to its gathering {@code write} method as the
+     * channel allows; otherwise they are written one after another.  In
+     * either case this method returns only once all of the data has been
+     * written, so it should not be used with a channel in non-blocking
+     * mode.
+     *
+     * @param      ch   the channel to which to write the data.
+     * @return     the number of bytes written.
+     * @exception  IOException  if an I/O error occurs.
+     */
+    public synchronized long writeTo(WritableByteChannel ch) throws IOException {
+        ByteBuffer[] srcs = toByteBuffers();
+        long total = size();
+        if (ch instanceof GatheringByteChannel) {
+            GatheringByteChannel gch = (GatheringByteChannel) ch;
+            int first = 0;
+            long remaining = total;
+            while (remaining > 0) {
+                remaining -= gch.write(srcs, first, srcs.length - first);
+                while (first < srcs.length && !srcs[first].hasRemaining())
+                    first++;
+            }
+        } else {
+            for (ByteBuffer src : srcs) {
+                while (src.hasRemaining())
+                    ch.write(src);
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Returns the contents of this stream as an array of read-only byte
+     * buffers, one for each chunk that holds data, in order.  The buffers
+     * wrap the chunks themselves, so no data is copied.  Each buffer's
+     * position is zero and its limit is the number of bytes of the chunk
+     * that hold data; the buffers are independent of each other and of
+     * those returned by earlier calls.
+     *
+     * <p>Data written to the stream after this method returns does not
+     * appear in the buffers.  The contents of the buffers are unspecified
+     * once the stream has been {@linkplain #reset reset}, as its chunks are
+     * then reused.
+     *
+     * @return  the contents of this stream, as read-only byte buffers.
+     */
+    public synchronized ByteBuffer[] toByteBuffers() {
+        int last = chunkCount - 1;
+        int n = (pos > 0) ? chunkCount : last;
+        ByteBuffer[] bufs = new ByteBuffer[n];
+        for (int i = 0; i < n; i++) {
+            int len = (i == last) ? pos : chunks[i].length;
+            bufs[i] = ByteBuffer.wrap(chunks[i], 0, len).slice().asReadOnlyBuffer();
+        }
+        return bufs;
+    }
+
+    /**
+     * Discards all data written to this stream, so that it can be used
+     * again, reusing the chunks already allocated.
+     */
+    public synchronized void reset() {
+        chunkCount = 1;
+        current = chunks[0];
+        pos = 0;
+        filled = 0;
+    }
+
+    /**
+     * Creates a newly allocated byte array. Its size is the current
+     * size of this output stream and the contents of the chunks have
+     * been copied into it.
+     *
+     * @return  the current contents of this output stream, as a byte array.
+     * @exception  OutOfMemoryError if the stream holds more bytes than
+     *             can be stored in an array.
+     * @see     #size()
+     */
+    public synchronized byte[] toByteArray() {
+        long size = size();
+        if (size > MAX_ARRAY_SIZE)
+            throw new OutOfMemoryError("Required array size too large");
+        byte[] result = new byte[(int) size];
+        int off = 0;
+        int last = chunkCount - 1;
+        for (int i = 0; i < last; i++) {
+            System.arraycopy(chunks[i], 0, result, off, chunks[i].length);
+            off += chunks[i].length;
+        }
+        System.arraycopy(current, 0, result, off, pos);
+        return result;
+    }
+
+    /**
+     * Returns the number of bytes written to this stream.
+     *
+     * @return  the number of bytes in this output stream.
+     */
+    public synchronized long size() {
+        return filled + pos;
+    }
+
+    /**
+     * Converts the contents of this stream into a string by decoding the
+     * bytes using the given {@link java.nio.charset.Charset charset}.  The
+     * bytes are first copied into a single array, as a character may span
+     * two chunks.
+     *
+     * <p> This method always replaces malformed-input and unmappable-character
+     * sequences with this charset's default replacement string.
+     *
+     * @param      charset  the charset
+     * @return     String decoded from the contents of this stream.
+     * @exception  OutOfMemoryError if the stream holds more bytes than
+     *             can be stored in an array.
+     */
+    public synchronized String toString(Charset charset) {
+        return new String(toByteArray(), charset);
+    }
+
+    /**
+     * Converts the contents of this stream into a string decoding bytes
+     * using the platform's default character set.
+     *
+     * @return String decoded from the contents of this stream.
+     */
+    public synchronized String toString() {
+        return new String(toByteArray());
+    }
+
+    /**
+     * Closing a {@code ChunkedByteArrayOutputStream} has no effect. The
+     * methods in this class can be called after the stream has been closed
+     * without generating an {@code IOException}.
+     */
+    public void close() throws IOException {
+    }
+}
@@ -0,0 +1,305 @@
+/*
+ * Copyright (c) 2013, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.io;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The classes that may be written by a {@link CompactObjectOutputStream}
+ * and read by a {@link CompactObjectInputStream}, each with a numeric
+ * identifier agreed between the writer and the reader.
+ *
+ * <p>The compact format is an alternative to the format of
+ * {@link ObjectOutputStream} for applications, such as caches, that write
+ * many small object graphs of classes known in advance.  Instead of a class
+ * descriptor naming the class and each of its fields, an object is preceded
+ * by the identifier of its class, and, the first time the class appears in
+ * a graph, by a hash of its <i>schema</i>: the name, serialVersionUID and
+ * serializable fields of the class and of each of its serializable
+ * superclasses, as described by {@link ObjectStreamClass}.  The fields
+ * themselves are written as {@code ObjectOutputStream} writes default
+ * serializable data.
+ *
+ * <p>A class can be registered if it is serializable, not externalizable,
+ * and neither it nor any of its serializable superclasses defines a
+ * {@code writeObject} or {@code readObject} method.  {@code writeReplace}
+ * and {@code readResolve} methods are honored.  Enum types can be
+ * registered and are written by name.  Strings, the primitive wrapper
+ * classes, arrays of primitives, and instances of {@code ArrayList},
+ * {@code HashMap}, {@code LinkedHashMap}, {@code HashSet} and
+ * {@code LinkedHashSet} are supported without registration, as are arrays
+ * whose component type is {@code Object}, {@code String} or a registered
+ * class.  A reader creates only instances of these classes and of registered
+ * classes.
+ *
+ * <p>The reader decodes data written by the same version of a class
+ * directly.  Data written by another version of a class, with the same
+ * serialVersionUID but different serializable fields, can be read once the
+ * fields of that version have been {@linkplain #registerSchema registered}:
+ * fields are then matched by name and type as for {@code ObjectInputStream},
+ * and fields of the local class absent from the stream keep their default
+ * values.  Classes should therefore declare a {@code serialVersionUID}.
+ *
+ * <p>A registry is safe for use by multiple threads; classes should be
+ * registered before streams using the registry are created.
+ *
+ * @see CompactObjectOutputStream
+ * @see CompactObjectInputStream
+ * @since 1.8
+ */
+public final class CompactClassRegistry {
+
+    /*
+     * Type codes of the compact format.
+     */
+    static final byte TC_NULL = 0;
+    static final byte TC_HANDLE = 1;
+    static final byte TC_STRING = 2;
+    static final byte TC_LONGSTRING = 3;
+    static final byte TC_OBJECT = 4;
+    static final byte TC_ENUM = 5;
+    static final byte TC_ARRAY = 6;
+    static final byte TC_OBJECTARRAY = 7;
+    static final byte TC_BOXED = 8;
+    static final byte TC_COLLECTION = 9;
+    static final byte TC_MAP = 10;
+
+    /*
+     * Component codes of object arrays, followed by class id + 2.
+     */
+    static final int COMPONENT_OBJECT = 0;
+    static final int COMPONENT_STRING = 1;
+
+    /**
+     * The largest class identifier.
+     */
+    static final int MAX_ID = 0xFFFF;
+
+    /**
+     * A registered class.
+     */
+    static final class ClassInfo {
+        final int id;
+        final Class<?> cl;
+        final ObjectStreamClass desc;
+        /** descriptors of the classes with data, topmost superclass first */
+        final ObjectStreamClass[] levels;
+        final long[] hashes;
+
+        ClassInfo(int id, Class<?> cl, ObjectStreamClass desc,
+                  ObjectStreamClass[] levels) {
+            this.id = id;
+            this.cl = cl;
+            this.desc = desc;
+            this.levels = levels;
+            this.hashes = new long[levels.length];
+            for (int i = 0; i < levels.length; i++) {
+                hashes[i] = schemaHash(levels[i]);
+            }
+        }
+    }
+
+    private final ConcurrentHashMap<Class<?>, ClassInfo> byClass =
+        new ConcurrentHashMap<>();
+    private volatile ClassInfo[] byId = new ClassInfo[16];
+
+    /** descriptors of other versions of classes, by schema hash */
+    private final ConcurrentHashMap<Long, ObjectStreamClass> schemas =
+        new ConcurrentHashMap<>();
+
+    /**
+     * Creates an empty registry.
+     */
+    public CompactClassRegistry() {
+    }
+
+    /**
+     * Registers a class with the given identifier.
+     *
+     * @param  id the identifier, between 0 and 65535
+     * @param  cl the class
+     * @throws IllegalArgumentException if the identifier is out of range or
+     *         already registered, if the class is already registered, or if
+     *         the class cannot be written in the compact format
+     * @throws NullPointerException if {@code cl} is {@code null}
+     */
+    public synchronized void register(int id, Class<?> cl) {
+        Objects.requireNonNull(cl);
+        if (id < 0 || id > MAX_ID) {
+            throw new IllegalArgumentException("class id out of range: " + id);
+        }
+        ClassInfo[] tab = byId;
+        if (id < tab.length && tab[id] != null) {
+            throw new IllegalArgumentException("class id " + id +
+                " already registered to " + tab[id].cl.getName());
+        }
+        if (byClass.containsKey(cl)) {
+            throw new IllegalArgumentException(cl.getName() + " already registered");
+        }
+
+        ObjectStreamClass desc = ObjectStreamClass.lookup(cl);
+        if (desc == null || cl.isArray() || desc.isProxy() || desc.isExternalizable()) {
+            throw new IllegalArgumentException(
+                cl.getName() + " is not a serializable, non-externalizable class");
+        }
+        ObjectStreamClass[] levels;
+        if (desc.isEnum()) {
+            levels = new ObjectStreamClass[0];
+        } else {
+            try {
+                desc.checkDefaultSerialize();
+                ObjectStreamClass.ClassDataSlot[] slots = desc.getClassDataLayout();
+                levels = new ObjectStreamClass[slots.length];
+                for (int i = 0; i < slots.length; i++) {
+                    ObjectStreamClass d = slots[i].desc;
+                    if (d.hasWriteObjectMethod() || d.hasReadObjectMethod()) {
+                        throw new IllegalArgumentException(cl.getName() +
+                            " has custom serialization in " + d.getName());
+                    }
+                    levels[i] = d;
+                }
+            } catch (InvalidClassException e) {
+                throw new IllegalArgumentException(e.getMessage(), e);
+            }
+            if (!desc.isInstantiable()) {
+                throw new IllegalArgumentException(cl.getName() +
+                    " has no accessible no-arg constructor in its first" +
+                    " non-serializable superclass");
+            }
+        }
+
+        ClassInfo info = new ClassInfo(id, cl, desc, levels);
+        if (id >= tab.length) {
+            tab = Arrays.copyOf(tab, Math.min(Math.max(id + 1, tab.length * 2), MAX_ID + 1));
+        } else {
+            tab = tab.clone();
+        }
+        tab[id] = info;
+        byClass.put(cl, info);
+        byId = tab;
+    }
+
+    /**
+     * Registers the serializable fields of another version of a class, so
+     * that data written by that version can be read.  The class may be a
+     * registered class or one of its serializable superclasses; only the
+     * fields declared by that class are given.  The other version must have
+     * the same serialVersionUID as the local class.
+     *
+     * @param  cl the local class
+     * @param  fields the serializable fields of the other version
+     * @throws IllegalArgumentException if the class is not serializable, or
+     *         is externalizable
+     * @throws NullPointerException if {@code cl}, {@code fields} or any of its
+     *         elements is {@code null}
+     */
+    public synchronized void registerSchema(Class<?> cl, ObjectStreamField... fields) {
+        ObjectStreamClass local = ObjectStreamClass.lookup(cl);
+        if (local == null || local.isExternalizable()) {
+            throw new IllegalArgumentException(
+                cl.getName() + " is not a serializable, non-externalizable class");
+        }
+        try {
+            ObjectStreamClass desc = ObjectStreamClass.forStreamFields(cl, fields.clone());
+            schemas.put(schemaHash(desc), desc);
+        } catch (InvalidClassException e) {
+            throw new IllegalArgumentException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Returns the registered class information of the given class, or null.
+     */
+    ClassInfo lookup(Class<?> cl) {
+        return byClass.get(cl);
+    }
+
+    /**
+     * Returns the registered class information of the given identifier, or
+     * null.
+     */
+    ClassInfo lookup(int id) {
+        ClassInfo[] tab = byId;
+        return (id >= 0 && id < tab.length) ? tab[id] : null;
+    }
+
+    /**
+     * Returns the descriptors with which to read the data of a class written
+     * with the given schema hashes.
+     */
+    ObjectStreamClass[] layout(ClassInfo info, long[] hashes)
+        throws InvalidClassException
+    {
+        if (Arrays.equals(hashes, info.hashes)) {
+            return info.levels;
+        }
+        ObjectStreamClass[] layout = new ObjectStreamClass[hashes.length];
+        search:
+        for (int i = 0; i < hashes.length; i++) {
+            for (int j = 0; j < info.levels.length; j++) {
+                if (info.hashes[j] == hashes[i]) {
+                    layout[i] = info.levels[j];
+                    continue search;
+                }
+            }
+            ObjectStreamClass desc = schemas.get(hashes[i]);
+            if (desc == null || !desc.forClass().isAssignableFrom(info.cl)) {
+                throw new InvalidClassException(info.cl.getName(),
+                    "local class incompatible: no schema with hash " +
+                    Long.toHexString(hashes[i]));
+            }
+            layout[i] = desc;
+        }
+        return layout;
+    }
+
+    /**
+     * Returns the hash of the schema of a class descriptor: its class name,
+     * serialVersionUID, and the type codes, names and types of its fields.
+     */
+    static long schemaHash(ObjectStreamClass desc) {
+        long h = 0xcbf29ce484222325L;           // 64-bit FNV-1a
+        h = hash(h, desc.getName());
+        long suid = desc.getSerialVersionUID();
+        for (int i = 0; i < 8; i++) {
+            h = (h ^ ((suid >>> (i * 8)) & 0xFF)) * 0x100000001b3L;
+        }
+        for (ObjectStreamField f : desc.getFields(false)) {
+            h = hash(h, f.getName());
+            h = hash(h, f.getSignature());
+        }
+        return h;
+    }
+
+    private static long hash(long h, String s) {
+        for (int i = 0; i < s.length(); i++) {
+            h = (h ^ s.charAt(i)) * 0x100000001b3L;
+        }
+        return (h ^ 0xFFFF) * 0x100000001b3L;      // terminator
+    }
+}
@@ -0,0 +1,527 @@
+/*
+ * Copyright (c) 2013, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.io;
+
+import java.io.CompactClassRegistry.ClassInfo;
+import java.lang.reflect.Array;
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Objects;
+import static java.io.CompactClassRegistry.*;
+
+/**
+ * An input stream that reads objects written in the compact format
+ * described by {@link CompactClassRegistry} by a
+ * {@link CompactObjectOutputStream} using a registry with the same
+ * identifiers.
+ *
+ * <p>Only instances of registered classes, and of the classes that the
+ * compact format supports without registration, are created.  Each call to
+ * {@link #readObject} reads one graph written by one call to
+ * {@code writeObject}.
+ *
+ * <p>The lengths of arrays and the sizes of collections are read from the
+ * stream, so they are not trusted: an array or collection is allocated with
+ * room for at most 2<sup>14</sup> elements, and grown as its elements are
+ * read.  An array that is longer than that cannot be referred to by its own
+ * elements, and a stream that does so is rejected with an {@code
+ * InvalidObjectException}.
+ *
+ * @see CompactObjectOutputStream
+ * @since 1.8
+ */
+public class CompactObjectInputStream extends DataInputStream
+    implements ObjectInput
+{
+    /** the size of the buffer used to read primitive data */
+    private static final int BUFFER_SIZE = 1024;
+
+    /**
+     * The largest number of elements for which an array or collection is
+     * allocated before its elements are read.
+     */
+    private static final int MAX_PRESIZE = 1 << 14;
+
+    /** the handle of an array whose elements are still being read */
+    private static final Object INCOMPLETE = new Object();
+
+    private final CompactClassRegistry registry;
+
+    /** the objects read in the current graph, by handle */
+    private final ArrayList<Object> handles = new ArrayList<>();
+    /** descriptors of the classes whose schema was read in the current graph */
+    private final IdentityHashMap<ClassInfo, ObjectStreamClass[]> layouts =
+        new IdentityHashMap<>();
+    private byte[] buf = new byte[BUFFER_SIZE];
+
+    /**
+     * Creates a stream that reads from the given input stream the objects
+     * of classes registered in the given registry.
+     *
+     * @param  in the underlying input stream
+     * @param  registry the registry of classes
+     * @throws NullPointerException if {@code registry} is {@code null}
+     */
+    public CompactObjectInputStream(InputStream in, CompactClassRegistry registry) {
+        super(in);
+        this.registry = Objects.requireNonNull(registry);
+    }
+
+    /**
+     * Reads a graph of objects.
+     *
+     * @return the object at the root of the graph, or {@code null}
+     * @throws InvalidClassException if the graph refers to a class that is
+     *         not registered, or was written with a schema that is not known
+     * @throws StreamCorruptedException if the stream is malformed
+     * @throws IOException if an I/O error occurs
+     * @throws ClassNotFoundException declared by {@code ObjectInput}; not
+     *         thrown, as classes are resolved through the registry
+     */
+    @Override
+    public Object readObject() throws ClassNotFoundException, IOException {
+        try {
+            return readObject0();
+        } finally {
+            handles.clear();
+            layouts.clear();
+        }
+    }
+
+    private Object readObject0() throws IOException {
+        byte tc = readByte();
+        switch (tc) {
+            case TC_NULL:
+                return null;
+
+            case TC_HANDLE: {
+                int handle = readVarInt();
+                if (handle >= handles.size()) {
+                    throw new StreamCorruptedException("invalid handle value: " + handle);
+                }
+                Object obj = handles.get(handle);
+                if (obj == INCOMPLETE) {
+                    throw new InvalidObjectException(
+                        "reference to an array whose elements are being read");
+                }
+                return obj;
+            }
+
+            case TC_STRING:
+                return assignHandle(readUTF());
+
+            case TC_LONGSTRING: {
+                int len = readVarInt();
+                StringBuilder sb = new StringBuilder(Math.min(len, BUFFER_SIZE));
+                for (int i = 0; i < len; i++) {
+                    sb.append(readChar());
+                }
+                return assignHandle(sb.toString());
+            }
+
+            case TC_BOXED:
+                return readBoxed();
+
+            case TC_ENUM: {
+                ClassInfo info = readClass();
+                String name = readUTF();
+                if (!info.desc.isEnum()) {
+                    throw new InvalidClassException(info.cl.getName(), "not an enum type");
+                }
+                try {
+                    @SuppressWarnings({"unchecked", "rawtypes"})
+                    Enum<?> en = Enum.valueOf((Class) info.cl, name);
+                    return assignHandle(en);
+                } catch (IllegalArgumentException ex) {
+                    throw (IOException) new InvalidObjectException(
+                        "enum constant " + name + " does not exist in " +
+                        info.cl).initCause(ex);
+                }
+            }
+
+            case TC_OBJECT:
+                return readOrdinaryObject();
+
+            case TC_ARRAY:
+                return readArray();
+
+            case TC_OBJECTARRAY: {
+                int component = readVarInt();
+                Class<?> ccl;
+                if (component == COMPONENT_OBJECT) {
+                    ccl = Object.class;
+                } else if (component == COMPONENT_STRING) {
+                    ccl = String.class;
+                } else {
+                    ccl = classInfo(component - 2).cl;
+                }
+                int len = readLength();
+                Object[] array = (Object[]) Array.newInstance(ccl, Math.min(len, MAX_PRESIZE));
+                // An array that has to grow changes identity, so it cannot
+                // be referred to until it is complete
+                int handle = handles.size();
+                assignHandle((len > array.length) ? INCOMPLETE : array);
+                for (int i = 0; i < len; i++) {
+                    Object o = readObject0();
+                    if (o != null && !ccl.isInstance(o)) {
+                        throw new InvalidObjectException("cannot store " +
+                            o.getClass().getName() + " in array of " + ccl.getName());
+                    }
+                    if (i == array.length) {
+                        array = Arrays.copyOf(array, grow(i, len));
+                    }
+                    array[i] = o;
+                }
+                handles.set(handle, array);
+                return array;
+            }
+
+            case TC_COLLECTION: {
+                int kind = readUnsignedByte();
+                int size = readLength();
+                Collection<Object> c;
+                switch (kind) {
+                    case 0: c = new ArrayList<>(Math.min(size, MAX_PRESIZE)); break;
+                    case 1: c = new HashSet<>(capacity(size)); break;
+                    case 2: c = new LinkedHashSet<>(capacity(size)); break;
+                    default:
+                        throw new StreamCorruptedException("invalid collection kind: " + kind);
+                }
+                assignHandle(c);
+                for (int i = 0; i < size; i++) {
+                    c.add(readObject0());
+                }
+                return c;
+            }
+
+            case TC_MAP: {
+                int kind = readUnsignedByte();
+                int size = readLength();
+                Map<Object, Object> m;
+                switch (kind) {
+                    case 0: m = new HashMap<>(capacity(size)); break;
+                    case 1: m = new LinkedHashMap<>(capacity(size)); break;
+                    default:
+                        throw new StreamCorruptedException("invalid map kind: " + kind);
+                }
+                assignHandle(m);
+                for (int i = 0; i < size; i++) {
+                    Object key = readObject0();
+                    m.put(key, readObject0());
+                }
+                return m;
+            }
+
+            default:
+                throw new StreamCorruptedException(
+                    String.format("invalid type code: %02X", tc));
+        }
+    }
+
+    private Object assignHandle(Object obj) {
+        handles.add(obj);
+        return obj;
+    }
+
+    /**
+     * Returns the initial capacity of a hash-based collection of the given
+     * size, which is grown as elements are added beyond MAX_PRESIZE.
+     */
+    private static int capacity(int size) {
+        return (int) (Math.min(size, MAX_PRESIZE) / 0.75f + 1);
+    }
+
+    /**
+     * Returns the new length of an array of the given length, which has
+     * fewer elements than the given final length.
+     */
+    private static int grow(int length, int finalLength) {
+        return (int) Math.min(2L * length, finalLength);
+    }
+
+    private ClassInfo classInfo(int id) throws InvalidClassException {
+        ClassInfo info = registry.lookup(id);
+        if (info == null) {
+            throw new InvalidClassException("unregistered class id: " + id);
+        }
+        return info;
+    }
+
+    /**
+     * Reads a class id, followed by its schema hashes if this is the first
+     * object of the class in the graph.
+     */
+    private ClassInfo readClass() throws IOException {
+        ClassInfo info = classInfo(readVarInt());
+        if (!layouts.containsKey(info)) {
+            int n = readVarInt();
+            if (n > info.levels.length + 64) {
+                throw new StreamCorruptedException("invalid schema count: " + n);
+            }
+            long[] hashes = new long[n];
+            for (int i = 0; i < n; i++) {
+                hashes[i] = readLong();
+            }
+            layouts.put(info, registry.layout(info, hashes));
+        }
+        return info;
+    }
+
+    private Object readOrdinaryObject() throws IOException {
+        ClassInfo info = readClass();
+        ObjectStreamClass[] layout = layouts.get(info);
+        ObjectStreamClass desc = info.desc;
+        if (desc.isEnum()) {
+            throw new InvalidClassException(info.cl.getName(), "enum type written as object");
+        }
+
+        Object obj;
+        try {
+            obj = desc.newInstance();
+        } catch (InstantiationException | InvocationTargetException |
+                 UnsupportedOperationException ex) {
+            throw (IOException) new InvalidClassException(
+                desc.getName(), "unable to create instance").initCause(ex);
+        }
+        int handle = handles.size();
+        assignHandle(obj);
+
+        for (ObjectStreamClass level : layout) {
+            int primDataSize = level.getPrimDataSize();
+            if (primDataSize > 0) {
+                if (buf.length < primDataSize) {
+                    buf = new byte[primDataSize];
+                }
+                readFully(buf, 0, primDataSize);
+                level.setPrimFieldValues(obj, buf);
+            }
+            int numObjFields = level.getNumObjFields();
+            if (numObjFields > 0) {
+                Object[] vals = new Object[numObjFields];
+                for (int i = 0; i < numObjFields; i++) {
+                    vals[i] = readObject0();
+                }
+                try {
+                    level.setObjFieldValues(obj, vals);
+                } catch (ClassCastException ex) {
+                    throw (IOException) new InvalidObjectException(
+                        ex.getMessage()).initCause(ex);
+                }
+            }
+        }
+
+        if (desc.hasReadResolveMethod()) {
+            Object rep = desc.invokeReadResolve(obj);
+            handles.set(handle, rep);
+            obj = rep;
+        }
+        return obj;
+    }
+
+    private Object readBoxed() throws IOException {
+        int code = readUnsignedByte();
+        switch (code) {
+            case 'I': return readInt();
+            case 'J': return readLong();
+            case 'Z': return readBoolean();
+            case 'D': return readDouble();
+            case 'F': return readFloat();
+            case 'S': return readShort();
+            case 'B': return readByte();
+            case 'C': return readChar();
+            default:
+                throw new StreamCorruptedException("invalid primitive type code: " + code);
+        }
+    }
+
+    /**
+     * Reads a primitive array.  Its handle is assigned once it is complete,
+     * which gives it the same handle as assigning it first, since its
+     * elements have none.
+     */
+    private Object readArray() throws IOException {
+        int code = readUnsignedByte();
+        int len = readLength();
+        int initial = Math.min(len, MAX_PRESIZE);
+        switch (code) {
+            case 'B': {
+                byte[] ba = new byte[initial];
+                for (int off = 0; off < len; off = ba.length) {
+                    if (off == ba.length) {
+                        ba = Arrays.copyOf(ba, grow(off, len));
+                    }
+                    readFully(ba, off, ba.length - off);
+                }
+                return assignHandle(ba);
+            }
+            case 'I': {
+                int[] ia = new int[initial];
+                for (int off = 0; off < len; ) {
+                    if (off == ia.length) {
+                        ia = Arrays.copyOf(ia, grow(off, len));
+                    }
+                    int n = Math.min(ia.length - off, buf.length >> 2);
+                    readFully(buf, 0, n << 2);
+                    for (int i = 0; i < n; i++) {
+                        ia[off + i] = Bits.getInt(buf, i << 2);
+                    }
+                    off += n;
+                }
+                return assignHandle(ia);
+            }
+            case 'J': {
+                long[] ja = new long[initial];
+                for (int off = 0; off < len; ) {
+                    if (off == ja.length) {
+                        ja = Arrays.copyOf(ja, grow(off, len));
+                    }
+                    int n = Math.min(ja.length - off, buf.length >> 3);
+                    readFully(buf, 0, n << 3);
+                    for (int i = 0; i < n; i++) {
+                        ja[off + i] = Bits.getLong(buf, i << 3);
+                    }
+                    off += n;
+                }
+                return assignHandle(ja);
+            }
+            case 'D': {
+                double[] da = new double[initial];
+                for (int off = 0; off < len; ) {
+                    if (off == da.length) {
+                        da = Arrays.copyOf(da, grow(off, len));
+                    }
+                    int n = Math.min(da.length - off, buf.length >> 3);
+                    readFully(buf, 0, n << 3);
+                    for (int i = 0; i < n; i++) {
+                        da[off + i] = Bits.getDouble(buf, i << 3);
+                    }
+                    off += n;
+                }
+                return assignHandle(da);
+            }
+            case 'F': {
+                float[] fa = new float[initial];
+                for (int off = 0; off < len; ) {
+                    if (off == fa.length) {
+                        fa = Arrays.copyOf(fa, grow(off, len));
+                    }
+                    int n = Math.min(fa.length - off, buf.length >> 2);
+                    readFully(buf, 0, n << 2);
+                    for (int i = 0; i < n; i++) {
+                        fa[off + i] = Bits.getFloat(buf, i << 2);
+                    }
+                    off += n;
+                }
+                return assignHandle(fa);
+            }
+            case 'C': {
+                char[] ca = new char[initial];
+                for (int off = 0; off < len; ) {
+                    if (off == ca.length) {
+                        ca = Arrays.copyOf(ca, grow(off, len));
+                    }
+                    int n = Math.min(ca.length - off, buf.length >> 1);
+                    readFully(buf, 0, n << 1);
+                    for (int i = 0; i < n; i++) {
+                        ca[off + i] = Bits.getChar(buf, i << 1);
+                    }
+                    off += n;
+                }
+                return assignHandle(ca);
+            }
+            case 'S': {
+                short[] sa = new short[initial];
+                for (int off = 0; off < len; ) {
+                    if (off == sa.length) {
+                        sa = Arrays.copyOf(sa, grow(off, len));
+                    }
+                    int n = Math.min(sa.length - off, buf.length >> 1);
+                    readFully(buf, 0, n << 1);
+                    for (int i = 0; i < n; i++) {
+                        sa[off + i] = Bits.getShort(buf, i << 1);
+                    }
+                    off += n;
+                }
+                return assignHandle(sa);
+            }
+            case 'Z': {
+                boolean[] za = new boolean[initial];
+                for (int off = 0; off < len; ) {
+                    if (off == za.length) {
+                        za = Arrays.copyOf(za, grow(off, len));
+                    }
+                    int n = Math.min(za.length - off, buf.length);
+                    readFully(buf, 0, n);
+                    for (int i = 0; i < n; i++) {
+                        za[off + i] = Bits.getBoolean(buf, i);
+                    }
+                    off += n;
+                }
+                return assignHandle(za);
+            }
+            default:
+                throw new StreamCorruptedException("invalid array type code: " + code);
+        }
+    }
+
+    /**
+     * Reads an array length or element count.
+     */
+    private int readLength() throws IOException {
+        int len = readVarInt();
+        if (len > Integer.MAX_VALUE - 8) {
+            throw new StreamCorruptedException("invalid length: " + len);
+        }
+        return len;
+    }
+
+    /**
+     * Reads a non-negative int written in one to five bytes, seven bits at
+     * a time, low-order bits first.
+     */
+    private int readVarInt() throws IOException {
+        int v = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            int b = readUnsignedByte();
+            v |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                if (v < 0) {
+                    break;
+                }
+                return v;
+            }
+        }
+        throw new StreamCorruptedException("invalid variable-length int");
+    }
+}
@@ -0,0 +1,417 @@
+/*
+ * Copyright (c) 2013, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.io;
+
+import java.io.CompactClassRegistry.ClassInfo;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Objects;
+import static java.io.CompactClassRegistry.*;
+
+/**
+ * An output stream that writes objects in the compact format described by
+ * {@link CompactClassRegistry}, to be read by a
+ * {@link CompactObjectInputStream} using a registry with the same
+ * identifiers.
+ *
+ * <p>Each call to {@link #writeObject} writes one self-contained graph:
+ * objects referenced more than once within the graph are written once, but
+ * objects shared between graphs written by separate calls are written again,
+ * and each graph can be read on its own.
+ *
+ * <p>The stream buffers its output.  Each graph is passed to the underlying
+ * stream, without flushing it, when {@code writeObject} returns; primitive
+ * data written between graphs is passed on when the next graph is written,
+ * or when this stream is flushed or closed.
+ *
+ * @see CompactObjectInputStream
+ * @since 1.8
+ */
+public class CompactObjectOutputStream extends DataOutputStream
+    implements ObjectOutput
+{
+    /** the size of the buffer used to write primitive data */
+    private static final int BUFFER_SIZE = 1024;
+
+    private final CompactClassRegistry registry;
+
+    /** handles of the objects written in the current graph */
+    private final IdentityHashMap<Object, Integer> handles = new IdentityHashMap<>();
+    /** the handle of the next object written in the current graph */
+    private int nextHandle;
+    /** ids of the classes whose schema was written in the current graph */
+    private final BitSet announced = new BitSet();
+    private byte[] buf = new byte[BUFFER_SIZE];
+
+    /**
+     * Creates a stream that writes to the given output stream the objects
+     * of classes registered in the given registry.
+     *
+     * @param  out the underlying output stream
+     * @param  registry the registry of classes
+     * @throws NullPointerException if {@code registry} is {@code null}
+     */
+    public CompactObjectOutputStream(OutputStream out, CompactClassRegistry registry) {
+        super(new Buffer(out));
+        this.registry = Objects.requireNonNull(registry);
+    }
+
+    /**
+     * The buffer between this stream and the underlying stream, so that type
+     * codes and variable-length ints, which are written a byte at a time,
+     * do not each reach the underlying stream.
+     */
+    private static final class Buffer extends BufferedOutputStream {
+        Buffer(OutputStream out) {
+            super(out);
+        }
+
+        /** Writes the buffered bytes without flushing the underlying stream */
+        synchronized void drain() throws IOException {
+            if (count > 0) {
+                out.write(buf, 0, count);
+                count = 0;
+            }
+        }
+    }
+
+    /**
+     * Writes the graph of objects reachable from the given object.
+     *
+     * @param  obj the object to write, or {@code null}
+     * @throws NotSerializableException if the graph contains an object of a
+     *         class that is not supported by the compact format
+     * @throws IOException if an I/O error occurs
+     */
+    @Override
+    public void writeObject(Object obj) throws IOException {
+        try {
+            writeObject0(obj);
+            ((Buffer) out).drain();
+        } finally {
+            handles.clear();
+            nextHandle = 0;
+            announced.clear();
+        }
+    }
+
+    private void writeObject0(Object obj) throws IOException {
+        if (obj == null) {
+            write(TC_NULL);
+            return;
+        }
+        Integer handle = handles.get(obj);
+        if (handle != null) {
+            write(TC_HANDLE);
+            writeVarInt(handle);
+            return;
+        }
+
+        Class<?> cl = obj.getClass();
+        if (cl == String.class) {
+            assignHandle(obj);
+            writeString((String) obj);
+        } else if (cl.isArray()) {
+            assignHandle(obj);
+            writeArray(obj, cl.getComponentType());
+        } else if (writeBoxed(obj, cl)) {
+            // written by value
+        } else if (obj instanceof Enum) {
+            Class<?> ecl = ((Enum<?>) obj).getDeclaringClass();
+            ClassInfo info = registry.lookup(ecl);
+            if (info == null) {
+                throw new NotSerializableException(ecl.getName());
+            }
+            assignHandle(obj);
+            write(TC_ENUM);
+            writeClass(info);
+            writeUTF(((Enum<?>) obj).name());
+        } else if (cl == ArrayList.class || cl == HashSet.class ||
+                   cl == LinkedHashSet.class) {
+            assignHandle(obj);
+            Collection<?> c = (Collection<?>) obj;
+            write(TC_COLLECTION);
+            write((cl == ArrayList.class) ? 0 : (cl == HashSet.class) ? 1 : 2);
+            writeVarInt(c.size());
+            for (Object e : c) {
+                writeObject0(e);
+            }
+        } else if (cl == HashMap.class || cl == LinkedHashMap.class) {
+            assignHandle(obj);
+            Map<?, ?> m = (Map<?, ?>) obj;
+            write(TC_MAP);
+            write((cl == HashMap.class) ? 0 : 1);
+            writeVarInt(m.size());
+            for (Map.Entry<?, ?> e : m.entrySet()) {
+                writeObject0(e.getKey());
+                writeObject0(e.getValue());
+            }
+        } else {
+            ClassInfo info = registry.lookup(cl);
+            if (info == null) {
+                throw new NotSerializableException(cl.getName());
+            }
+            if (info.desc.hasWriteReplaceMethod()) {
+                Object rep = info.desc.invokeWriteReplace(obj);
+                if (rep != obj) {
+                    writeObject0(rep);
+                    // later references to obj refer to the replacement, but
+                    // take no new handle, as the reader assigns none
+                    Integer repHandle = (rep != null) ? handles.get(rep) : null;
+                    if (repHandle != null) {
+                        handles.put(obj, repHandle);
+                    }
+                    return;
+                }
+            }
+            assignHandle(obj);
+            writeOrdinaryObject(obj, info);
+        }
+    }
+
+    private void assignHandle(Object obj) {
+        handles.put(obj, nextHandle++);
+    }
+
+    /**
+     * Writes the class id, followed by its schema hashes if this is the
+     * first object of the class in the graph.
+     */
+    private void writeClass(ClassInfo info) throws IOException {
+        writeVarInt(info.id);
+        if (!announced.get(info.id)) {
+            announced.set(info.id);
+            long[] hashes = info.hashes;
+            writeVarInt(hashes.length);
+            for (long h : hashes) {
+                writeLong(h);
+            }
+        }
+    }
+
+    private void writeOrdinaryObject(Object obj, ClassInfo info)
+        throws IOException
+    {
+        write(TC_OBJECT);
+        writeClass(info);
+        for (ObjectStreamClass level : info.levels) {
+            int primDataSize = level.getPrimDataSize();
+            if (primDataSize > 0) {
+                if (buf.length < primDataSize) {
+                    buf = new byte[primDataSize];
+                }
+                level.getPrimFieldValues(obj, buf);
+                write(buf, 0, primDataSize);
+            }
+            int numObjFields = level.getNumObjFields();
+            if (numObjFields > 0) {
+                Object[] vals = new Object[numObjFields];
+                level.getObjFieldValues(obj, vals);
+                for (Object val : vals) {
+                    writeObject0(val);
+                }
+            }
+        }
+    }
+
+    private void writeString(String s) throws IOException {
+        int len = s.length();
+        long utflen = 0;
+        for (int i = 0; i < len && utflen <= 0xFFFF; i++) {
+            char c = s.charAt(i);
+            utflen += (c >= 0x0001 && c <= 0x007F) ? 1 : (c > 0x07FF) ? 3 : 2;
+        }
+        if (utflen <= 0xFFFF) {
+            write(TC_STRING);
+            writeUTF(s);
+        } else {
+            write(TC_LONGSTRING);
+            writeVarInt(len);
+            writeChars(s);
+        }
+    }
+
+    private boolean writeBoxed(Object obj, Class<?> cl) throws IOException {
+        if (cl == Integer.class) {
+            write(TC_BOXED); write('I'); writeInt((Integer) obj);
+        } else if (cl == Long.class) {
+            write(TC_BOXED); write('J'); writeLong((Long) obj);
+        } else if (cl == Boolean.class) {
+            write(TC_BOXED); write('Z'); writeBoolean((Boolean) obj);
+        } else if (cl == Double.class) {
+            write(TC_BOXED); write('D'); writeDouble((Double) obj);
+        } else if (cl == Float.class) {
+            write(TC_BOXED); write('F'); writeFloat((Float) obj);
+        } else if (cl == Short.class) {
+            write(TC_BOXED); write('S'); writeShort((Short) obj);
+        } else if (cl == Byte.class) {
+            write(TC_BOXED); write('B'); writeByte((Byte) obj);
+        } else if (cl == Character.class) {
+            write(TC_BOXED); write('C'); writeChar((Character) obj);
+        } else {
+            return false;
+        }
+        return true;
+    }
+
+    private void writeArray(Object array, Class<?> ccl) throws IOException {
+        if (!ccl.isPrimitive()) {
+            int component;
+            if (ccl == Object.class) {
+                component = COMPONENT_OBJECT;
+            } else if (ccl == String.class) {
+                component = COMPONENT_STRING;
+            } else {
+                ClassInfo info = registry.lookup(ccl);
+                if (info == null) {
+                    throw new NotSerializableException(array.getClass().getName());
+                }
+                component = info.id + 2;
+            }
+            Object[] objs = (Object[]) array;
+            write(TC_OBJECTARRAY);
+            writeVarInt(component);
+            writeVarInt(objs.length);
+            for (Object o : objs) {
+                writeObject0(o);
+            }
+            return;
+        }
+
+        write(TC_ARRAY);
+        if (ccl == Byte.TYPE) {
+            byte[] ba = (byte[]) array;
+            write('B');
+            writeVarInt(ba.length);
+            write(ba, 0, ba.length);
+        } else if (ccl == Integer.TYPE) {
+            int[] ia = (int[]) array;
+            write('I');
+            writeVarInt(ia.length);
+            for (int off = 0; off < ia.length; ) {
+                int n = Math.min(ia.length - off, buf.length >> 2);
+                for (int i = 0; i < n; i++) {
+                    Bits.putInt(buf, i << 2, ia[off + i]);
+                }
+                write(buf, 0, n << 2);
+                off += n;
+            }
+        } else if (ccl == Long.TYPE) {
+            long[] ja = (long[]) array;
+            write('J');
+            writeVarInt(ja.length);
+            for (int off = 0; off < ja.length; ) {
+                int n = Math.min(ja.length - off, buf.length >> 3);
+                for (int i = 0; i < n; i++) {
+                    Bits.putLong(buf, i << 3, ja[off + i]);
+                }
+                write(buf, 0, n << 3);
+                off += n;
+            }
+        } else if (ccl == Double.TYPE) {
+            double[] da = (double[]) array;
+            write('D');
+            writeVarInt(da.length);
+            for (int off = 0; off < da.length; ) {
+                int n = Math.min(da.length - off, buf.length >> 3);
+                for (int i = 0; i < n; i++) {
+                    Bits.putDouble(buf, i << 3, da[off + i]);
+                }
+                write(buf, 0, n << 3);
+                off += n;
+            }
+        } else if (ccl == Float.TYPE) {
+            float[] fa = (float[]) array;
+            write('F');
+            writeVarInt(fa.length);
+            for (int off = 0; off < fa.length; ) {
+                int n = Math.min(fa.length - off, buf.length >> 2);
+                for (int i = 0; i < n; i++) {
+                    Bits.putFloat(buf, i << 2, fa[off + i]);
+                }
+                write(buf, 0, n << 2);
+                off += n;
+            }
+        } else if (ccl == Character.TYPE) {
+            char[] ca = (char[]) array;
+            write('C');
+            writeVarInt(ca.length);
+            for (int off = 0; off < ca.length; ) {
+                int n = Math.min(ca.length - off, buf.length >> 1);
+                for (int i = 0; i < n; i++) {
+                    Bits.putChar(buf, i << 1, ca[off + i]);
+                }
+                write(buf, 0, n << 1);
+                off += n;
+            }
+        } else if (ccl == Short.TYPE) {
+            short[] sa = (short[]) array;
+            write('S');
+            writeVarInt(sa.length);
+            for (int off = 0; off < sa.length; ) {
+                int n = Math.min(sa.length - off, buf.length >> 1);
+                for (int i = 0; i < n; i++) {
+                    Bits.putShort(buf, i << 1, sa[off + i]);
+                }
+                write(buf, 0, n << 1);
+                off += n;
+            }
+        } else if (ccl == Boolean.TYPE) {
+            boolean[] za = (boolean[]) array;
+            write('Z');
+            writeVarInt(za.length);
+            for (int off = 0; off < za.length; ) {
+                int n = Math.min(za.length - off, buf.length);
+                for (int i = 0; i < n; i++) {
+                    Bits.putBoolean(buf, i, za[off + i]);
+                }
+                write(buf, 0, n);
+                off += n;
+            }
+        } else {
+            throw new InternalError();
+        }
+    }
+
+    /**
+     * Writes a non-negative int in one to five bytes, seven bits at a time,
+     * low-order bits first.
+     */
+    private void writeVarInt(int v) throws IOException {
+        while ((v & ~0x7F) != 0) {
+            write((v & 0x7F) | 0x80);
+            v >>>= 7;
+        }
+        write(v);
+    }
+}
@@ -149,6 +149,33 @@ class DataInputStream extends FilterInputStream implements DataInput {
         return in.read(b, off, len);
     }
 
+    /**
+     * Reads all bytes from the contained input stream and writes them to the
+     * given output stream.  As the bulk reads of this stream are those of the
+     * contained input stream, the transfer is handed to the
+     * <code>transferTo</code> method of that stream, unless this is an
+     * instance of a subclass.
+     *
+     * @param      out the output stream, non-null
+     * @return     the number of bytes transferred
+     * @exception  IOException if an I/O error occurs when reading or writing
+     * @exception  NullPointerException if <code>out</code> is <code>null</code>
+     * @see        java.io.FilterInputStream#in
+     * @see        java.io.InputStream#transferTo(OutputStream)
+     * @since 1.8
+     */
+    public long transferTo(OutputStream out) throws IOException {
+        if (out == null) {
+            throw new NullPointerException("out");
+        }
+        // As for the other filter streams, only this exact class hands off:
+        // a subclass may rely on the transfer going through this stream
+        if (getClass() != DataInputStream.class) {
+            return super.transferTo(out);
+        }
+        return in.transferTo(out);
+    }
+
     /**
      * See the general contract of the <code>readFully</code>
      * method of <code>DataInput</code>.
@@ -35,6 +35,9 @@ import java.security.AccessController;
 import java.security.SecureRandom;
 import java.nio.file.Path;
 import java.nio.file.FileSystems;
+import java.nio.file.InvalidPathException;
+import java.nio.file.attribute.BasicFileAttributes;
+import sun.nio.fs.FileAttributeCache;
 import sun.security.action.GetPropertyAction;
 
 /**
@@ -827,6 +830,9 @@ public class File
         if (isInvalid()) {
             return false;
         }
+        Path p = cachePath();
+        if (p != null)
+            return cachedAttributes(p) != null;
         return ((fs.getBooleanAttributes(this) & FileSystem.BA_EXISTS) != 0);
     }
 
@@ -857,6 +863,11 @@ public class File
         if (isInvalid()) {
             return false;
         }
+        Path p = cachePath();
+        if (p != null) {
+            BasicFileAttributes attrs = cachedAttributes(p);
+            return attrs != null && attrs.isDirectory();
+        }
         return ((fs.getBooleanAttributes(this) & FileSystem.BA_DIRECTORY)
                 != 0);
     }
@@ -890,6 +901,11 @@ public class File
         if (isInvalid()) {
             return false;
         }
+        Path p = cachePath();
+        if (p != null) {
+            BasicFileAttributes attrs = cachedAttributes(p);
+            return attrs != null && attrs.isRegularFile();
+        }
         return ((fs.getBooleanAttributes(this) & FileSystem.BA_REGULAR) != 0);
     }
 
@@ -951,6 +967,11 @@ public class File
         if (isInvalid()) {
             return 0L;
         }
+        Path p = cachePath();
+        if (p != null) {
+            BasicFileAttributes attrs = cachedAttributes(p);
+            return (attrs != null) ? attrs.lastModifiedTime().toMillis() : 0L;
+        }
         return fs.getLastModifiedTime(this);
     }
 
@@ -982,6 +1003,11 @@ public class File
         if (isInvalid()) {
             return 0L;
         }
+        Path p = cachePath();
+        if (p != null) {
+            BasicFileAttributes attrs = cachedAttributes(p);
+            return (attrs != null) ? attrs.size() : 0L;
+        }
         return fs.getLength(this);
     }
 
@@ -1020,7 +1046,9 @@ public class File
         if (isInvalid()) {
             throw new IOException("Invalid file path");
         }
-        return fs.createFileExclusively(path);
+        boolean created = fs.createFileExclusively(path);
+        invalidateCachedAttributes();
+        return created;
     }
 
     /**
@@ -1049,7 +1077,9 @@ public class File
         if (isInvalid()) {
             return false;
         }
-        return fs.delete(this);
+        boolean deleted = fs.delete(this);
+        invalidateCachedAttributes();
+        return deleted;
     }
 
     /**
@@ -1352,7 +1382,9 @@ public class File
         if (isInvalid()) {
             return false;
         }
-        return fs.createDirectory(this);
+        boolean created = fs.createDirectory(this);
+        invalidateCachedAttributes();
+        return created;
     }
 
     /**
@@ -1433,7 +1465,10 @@ public class File
         if (this.isInvalid() || dest.isInvalid()) {
             return false;
         }
-        return fs.rename(this, dest);
+        boolean renamed = fs.rename(this, dest);
+        invalidateCachedAttributes();
+        dest.invalidateCachedAttributes();
+        return renamed;
     }
 
     /**
@@ -1471,7 +1506,9 @@ public class File
         if (isInvalid()) {
             return false;
         }
-        return fs.setLastModifiedTime(this, time);
+        boolean set = fs.setLastModifiedTime(this, time);
+        invalidateCachedAttributes();
+        return set;
     }
 
     /**
@@ -2277,4 +2314,40 @@ public class File
         }
         return result;
     }
+
+    /**
+     * Returns the path of this file in the file attribute cache, or null if
+     * the cache is disabled or cannot hold this file.
+     */
+    private Path cachePath() {
+        if (!FileAttributeCache.isEnabled())
+            return null;
+        try {
+            return toPath();
+        } catch (InvalidPathException x) {
+            return null;
+        }
+    }
+
+    /**
+     * Returns the attributes of this file from the file attribute cache, or
+     * null if the file does not exist or its attributes cannot be read.
+     */
+    private static BasicFileAttributes cachedAttributes(Path p) {
+        try {
+            return FileAttributeCache.readAttributes(p);
+        } catch (IOException x) {
+            return null;
+        }
+    }
+
+    /**
+     * Removes this file from the file attribute cache, after an operation
+     * that may have changed or removed it.
+     */
+    void invalidateCachedAttributes() {
+        Path p = cachePath();
+        if (p != null)
+            FileAttributeCache.invalidate(p);
+    }
 }
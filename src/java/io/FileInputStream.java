@@ -26,6 +26,7 @@
 package java.io;
 
 import java.nio.channels.FileChannel;
+import java.util.Arrays;
 import sun.nio.ch.FileChannelImpl;
 
 
@@ -255,6 +256,99 @@ class FileInputStream extends InputStream
         return readBytes(b, off, len);
     }
 
+    /**
+     * Reads all remaining bytes from this file input stream.  The number of
+     * bytes remaining in the file is used to size the array read into, so
+     * that a file that does not grow while it is read is read with no
+     * intermediate buffers and no copying.
+     *
+     * @return     a byte array containing the bytes read from this input stream
+     * @exception  IOException if an I/O error occurs
+     * @exception  OutOfMemoryError if an array of the required size cannot be
+     *             allocated.
+     * @since 1.8
+     */
+    public byte[] readAllBytes() throws IOException {
+        int size = available();
+        if (size <= 0) {
+            return super.readAllBytes();
+        }
+
+        byte[] buf = new byte[size];
+        int nread = readNBytes(buf, 0, size);
+        if (nread < size) {
+            return Arrays.copyOf(buf, nread);
+        }
+        int b = read();
+        if (b < 0) {
+            return buf;
+        }
+
+        // The file grew, or the estimate was short: read the rest
+        byte[] rest = super.readAllBytes();
+        if (Integer.MAX_VALUE - 8 - nread - 1 < rest.length) {
+            throw new OutOfMemoryError("Required array size too large");
+        }
+        byte[] result = Arrays.copyOf(buf, nread + 1 + rest.length);
+        result[nread] = (byte)b;
+        System.arraycopy(rest, 0, result, nread + 1, rest.length);
+        return result;
+    }
+
+    /**
+     * Reads all bytes from this file input stream and writes them to the
+     * given output stream.
+     *
+     * <p> If the output stream is a {@code FileOutputStream}, the bytes are
+     * transferred from the file channel of this stream to that of the output
+     * stream with {@link FileChannel#transferTo FileChannel.transferTo}, which
+     * many operating systems carry out without copying the bytes into the
+     * Java heap.  Otherwise, or if the file is not seekable, the bytes are
+     * transferred as by {@link InputStream#transferTo InputStream.transferTo}.
+     *
+     * @param      out the output stream, non-null
+     * @return     the number of bytes transferred
+     * @exception  IOException if an I/O error occurs when reading or writing
+     * @exception  NullPointerException if {@code out} is {@code null}
+     * @since 1.8
+     */
+    public long transferTo(OutputStream out) throws IOException {
+        long transferred = 0L;
+        // A subclass may have overridden read or write, so that the channels
+        // would bypass it
+        if (out != null && out.getClass() == FileOutputStream.class
+                && getClass() == FileInputStream.class) {
+            FileChannel fc = getChannel();
+            FileChannel target = ((FileOutputStream)out).getChannel();
+            long pos;
+            long size;
+            try {
+                pos = fc.position();
+                size = fc.size();
+            } catch (IOException x) {
+                // not seekable, for example a pipe
+                return super.transferTo(out);
+            }
+            while (pos < size) {
+                long n = fc.transferTo(pos, size - pos, target);
+                if (n <= 0) {
+                    break;
+                }
+                pos += n;
+                transferred += n;
+            }
+            if (transferred > 0) {
+                fc.position(pos);
+            }
+            // A file of size zero may still have content, as do many files
+            // of /proc, and a file may have grown
+            if (size > 0 && pos >= fc.size()) {
+                return transferred;
+            }
+        }
+        return transferred + super.transferTo(out);
+    }
+
     /**
      * Skips over and discards <code>n</code> bytes of data from the
      * input stream.
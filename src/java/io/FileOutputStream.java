@@ -27,6 +27,7 @@ package java.io;
 
 import java.nio.channels.FileChannel;
 import sun.nio.ch.FileChannelImpl;
+import sun.nio.fs.FileAttributeCache;
 
 
 /**
@@ -211,6 +212,7 @@ class FileOutputStream extends OutputStream
         this.path = name;
 
         open(name, append);
+        file.invalidateCachedAttributes();
     }
 
     /**
@@ -356,6 +358,10 @@ class FileOutputStream extends OutputStream
                close0();
            }
         });
+
+        // the file's size and modification time are now final
+        if (path != null && FileAttributeCache.isEnabled())
+            new File(path).invalidateCachedAttributes();
     }
 
     /**
@@ -2260,13 +2260,22 @@ public class ObjectOutputStream
          */
         HandleTable(int initialCapacity, float loadFactor) {
             this.loadFactor = loadFactor;
-            spine = new int[initialCapacity];
+            spine = new int[spineLength(initialCapacity)];
             next = new int[initialCapacity];
             objs = new Object[initialCapacity];
-            threshold = (int) (initialCapacity * loadFactor);
+            threshold = (int) (spine.length * loadFactor);
             clear();
         }
 
+        /**
+         * Returns the power of two spine length for the given capacity, so
+         * that a hash value is reduced to a spine index by masking rather
+         * than by division.
+         */
+        private static int spineLength(int capacity) {
+            return Math.max(Integer.highestOneBit(Math.max(capacity - 1, 1)) << 1, 2);
+        }
+
         /**
          * Assigns next available handle to given object, and returns handle
          * value.  Handles are assigned in ascending order starting at 0.
@@ -2290,7 +2299,7 @@ public class ObjectOutputStream
             if (size == 0) {
                 return -1;
             }
-            int index = hash(obj) % spine.length;
+            int index = hash(obj) & (spine.length - 1);
             for (int i = spine[index]; i >= 0; i = next[i]) {
                 if (objs[i] == obj) {
                     return i;
@@ -2320,7 +2329,7 @@ public class ObjectOutputStream
          * is large enough to accommodate new mapping.
          */
         private void insert(Object obj, int handle) {
-            int index = hash(obj) % spine.length;
+            int index = hash(obj) & (spine.length - 1);
             objs[handle] = obj;
             next[handle] = spine[index];
             spine[index] = handle;
@@ -2331,7 +2340,7 @@ public class ObjectOutputStream
          * buckets in a conventional hash table.
          */
         private void growSpine() {
-            spine = new int[(spine.length << 1) + 1];
+            spine = new int[spine.length << 1];
             threshold = (int) (spine.length * loadFactor);
             Arrays.fill(spine, -1);
             for (int i = 0; i < size; i++) {
@@ -2354,10 +2363,12 @@ public class ObjectOutputStream
         }
 
         /**
-         * Returns hash value for given object.
+         * Returns hash value for given object.  The high bits of the identity
+         * hash code are folded into the low bits used to index the spine.
          */
         private int hash(Object obj) {
-            return System.identityHashCode(obj) & 0x7FFFFFFF;
+            int h = System.identityHashCode(obj);
+            return h ^ (h >>> 16);
         }
     }
 
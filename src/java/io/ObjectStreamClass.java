@@ -118,6 +118,44 @@ public class ObjectStreamClass implements Serializable {
         /** queue for WeakReferences to field reflectors keys */
         private static final ReferenceQueue<Class<?>> reflectorsQueue =
             new ReferenceQueue<>();
+
+        /**
+         * class value mapping local classes -> descriptors, consulted before
+         * localDescs since it needs no key to be allocated
+         */
+        static final ClassValue<DescRef> descRefs = new ClassValue<DescRef>() {
+            @Override
+            protected DescRef computeValue(Class<?> type) {
+                return new DescRef();
+            }
+        };
+    }
+
+    /**
+     * The descriptor of a local class, referenced softly as in
+     * Caches.localDescs, or strongly once it has been preloaded.
+     */
+    private static final class DescRef {
+        volatile Reference<ObjectStreamClass> soft;
+        volatile ObjectStreamClass pinned;
+
+        ObjectStreamClass get() {
+            ObjectStreamClass desc = pinned;
+            if (desc == null) {
+                Reference<ObjectStreamClass> ref = soft;
+                if (ref != null) {
+                    desc = ref.get();
+                }
+            }
+            return desc;
+        }
+
+        void set(ObjectStreamClass desc) {
+            Reference<ObjectStreamClass> ref = soft;
+            if (pinned == null && (ref == null || ref.get() != desc)) {
+                soft = new SoftReference<>(desc);
+            }
+        }
     }
 
     /** class associated with this descriptor (if any) */
@@ -247,6 +285,32 @@ public class ObjectStreamClass implements Serializable {
         return lookup(cl, true);
     }
 
+    /**
+     * Finds the descriptors of the given classes, and of their serializable
+     * superclasses, and keeps them for as long as the classes are loaded.
+     * Descriptors are otherwise created on first use and cached only until
+     * the garbage collector needs the memory.  An application that
+     * serializes a known set of classes at a high rate can preload their
+     * descriptors at startup, so that neither the first serialization of an
+     * object nor one after memory pressure pays for creating them.
+     * Classes that do not implement {@link Serializable} are ignored.
+     *
+     * @param  classes the classes whose descriptors to preload
+     * @throws NullPointerException if {@code classes} or any of its elements
+     *         is {@code null}
+     * @since 1.8
+     */
+    public static void preload(Class<?>... classes) {
+        for (Class<?> cl : classes) {
+            for (ObjectStreamClass desc = lookup(cl, false);
+                 desc != null && desc.cl != null;
+                 desc = desc.superDesc)
+            {
+                Caches.descRefs.get(desc.cl).pinned = desc;
+            }
+        }
+    }
+
     /**
      * Returns the name of the class described by this descriptor.
      * This method returns the name of the class in the format that
@@ -344,6 +408,11 @@ public class ObjectStreamClass implements Serializable {
         if (!(all || Serializable.class.isAssignableFrom(cl))) {
             return null;
         }
+        DescRef descRef = Caches.descRefs.get(cl);
+        ObjectStreamClass cached = descRef.get();
+        if (cached != null) {
+            return cached;
+        }
         processQueue(Caches.localDescsQueue, Caches.localDescs);
         WeakClassKey key = new WeakClassKey(cl, Caches.localDescsQueue);
         Reference<?> ref = Caches.localDescs.get(key);
@@ -370,6 +439,7 @@ public class ObjectStreamClass implements Serializable {
         }
 
         if (entry instanceof ObjectStreamClass) {  // check common case first
+            descRef.set((ObjectStreamClass) entry);
             return (ObjectStreamClass) entry;
         }
         if (entry instanceof EntryFuture) {
@@ -401,6 +471,7 @@ public class ObjectStreamClass implements Serializable {
         }
 
         if (entry instanceof ObjectStreamClass) {
+            descRef.set((ObjectStreamClass) entry);
             return (ObjectStreamClass) entry;
         } else if (entry instanceof RuntimeException) {
             throw (RuntimeException) entry;
@@ -756,6 +827,39 @@ public class ObjectStreamClass implements Serializable {
         initialized = true;
     }
 
+    /**
+     * Returns a class descriptor binding the given serializable fields,
+     * declared by another version of the given class, to the local class, as
+     * initNonProxy does for a descriptor read from a stream.  Fields are
+     * matched by name and type, and unmatched stream fields are discarded.
+     * Used by CompactObjectInputStream to read data written with a schema
+     * that differs from that of the local class.
+     */
+    static ObjectStreamClass forStreamFields(Class<?> cl,
+                                             ObjectStreamField[] streamFields)
+        throws InvalidClassException
+    {
+        ObjectStreamClass local = lookup(cl, true);
+        ObjectStreamClass model = new ObjectStreamClass();
+        model.name = local.name;
+        model.suid = Long.valueOf(local.getSerialVersionUID());
+        model.isProxy = false;
+        model.isEnum = local.isEnum;
+        model.serializable = local.serializable;
+        model.externalizable = local.externalizable;
+        model.fields = new ObjectStreamField[streamFields.length];
+        for (int i = 0; i < streamFields.length; i++) {
+            ObjectStreamField f = streamFields[i];
+            model.fields[i] = new ObjectStreamField(f.getName(), f.getSignature(), false);
+        }
+        Arrays.sort(model.fields);
+        model.computeFieldOffsets();
+
+        ObjectStreamClass desc = new ObjectStreamClass();
+        desc.initNonProxy(model, cl, null, local.superDesc);
+        return desc;
+    }
+
     /**
      * Reads non-proxy class descriptor information from given input stream.
      * The resulting class descriptor is not fully functional; it can only be
@@ -192,6 +192,38 @@ class PushbackInputStream extends FilterInputStream {
         return avail;
     }
 
+    /**
+     * Reads all bytes from this input stream and writes them to the given
+     * output stream.  Any pushed-back bytes are written first; the rest of
+     * the transfer is then handed to the <code>transferTo</code> method of the
+     * underlying input stream.
+     *
+     * @param      out the output stream, non-null
+     * @return     the number of bytes transferred
+     * @exception  IOException  if this input stream has been closed by
+     *             invoking its {@link #close()} method,
+     *             or an I/O error occurs.
+     * @exception  NullPointerException if <code>out</code> is <code>null</code>
+     * @see        java.io.InputStream#transferTo(OutputStream)
+     * @since 1.8
+     */
+    public long transferTo(OutputStream out) throws IOException {
+        if (out == null) {
+            throw new NullPointerException("out");
+        }
+        // A subclass may have overridden read, which handing off would bypass
+        if (getClass() != PushbackInputStream.class) {
+            return super.transferTo(out);
+        }
+        ensureOpen();
+        int avail = buf.length - pos;
+        if (avail > 0) {
+            out.write(buf, pos, avail);
+            pos = buf.length;
+        }
+        return avail + in.transferTo(out);
+    }
+
     /**
      * Pushes back a byte by copying it to the front of the pushback buffer.
      * After this method returns, the next byte to be read will have the value
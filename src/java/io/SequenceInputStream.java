@@ -213,6 +213,35 @@ class SequenceInputStream extends InputStream {
         return -1;
     }
 
+    /**
+     * Reads all bytes from the substreams in turn and writes them to the
+     * given output stream.  The transfer from each substream is handed to its
+     * own <code>transferTo</code> method, after which the substream is closed
+     * as by {@link #read(byte[], int, int)}.
+     *
+     * @param      out the output stream, non-null
+     * @return     the number of bytes transferred
+     * @exception  NullPointerException if <code>out</code> is <code>null</code>
+     * @exception  IOException  if an I/O error occurs.
+     * @see        java.io.InputStream#transferTo(OutputStream)
+     * @since 1.8
+     */
+    public long transferTo(OutputStream out) throws IOException {
+        if (out == null) {
+            throw new NullPointerException("out");
+        }
+        // A subclass may have overridden read, which handing off would bypass
+        if (getClass() != SequenceInputStream.class) {
+            return super.transferTo(out);
+        }
+        long transferred = 0;
+        while (in != null) {
+            transferred += in.transferTo(out);
+            nextStream();
+        }
+        return transferred;
+    }
+
     /**
      * Closes this input stream and releases any system resources
      * associated with the stream.
@@ -716,6 +716,8 @@ abstract class AbstractStringBuilder implements Appendable, CharSequence {
      * @return  a reference to this object.
      */
     public AbstractStringBuilder append(float f) {
+        if (Double.isSmallInteger(f))
+            return appendSmallInteger((int)f);
         FloatingDecimal.appendTo(f,this);
         return this;
     }
@@ -733,7 +735,22 @@ abstract class AbstractStringBuilder implements Appendable, CharSequence {
      * @return  a reference to this object.
      */
     public AbstractStringBuilder append(double d) {
-        FloatingDecimal.appendTo(d,this);
+        ensureCapacityInternal(count + DoubleToDecimal.MAX_CHARS);
+        count = DoubleToDecimal.toChars(d, value, count);
+        return this;
+    }
+
+    // Appends a float for which Double.isSmallInteger is true, writing its
+    // digits in place
+    private AbstractStringBuilder appendSmallInteger(int i) {
+        int appendedLength = ((i < 0) ? Integer.stringSize(-i) + 1
+                                      : Integer.stringSize(i)) + 2;
+        int spaceNeeded = count + appendedLength;
+        ensureCapacityInternal(spaceNeeded);
+        Integer.getChars(i, spaceNeeded - 2, value);
+        value[spaceNeeded - 2] = '.';
+        value[spaceNeeded - 1] = '0';
+        count = spaceNeeded;
         return this;
     }
 
@@ -0,0 +1,571 @@
+/*
+ * Copyright (c) 2013, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.lang;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.util.Arrays;
+
+/**
+ * A mutable sequence of characters for building large text, such as a
+ * response of several megabytes, that is stored in fixed-size chunks.
+ *
+ * <p>A {@link StringBuilder} keeps its characters in a single array, which
+ * it replaces with a copy twice the size whenever it fills up, and
+ * {@code toString} copies the characters once more.  A
+ * {@code ChunkedStringBuilder} appends into a chunk until it is full and
+ * then starts a new one, so characters that have been appended are never
+ * moved.  The text can be written to a {@link Writer} chunk by chunk, or
+ * encoded into an {@link OutputStream} or a {@link ByteBuffer}, without
+ * first being flattened into a single array or string.
+ *
+ * <p>Builders can also be reused: {@link #acquire()} returns a builder
+ * cached by the current thread, if there is one, and {@link #release()}
+ * returns a builder to the cache, keeping a bounded number of its chunks
+ * for the next use.  This suits request-scoped formatting, where each
+ * request would otherwise allocate, and grow, a builder of its own.
+ *
+ * <p>Instances of {@code ChunkedStringBuilder} are not safe for use by
+ * multiple threads.  Unless otherwise noted, passing a {@code null}
+ * argument to a method of this class will cause a {@link
+ * NullPointerException} to be thrown.
+ *
+ * @see     java.lang.StringBuilder
+ * @since   1.8
+ */
+public final class ChunkedStringBuilder implements Appendable, CharSequence {
+
+    /**
+     * The default number of characters in a chunk.
+     */
+    private static final int DEFAULT_CHUNK_SIZE = 4096;
+
+    /**
+     * The largest number of chunks a released builder keeps.
+     */
+    private static final int MAX_POOLED_CHUNKS = 16;
+
+    /**
+     * The size of the buffer used to encode characters for an output stream.
+     */
+    private static final int BYTE_BUFFER_SIZE = 8192;
+
+    /**
+     * The builder cached by each thread, or null if there is none.
+     */
+    private static final ThreadLocal<ChunkedStringBuilder> POOL =
+        new IndexedThreadLocal<>();
+
+    private final int chunkShift;
+    private final int chunkMask;
+
+    /**
+     * The chunks: those before {@code chunks[chunkCount - 1]} are full, and
+     * those from {@code chunks[chunkCount]} on, if any, are kept for reuse.
+     */
+    private char[][] chunks;
+    private int chunkCount;
+
+    /**
+     * The chunk being appended to and the number of characters in it.
+     */
+    private char[] current;
+    private int pos;
+
+    /**
+     * The number of characters in this builder.
+     */
+    private int count;
+
+    /**
+     * Scratch space for formatting numbers.
+     */
+    private char[] digits;
+
+    /**
+     * Constructs a builder with no characters in it and the default chunk
+     * size.
+     */
+    public ChunkedStringBuilder() {
+        this(DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * Constructs a builder with no characters in it and the given chunk
+     * size, rounded up to a power of two.
+     *
+     * @param  chunkSize  the number of characters in each chunk
+     * @throws IllegalArgumentException if {@code chunkSize} is not positive
+     *         or is greater than 2<sup>30</sup>
+     */
+    public ChunkedStringBuilder(int chunkSize) {
+        if (chunkSize <= 0 || chunkSize > (1 << 30))
+            throw new IllegalArgumentException("Illegal chunk size: " + chunkSize);
+        int shift = 32 - Integer.numberOfLeadingZeros(chunkSize - 1);
+        chunkShift = shift;
+        chunkMask = (1 << shift) - 1;
+        chunks = new char[4][];
+        current = chunks[0] = new char[1 << shift];
+        chunkCount = 1;
+    }
+
+    /**
+     * Returns a builder with no characters in it, taken from the current
+     * thread's cache if there is one there, or else newly created.
+     *
+     * @return a builder with no characters in it
+     * @see #release()
+     */
+    public static ChunkedStringBuilder acquire() {
+        ChunkedStringBuilder sb = POOL.get();
+        if (sb == null)
+            return new ChunkedStringBuilder();
+        POOL.set(null);
+        return sb;
+    }
+
+    /**
+     * Clears this builder and caches it in the current thread, to be
+     * returned by a later call of {@link #acquire()}, keeping at most a
+     * bounded number of its chunks.  The builder must not be used after it
+     * has been released.
+     */
+    public void release() {
+        clear();
+        if (chunks.length > MAX_POOLED_CHUNKS)
+            chunks = Arrays.copyOf(chunks, MAX_POOLED_CHUNKS);
+        if (chunkMask + 1 == DEFAULT_CHUNK_SIZE)
+            POOL.set(this);
+    }
+
+    /**
+     * Removes all the characters from this builder.  Its chunks are kept,
+     * to be filled again.
+     */
+    public void clear() {
+        count = 0;
+        pos = 0;
+        chunkCount = 1;
+        current = chunks[0];
+    }
+
+    /**
+     * Returns the number of characters in this builder.
+     *
+     * @return the number of characters in this builder
+     */
+    @Override
+    public int length() {
+        return count;
+    }
+
+    /**
+     * Returns the {@code char} value at the specified index.
+     *
+     * @param  index  the index of the desired {@code char} value
+     * @return the {@code char} value at the specified index
+     * @throws IndexOutOfBoundsException if {@code index} is negative or not
+     *         less than {@code length()}
+     */
+    @Override
+    public char charAt(int index) {
+        if (index < 0 || index >= count)
+            throw new StringIndexOutOfBoundsException(index);
+        return chunks[index >>> chunkShift][index & chunkMask];
+    }
+
+    /**
+     * Returns a new string containing the characters of this builder in the
+     * given range.
+     *
+     * @param  start  the start index, inclusive
+     * @param  end    the end index, exclusive
+     * @return the specified subsequence
+     * @throws IndexOutOfBoundsException if {@code start} or {@code end} is
+     *         negative, if {@code end} is greater than {@code length()}, or
+     *         if {@code start} is greater than {@code end}
+     */
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        if (start < 0 || end > count || start > end)
+            throw new StringIndexOutOfBoundsException(
+                "start " + start + ", end " + end + ", length " + count);
+        char[] buf = new char[end - start];
+        copyTo(start, end, buf);
+        return new String(buf, true);
+    }
+
+    /**
+     * Appends the string representation of the {@code char} argument.
+     *
+     * @param  c  a {@code char}
+     * @return a reference to this object
+     */
+    @Override
+    public ChunkedStringBuilder append(char c) {
+        if (pos == current.length)
+            nextChunk(1);
+        current[pos++] = c;
+        count++;
+        return this;
+    }
+
+    /**
+     * Appends the specified string.  If {@code str} is {@code null}, then
+     * the four characters {@code "null"} are appended.
+     *
+     * @param  str  a string
+     * @return a reference to this object
+     */
+    public ChunkedStringBuilder append(String str) {
+        if (str == null)
+            str = "null";
+        int len = str.length();
+        int off = 0;
+        while (off < len) {
+            if (pos == current.length)
+                nextChunk(len - off);
+            int n = Math.min(len - off, current.length - pos);
+            str.getChars(off, off + n, current, pos);
+            pos += n;
+            count += n;
+            off += n;
+        }
+        return this;
+    }
+
+    /**
+     * Appends the specified character sequence.  If {@code s} is
+     * {@code null}, then the four characters {@code "null"} are appended.
+     *
+     * @param  s  the character sequence to append
+     * @return a reference to this object
+     */
+    @Override
+    public ChunkedStringBuilder append(CharSequence s) {
+        if (s == null)
+            return append("null");
+        return append(s, 0, s.length());
+    }
+
+    /**
+     * Appends a subsequence of the specified character sequence.  If
+     * {@code s} is {@code null}, then characters are appended as if
+     * {@code s} contained the four characters {@code "null"}.
+     *
+     * @param  s      the sequence to append
+     * @param  start  the starting index of the subsequence to be appended
+     * @param  end    the end index of the subsequence to be appended
+     * @return a reference to this object
+     * @throws IndexOutOfBoundsException if {@code start} is negative, or
+     *         {@code start} is greater than {@code end} or {@code end} is
+     *         greater than {@code s.length()}
+     */
+    @Override
+    public ChunkedStringBuilder append(CharSequence s, int start, int end) {
+        if (s == null)
+            s = "null";
+        if (start < 0 || start > end || end > s.length())
+            throw new IndexOutOfBoundsException(
+                "start " + start + ", end " + end + ", s.length() " + s.length());
+        while (start < end) {
+            if (pos == current.length)
+                nextChunk(end - start);
+            int n = Math.min(end - start, current.length - pos);
+            if (s instanceof String) {
+                ((String)s).getChars(start, start + n, current, pos);
+            } else if (s instanceof AbstractStringBuilder) {
+                ((AbstractStringBuilder)s).getChars(start, start + n, current, pos);
+            } else {
+                for (int i = 0; i < n; i++)
+                    current[pos + i] = s.charAt(start + i);
+            }
+            pos += n;
+            count += n;
+            start += n;
+        }
+        return this;
+    }
+
+    /**
+     * Appends the characters of a subarray of the {@code char} array
+     * argument.
+     *
+     * @param  str     the characters to be appended
+     * @param  offset  the index of the first {@code char} to append
+     * @param  len     the number of {@code char}s to append
+     * @return a reference to this object
+     * @throws IndexOutOfBoundsException if {@code offset < 0} or
+     *         {@code len < 0} or {@code offset+len > str.length}
+     */
+    public ChunkedStringBuilder append(char[] str, int offset, int len) {
+        if ((offset | len | (offset + len) | (str.length - offset - len)) < 0)
+            throw new IndexOutOfBoundsException(
+                "offset " + offset + ", len " + len + ", str.length " + str.length);
+        int end = offset + len;
+        while (offset < end) {
+            if (pos == current.length)
+                nextChunk(end - offset);
+            int n = Math.min(end - offset, current.length - pos);
+            System.arraycopy(str, offset, current, pos, n);
+            pos += n;
+            count += n;
+            offset += n;
+        }
+        return this;
+    }
+
+    /**
+     * Appends the string representation of the {@code Object} argument, as
+     * if by {@link String#valueOf(Object)}.
+     *
+     * @param  obj  an {@code Object}
+     * @return a reference to this object
+     */
+    public ChunkedStringBuilder append(Object obj) {
+        return append(String.valueOf(obj));
+    }
+
+    /**
+     * Appends the string representation of the {@code int} argument, as if
+     * by {@link Integer#toString(int)}, without creating a string.
+     *
+     * @param  i  an {@code int}
+     * @return a reference to this object
+     */
+    public ChunkedStringBuilder append(int i) {
+        if (i == Integer.MIN_VALUE)
+            return append("-2147483648");
+        int size = (i < 0) ? Integer.stringSize(-i) + 1
+                           : Integer.stringSize(i);
+        char[] buf = digits();
+        Integer.getChars(i, size, buf);
+        return append(buf, 0, size);
+    }
+
+    /**
+     * Appends the string representation of the {@code long} argument, as if
+     * by {@link Long#toString(long)}, without creating a string.
+     *
+     * @param  l  a {@code long}
+     * @return a reference to this object
+     */
+    public ChunkedStringBuilder append(long l) {
+        if (l == Long.MIN_VALUE)
+            return append("-9223372036854775808");
+        int size = (l < 0) ? Long.stringSize(-l) + 1
+                           : Long.stringSize(l);
+        char[] buf = digits();
+        Long.getChars(l, size, buf);
+        return append(buf, 0, size);
+    }
+
+    private char[] digits() {
+        char[] buf = digits;
+        if (buf == null)
+            digits = buf = new char[20];
+        return buf;
+    }
+
+    // Moves to the next chunk, which must be able to hold at least one of
+    // the given number of characters still to be appended
+    private void nextChunk(int remaining) {
+        if (count + remaining < 0)
+            throw new OutOfMemoryError();
+        if (chunkCount == chunks.length)
+            chunks = Arrays.copyOf(chunks, chunkCount * 2);
+        char[] c = chunks[chunkCount];
+        if (c == null)
+            chunks[chunkCount] = c = new char[chunkMask + 1];
+        chunkCount++;
+        current = c;
+        pos = 0;
+    }
+
+    // Copies the characters in the given range into dst, starting at 0
+    private void copyTo(int start, int end, char[] dst) {
+        int d = 0;
+        while (start < end) {
+            char[] c = chunks[start >>> chunkShift];
+            int off = start & chunkMask;
+            int n = Math.min(end - start, c.length - off);
+            System.arraycopy(c, off, dst, d, n);
+            d += n;
+            start += n;
+        }
+    }
+
+    /**
+     * Writes the characters of this builder to the given writer, chunk by
+     * chunk.  The writer is not flushed.
+     *
+     * @param  out  the writer
+     * @throws IOException if an I/O error occurs
+     */
+    public void writeTo(Writer out) throws IOException {
+        int last = chunkCount - 1;
+        for (int i = 0; i < last; i++)
+            out.write(chunks[i], 0, chunkMask + 1);
+        if (pos > 0)
+            out.write(current, 0, pos);
+    }
+
+    /**
+     * Writes the characters of this builder to the given output stream,
+     * encoded in the given charset.  Malformed input and unmappable
+     * characters are replaced with the charset's default replacement.  The
+     * stream is not flushed.
+     *
+     * @param  out      the output stream
+     * @param  charset  the charset
+     * @throws IOException if an I/O error occurs
+     */
+    public void writeTo(OutputStream out, Charset charset) throws IOException {
+        ByteBuffer bb = ByteBuffer.wrap(new byte[BYTE_BUFFER_SIZE]);
+        encodeTo(bb, out, charset);
+        if (bb.position() > 0)
+            out.write(bb.array(), 0, bb.position());
+    }
+
+    /**
+     * Encodes the characters of this builder in the given charset into the
+     * given buffer, starting at its position, which is advanced past the
+     * bytes written.  Malformed input and unmappable characters are
+     * replaced with the charset's default replacement.
+     *
+     * @param  dst      the buffer
+     * @param  charset  the charset
+     * @throws BufferOverflowException if there is insufficient space in the
+     *         buffer, in which case its position is unspecified
+     */
+    public void writeTo(ByteBuffer dst, Charset charset) {
+        try {
+            encodeTo(dst, null, charset);
+        } catch (IOException x) {
+            // There is no stream to write to,
+            // so this shouldn't happen
+            throw new Error(x);
+        }
+    }
+
+    // Encodes the chunks one at a time into dst, which is written to out
+    // and cleared whenever it is full, or if out is null, overflows.
+    private void encodeTo(ByteBuffer dst, OutputStream out, Charset charset)
+        throws IOException
+    {
+        CharsetEncoder enc = newEncoder(charset);
+        int last = chunkCount - 1;
+        char high = 0;
+        boolean carried = false;
+        for (int i = 0; i <= last; i++) {
+            char[] c = chunks[i];
+            int len = (i < last) ? chunkMask + 1 : pos;
+            if (len == 0)
+                continue;
+            int off = 0;
+            // A surrogate pair may span chunks.  The encoder leaves a high
+            // surrogate at the end of its input unread until it sees the
+            // next character, so it is carried over and encoded together
+            // with the first character of the next chunk, which is read
+            // again from the chunk if it is a high surrogate itself.
+            if (carried) {
+                CharBuffer pair = CharBuffer.wrap(new char[] { high, c[0] });
+                encode(enc, pair, false, dst, out);
+                if (!pair.hasRemaining())
+                    off = 1;
+                carried = false;
+            }
+            CharBuffer src = CharBuffer.wrap(c, off, len - off);
+            encode(enc, src, false, dst, out);
+            if (src.hasRemaining()) {
+                high = src.get();
+                carried = true;
+            }
+        }
+        CharBuffer rest = CharBuffer.wrap(new char[] { high }, 0, carried ? 1 : 0);
+        encode(enc, rest, true, dst, out);
+        encode(enc, null, true, dst, out);
+    }
+
+    // Encodes src, or flushes the encoder if src is null, writing dst to
+    // out and clearing it each time it is full
+    private static void encode(CharsetEncoder enc, CharBuffer src,
+                               boolean endOfInput, ByteBuffer dst,
+                               OutputStream out)
+        throws IOException
+    {
+        for (;;) {
+            CoderResult cr = (src == null) ? enc.flush(dst)
+                                           : enc.encode(src, dst, endOfInput);
+            if (cr.isUnderflow())
+                return;
+            if (!cr.isOverflow())
+                throwUnexpected(cr);
+            if (out == null)
+                throw new BufferOverflowException();
+            out.write(dst.array(), 0, dst.position());
+            dst.clear();
+        }
+    }
+
+    private static CharsetEncoder newEncoder(Charset charset) {
+        return charset.newEncoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    }
+
+    private static void throwUnexpected(CoderResult cr) {
+        try {
+            cr.throwException();
+        } catch (CharacterCodingException x) {
+            // Substitution is always enabled,
+            // so this shouldn't happen
+            throw new Error(x);
+        }
+    }
+
+    /**
+     * Returns a string containing the characters of this builder.  The
+     * characters are copied once, into the new string.
+     *
+     * @return a string representation of this builder
+     */
+    @Override
+    public String toString() {
+        char[] buf = new char[count];
+        copyTo(0, count, buf);
+        return new String(buf, true);
+    }
+}
@@ -47,12 +47,12 @@ import java.security.PrivilegedAction;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Set;
 import java.util.Map;
-import java.util.HashMap;
 import java.util.Objects;
 import sun.misc.Unsafe;
 import sun.reflect.CallerSensitive;
@@ -1557,6 +1557,42 @@ public final class Class<T> implements java.io.Serializable,
         return copyFields(privateGetPublicFields(null));
     }
 
+    /**
+     * Returns an unmodifiable list of {@code Field} objects reflecting all
+     * the accessible public fields of the class or interface represented by
+     * this {@code Class} object.
+     *
+     * <p> The list contains the same members, in the same order, as the array
+     * returned by {@link #getFields()}, but neither the list nor its members
+     * are copied: they are created once and then shared by all callers.
+     * The {@linkplain java.lang.reflect.AccessibleObject#setAccessible
+     * accessibility} of these {@code Field} objects cannot be changed, and
+     * {@code setAccessible(true)} throws {@code SecurityException}.  A caller
+     * that needs to suppress access checks should use a member returned by
+     * {@link #getFields()} instead.
+     *
+     * @return  the list of {@code Field} objects representing the
+     *          public fields
+     * @throws  SecurityException
+     *          If a security manager is present and denies access to the
+     *          members, as for {@link #getFields()}
+     *
+     * @since 1.8
+     * @see #getFields()
+     */
+    @CallerSensitive
+    public List<Field> getFieldList() throws SecurityException {
+        checkMemberAccess(Member.PUBLIC, Reflection.getCallerClass(), true);
+        Field[] members = privateGetPublicFields(null);
+        ReflectionData<T> rd = reflectionData();
+        if (rd == null)
+            return sharedList(members);
+        List<Field> list = rd.publicFieldList;
+        if (list == null)
+            rd.publicFieldList = list = sharedList(members);
+        return list;
+    }
+
 
     /**
      * Returns an array containing {@code Method} objects reflecting all the
@@ -1615,6 +1651,43 @@ public final class Class<T> implements java.io.Serializable,
         return copyMethods(privateGetPublicMethods());
     }
 
+    /**
+     * Returns an unmodifiable list of {@code Method} objects reflecting all
+     * the public methods of the class or interface represented by this {@code
+     * Class} object, including those declared by the class or interface and
+     * those inherited from superclasses and superinterfaces.
+     *
+     * <p> The list contains the same members, in the same order, as the array
+     * returned by {@link #getMethods()}, but neither the list nor its members
+     * are copied: they are created once and then shared by all callers.
+     * The {@linkplain java.lang.reflect.AccessibleObject#setAccessible
+     * accessibility} of these {@code Method} objects cannot be changed, and
+     * {@code setAccessible(true)} throws {@code SecurityException}.  A caller
+     * that needs to suppress access checks should use a member returned by
+     * {@link #getMethods()} instead.
+     *
+     * @return  the list of {@code Method} objects representing the
+     *          public methods of this class
+     * @throws  SecurityException
+     *          If a security manager is present and denies access to the
+     *          members, as for {@link #getMethods()}
+     *
+     * @since 1.8
+     * @see #getMethods()
+     */
+    @CallerSensitive
+    public List<Method> getMethodList() throws SecurityException {
+        checkMemberAccess(Member.PUBLIC, Reflection.getCallerClass(), true);
+        Method[] members = privateGetPublicMethods();
+        ReflectionData<T> rd = reflectionData();
+        if (rd == null)
+            return sharedList(members);
+        List<Method> list = rd.publicMethodList;
+        if (list == null)
+            rd.publicMethodList = list = sharedList(members);
+        return list;
+    }
+
 
     /**
      * Returns an array containing {@code Constructor} objects reflecting
@@ -1916,6 +1989,42 @@ public final class Class<T> implements java.io.Serializable,
         return copyFields(privateGetDeclaredFields(false));
     }
 
+    /**
+     * Returns an unmodifiable list of {@code Field} objects reflecting all
+     * the fields declared by the class or interface represented by this
+     * {@code Class} object.
+     *
+     * <p> The list contains the same members, in the same order, as the array
+     * returned by {@link #getDeclaredFields()}, but neither the list nor its members
+     * are copied: they are created once and then shared by all callers.
+     * The {@linkplain java.lang.reflect.AccessibleObject#setAccessible
+     * accessibility} of these {@code Field} objects cannot be changed, and
+     * {@code setAccessible(true)} throws {@code SecurityException}.  A caller
+     * that needs to suppress access checks should use a member returned by
+     * {@link #getDeclaredFields()} instead.
+     *
+     * @return  the list of {@code Field} objects representing all the
+     *          declared fields of this class
+     * @throws  SecurityException
+     *          If a security manager is present and denies access to the
+     *          members, as for {@link #getDeclaredFields()}
+     *
+     * @since 1.8
+     * @see #getDeclaredFields()
+     */
+    @CallerSensitive
+    public List<Field> getDeclaredFieldList() throws SecurityException {
+        checkMemberAccess(Member.DECLARED, Reflection.getCallerClass(), true);
+        Field[] members = privateGetDeclaredFields(false);
+        ReflectionData<T> rd = reflectionData();
+        if (rd == null)
+            return sharedList(members);
+        List<Field> list = rd.declaredFieldList;
+        if (list == null)
+            rd.declaredFieldList = list = sharedList(members);
+        return list;
+    }
+
 
     /**
      *
@@ -1975,6 +2084,43 @@ public final class Class<T> implements java.io.Serializable,
         return copyMethods(privateGetDeclaredMethods(false));
     }
 
+    /**
+     * Returns an unmodifiable list of {@code Method} objects reflecting all
+     * the declared methods of the class or interface represented by this
+     * {@code Class} object, including public, protected, default (package)
+     * access, and private methods, but excluding inherited methods.
+     *
+     * <p> The list contains the same members, in the same order, as the array
+     * returned by {@link #getDeclaredMethods()}, but neither the list nor its members
+     * are copied: they are created once and then shared by all callers.
+     * The {@linkplain java.lang.reflect.AccessibleObject#setAccessible
+     * accessibility} of these {@code Method} objects cannot be changed, and
+     * {@code setAccessible(true)} throws {@code SecurityException}.  A caller
+     * that needs to suppress access checks should use a member returned by
+     * {@link #getDeclaredMethods()} instead.
+     *
+     * @return  the list of {@code Method} objects representing all the
+     *          declared methods of this class
+     * @throws  SecurityException
+     *          If a security manager is present and denies access to the
+     *          members, as for {@link #getDeclaredMethods()}
+     *
+     * @since 1.8
+     * @see #getDeclaredMethods()
+     */
+    @CallerSensitive
+    public List<Method> getDeclaredMethodList() throws SecurityException {
+        checkMemberAccess(Member.DECLARED, Reflection.getCallerClass(), true);
+        Method[] members = privateGetDeclaredMethods(false);
+        ReflectionData<T> rd = reflectionData();
+        if (rd == null)
+            return sharedList(members);
+        List<Method> list = rd.declaredMethodList;
+        if (list == null)
+            rd.declaredMethodList = list = sharedList(members);
+        return list;
+    }
+
 
     /**
      * Returns an array of {@code Constructor} objects reflecting all the
@@ -2472,6 +2618,11 @@ public final class Class<T> implements java.io.Serializable,
         volatile Field[] declaredPublicFields;
         volatile Method[] declaredPublicMethods;
         volatile Class<?>[] interfaces;
+        // Lists returned by getFieldList, getMethodList etc.
+        volatile List<Field> declaredFieldList;
+        volatile List<Field> publicFieldList;
+        volatile List<Method> declaredMethodList;
+        volatile List<Method> publicMethodList;
 
         // Value of classRedefinedCount when we created this ReflectionData instance
         final int redefinedCount;
@@ -2509,8 +2660,17 @@ public final class Class<T> implements java.io.Serializable,
 
         while (true) {
             ReflectionData<T> rd = new ReflectionData<>(classRedefinedCount);
+            SoftReference<ReflectionData<T>> ref = isStronglyCached()
+                ? new StrongReference<>(rd)
+                : new SoftReference<>(rd);
             // try to CAS it...
-            if (Atomic.casReflectionData(this, oldReflectionData, new SoftReference<>(rd))) {
+            if (Atomic.casReflectionData(this, oldReflectionData, ref)) {
+                if (oldReflectionData == null)
+                    ReflectionCacheStatistics.recordCreated();
+                else if (oldReflectionData.get() == null)
+                    ReflectionCacheStatistics.recordReclaimed();
+                else
+                    ReflectionCacheStatistics.recordInvalidated();
                 return rd;
             }
             // else retry
@@ -2524,6 +2684,40 @@ public final class Class<T> implements java.io.Serializable,
         }
     }
 
+    // The lists returned by getFieldList, getMethodList etc.: read-only
+    // views of the cached root members, which refuse to be made accessible
+    private static <M> List<M> sharedList(M[] root) {
+        return Collections.unmodifiableList(Arrays.asList(root));
+    }
+
+    // Whether the reflection data of this class is held strongly, as
+    // set by the sun.reflect.strongCaches property
+    private boolean isStronglyCached() {
+        String[] prefixes = strongCachePrefixes;
+        if (prefixes == null)
+            return false;
+        String name = getName();
+        for (String prefix : prefixes) {
+            if (name.startsWith(prefix))
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * A SoftReference that is never cleared, as it also holds its referent
+     * strongly, used for the reflection data of classes named by the
+     * sun.reflect.strongCaches property.
+     */
+    private static final class StrongReference<T> extends SoftReference<T> {
+        private final T referent;
+
+        StrongReference(T referent) {
+            super(referent);
+            this.referent = referent;
+        }
+    }
+
     // Generic signature handling
     private native String getGenericSignature0();
 
@@ -3250,6 +3444,10 @@ public final class Class<T> implements java.io.Serializable,
     }
     private static ReflectionFactory reflectionFactory;
 
+    // Class name prefixes of the classes whose reflection data is held
+    // strongly, or null if none
+    private static volatile String[] strongCachePrefixes;
+
     // To be able to query system properties as soon as they're available
     private static boolean initted = false;
     private static void checkInitted() {
@@ -3277,6 +3475,13 @@ public final class Class<T> implements java.io.Serializable,
                         useCaches = false;
                     }
 
+                    // Comma-separated class name prefixes, for example
+                    // "com.example.model.,com.example.Service"
+                    val = System.getProperty("sun.reflect.strongCaches");
+                    if (val != null && !val.isEmpty()) {
+                        strongCachePrefixes = val.split(",");
+                    }
+
                     initted = true;
                     return null;
                 }
@@ -3330,26 +3535,50 @@ public final class Class<T> implements java.io.Serializable,
     private volatile transient T[] enumConstants = null;
 
     /**
-     * Returns a map from simple name to enum constant.  This package-private
-     * method is used internally by Enum to implement
+     * Returns an unmodifiable list of the elements of this enum class, in
+     * the order they're declared, or null if this Class object does not
+     * represent an enum type.
+     *
+     * <p>Unlike {@link #getEnumConstants()} and the {@code values()} method
+     * of an enum type, which return a new array on each call, this method
+     * returns a view of an array that is created once and shared by all
+     * callers.
+     *
+     * @return a list of the values comprising the enum class represented by
+     *     this Class object, or null if this Class object does not represent
+     *     an enum type
+     * @since 1.8
+     */
+    public List<T> getEnumConstantList() {
+        List<T> list = enumConstantList;
+        if (list == null) {
+            T[] values = getEnumConstantsShared();
+            if (values == null)
+                return null;
+            enumConstantList = list = Collections.unmodifiableList(Arrays.asList(values));
+        }
+        return list;
+    }
+    private volatile transient List<T> enumConstantList = null;
+
+    /**
+     * Returns a directory from simple name to enum constant.  This
+     * package-private method is used internally by Enum to implement
      * {@code public static <T extends Enum<T>> T valueOf(Class<T>, String)}
-     * efficiently.  Note that the map is returned by this method is
+     * efficiently.  Note that the directory is returned by this method is
      * created lazily on first use.  Typically it won't ever get created.
      */
-    Map<String, T> enumConstantDirectory() {
+    EnumDirectory<T> enumConstantDirectory() {
         if (enumConstantDirectory == null) {
             T[] universe = getEnumConstantsShared();
             if (universe == null)
                 throw new IllegalArgumentException(
                     getName() + " is not an enum type");
-            Map<String, T> m = new HashMap<>(2 * universe.length);
-            for (T constant : universe)
-                m.put(((Enum<?>)constant).name(), constant);
-            enumConstantDirectory = m;
+            enumConstantDirectory = EnumDirectory.of(universe);
         }
         return enumConstantDirectory;
     }
-    private volatile transient Map<String, T> enumConstantDirectory = null;
+    private volatile transient EnumDirectory<T> enumConstantDirectory = null;
 
     /**
      * Casts an object to the class or interface represented
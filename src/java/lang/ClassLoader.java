@@ -40,6 +40,7 @@ import java.security.PrivilegedActionException;
 import java.security.PrivilegedExceptionAction;
 import java.security.ProtectionDomain;
 import java.security.cert.Certificate;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Enumeration;
 import java.util.HashMap;
@@ -51,6 +52,7 @@ import java.util.Vector;
 import java.util.Hashtable;
 import java.util.WeakHashMap;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 import sun.misc.CompoundEnumeration;
 import sun.misc.Resource;
 import sun.misc.URLClassPath;
@@ -239,6 +241,26 @@ public abstract class ClassLoader {
     // is parallel capable and the appropriate lock object for class loading.
     private final ConcurrentHashMap<String, Object> parallelLockMap;
 
+    // The names of the classes that neither this class loader nor its
+    // parents could find, when negative lookup caching is enabled, each
+    // mapped to the NegativeLookupGeneration at which its lookup started;
+    // null otherwise.
+    private volatile Map<String, Integer> negativeLookups;
+
+    // The largest number of names kept by the negative lookup cache, which
+    // is cleared when it fills up.
+    private static final int MAX_NEGATIVE_LOOKUPS = 8192;
+
+    // Counts the events that may make a name cached as not found loadable,
+    // by this class loader or by any class loader that delegates to it:
+    // clearing the cache of any class loader and defining a class.  A cached
+    // name is only used while the generation it was cached at is current.
+    // Held in its own class, as AtomicInteger cannot be initialized while
+    // ClassLoader is.
+    private static final class NegativeLookupGeneration {
+        static final AtomicInteger value = new AtomicInteger();
+    }
+
     // Hashtable that maps packages to certs
     private final Map <String, Certificate[]> package2certs;
 
@@ -395,10 +417,22 @@ public abstract class ClassLoader {
     protected Class<?> loadClass(String name, boolean resolve)
         throws ClassNotFoundException
     {
+        Map<String, Integer> misses = negativeLookups;
+        if (misses != null) {
+            // Classes appended to the bootstrap search path by an agent do
+            // not bump the generation, so the bootstrap loader is asked again
+            Integer generation = misses.get(name);
+            if (generation != null
+                    && generation.intValue() == NegativeLookupGeneration.value.get()
+                    && findBootstrapClassOrNull(name) == null) {
+                throw new ClassNotFoundException(name);
+            }
+        }
         synchronized (getClassLoadingLock(name)) {
             // First, check if the class has already been loaded
             Class<?> c = findLoadedClass(name);
             if (c == null) {
+                int generation = NegativeLookupGeneration.value.get();
                 long t0 = System.nanoTime();
                 try {
                     if (parent != null) {
@@ -415,7 +449,12 @@ public abstract class ClassLoader {
                     // If still not found, then invoke findClass in order
                     // to find the class.
                     long t1 = System.nanoTime();
-                    c = findClass(name);
+                    try {
+                        c = findClass(name);
+                    } catch (ClassNotFoundException e) {
+                        recordNegativeLookup(name, generation);
+                        throw e;
+                    }
 
                     // this is the defining class loader; record the stats
                     sun.misc.PerfCounter.getParentDelegationTime().addTime(t1 - t0);
@@ -462,6 +501,102 @@ public abstract class ClassLoader {
         return lock;
     }
 
+    /**
+     * Enables or disables the caching of failed lookups by {@link
+     * #loadClass(String, boolean) loadClass}.  While caching is enabled,
+     * the name of a class that neither the parent class loader nor {@link
+     * #findClass findClass} could find is remembered, and later requests
+     * for the class fail at once with a {@code ClassNotFoundException},
+     * without taking the class loading lock, delegating to the parent or
+     * calling {@code findClass} again.  This helps code that repeatedly
+     * probes for optional classes.
+     *
+     * <p> A class loader should only enable caching if a class that cannot
+     * be found now will not be found later, or if it calls {@link
+     * #clearNegativeLookupCache()} whenever that might change, such as when
+     * it is given a new location to search.  Since a class loader delegates
+     * to its parent, clearing the cache of any class loader, or defining a
+     * class in any class loader, invalidates the names cached by every class
+     * loader.  The cache is bounded, and is cleared when it fills up.
+     *
+     * @param  enabled
+     *         {@code true} to enable caching, {@code false} to disable it and
+     *         discard the cached names
+     *
+     * @since  1.8
+     */
+    protected final void setNegativeLookupCacheEnabled(boolean enabled) {
+        if (enabled) {
+            if (negativeLookups == null) {
+                negativeLookups = new ConcurrentHashMap<>();
+            }
+        } else {
+            negativeLookups = null;
+        }
+    }
+
+    /**
+     * Discards the names of the classes that this class loader has cached
+     * as not found, so that they are looked up again when next requested.
+     * The names cached by other class loaders, which may delegate to this
+     * one, are invalidated too.
+     *
+     * @see #setNegativeLookupCacheEnabled(boolean)
+     * @since  1.8
+     */
+    protected void clearNegativeLookupCache() {
+        NegativeLookupGeneration.value.incrementAndGet();
+        Map<String, Integer> misses = negativeLookups;
+        if (misses != null) {
+            misses.clear();
+        }
+    }
+
+    // Caches a failed lookup that started at the given generation.  If an
+    // event happened while the lookup was in progress the generation is
+    // already stale, and the name will not be used.
+    private void recordNegativeLookup(String name, int generation) {
+        Map<String, Integer> misses = negativeLookups;
+        if (misses != null) {
+            if (misses.size() >= MAX_NEGATIVE_LOOKUPS) {
+                misses.clear();
+            }
+            misses.put(name, generation);
+        }
+    }
+
+    /**
+     * Loads the classes with the given <a href="#name">binary names</a>
+     * through {@link #loadClass(String, boolean) loadClass}, without
+     * initializing them, so that they are ready when first used.  If this
+     * class loader is {@linkplain #registerAsParallelCapable() parallel
+     * capable}, the classes are loaded in parallel, in the {@linkplain
+     * java.util.concurrent.ForkJoinPool#commonPool() common pool}.
+     * Classes that cannot be found or cannot be loaded are skipped.
+     *
+     * @param  names
+     *         The binary names of the classes to load
+     *
+     * @return  The number of the classes that were loaded
+     *
+     * @since  1.8
+     */
+    public final int preloadClasses(Collection<String> names) {
+        java.util.stream.Stream<String> s = (parallelLockMap != null)
+            ? names.parallelStream()
+            : names.stream();
+        return (int) s.filter(this::preloadClass).count();
+    }
+
+    private boolean preloadClass(String name) {
+        try {
+            loadClass(name, false);
+            return true;
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+
     // This method is invoked by the virtual machine to load a class.
     private Class<?> loadClassInternal(String name)
         throws ClassNotFoundException
@@ -675,6 +810,7 @@ public abstract class ClassLoader {
 
     private void postDefineClass(Class<?> c, ProtectionDomain pd)
     {
+        NegativeLookupGeneration.value.incrementAndGet();
         if (pd.getCodeSource() != null) {
             Certificate certs[] = pd.getCodeSource().getCertificates();
             if (certs != null)
@@ -25,6 +25,7 @@
 
 package java.lang;
 
+import java.io.IOException;
 import sun.misc.FloatingDecimal;
 import sun.misc.FpUtils;
 import sun.misc.DoubleConsts;
@@ -201,7 +202,44 @@ public final class Double extends Number implements Comparable<Double> {
      * @return a string representation of the argument.
      */
     public static String toString(double d) {
-        return FloatingDecimal.toJavaFormatString(d);
+        return DoubleToDecimal.toString(d);
+    }
+
+    /**
+     * Appends the string representation of the {@code double} argument, as
+     * returned by {@link #toString(double)}, to the given {@code Appendable}.
+     * If the {@code Appendable} is a {@link StringBuilder} or a {@link
+     * StringBuffer} the characters are written directly into its buffer,
+     * without creating a string.
+     *
+     * @param   <A> the type of the {@code Appendable}
+     * @param   d   the {@code double} to be converted.
+     * @param   a   the {@code Appendable} to append to.
+     * @return  {@code a}
+     * @throws  IOException if {@code a} throws it
+     * @throws  NullPointerException if {@code a} is {@code null}
+     * @since   1.8
+     */
+    public static <A extends Appendable> A appendTo(double d, A a) throws IOException {
+        if (a instanceof AbstractStringBuilder) {
+            ((AbstractStringBuilder)a).append(d);
+        } else {
+            a.append(toString(d));
+        }
+        return a;
+    }
+
+    /**
+     * Returns whether the argument is an integer of magnitude less than
+     * 10<sup>7</sup>, other than negative zero.  The string representation
+     * of such a value, as a {@code float}, is the decimal integer followed
+     * by {@code ".0"}, so it can be formatted without the general
+     * floating-point conversion.
+     */
+    static boolean isSmallInteger(double d) {
+        int i = (int)d;
+        return i == d && i > -10_000_000 && i < 10_000_000 &&
+            (i != 0 || doubleToRawLongBits(d) == 0L);
     }
 
     /**
@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2013, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.lang;
+
+import java.util.Arrays;
+
+/**
+ * A map from the names of the constants of an enum type to the constants,
+ * used to implement {@link Enum#valueOf(Class, String)}.
+ *
+ * <p>The names are kept in an open-addressed table that is at most half
+ * full.  When the directory is built, multipliers for the names' hash codes
+ * are tried until one is found under which no two names share a slot, so
+ * that looking up a name takes a single probe: one multiplication, one
+ * array access and one string comparison.  If no such multiplier is found,
+ * for example because two names have the same hash code, the best one
+ * tried is used and colliding names are found by linear probing.
+ */
+final class EnumDirectory<T> {
+
+    /**
+     * The number of multipliers tried for each table size.
+     */
+    private static final int ATTEMPTS_PER_SIZE = 64;
+
+    /**
+     * The number of times the table size is doubled while searching for a
+     * perfect hash.
+     */
+    private static final int MAX_DOUBLINGS = 2;
+
+    private final String[] names;
+    private final Object[] constants;
+    private final int multiplier;
+    private final int shift;
+
+    private EnumDirectory(String[] names, Object[] constants,
+                          int multiplier, int shift) {
+        this.names = names;
+        this.constants = constants;
+        this.multiplier = multiplier;
+        this.shift = shift;
+    }
+
+    /**
+     * Builds the directory of the given enum constants.
+     */
+    static <T> EnumDirectory<T> of(T[] universe) {
+        int n = universe.length;
+        int[] hashes = new int[n];
+        for (int i = 0; i < n; i++)
+            hashes[i] = ((Enum<?>)universe[i]).name().hashCode();
+
+        int bits = 1;
+        while ((1 << bits) < 2 * n)
+            bits++;
+        int bestMultiplier = multiplier(0);
+        int bestBits = bits;
+        int bestCollisions = Integer.MAX_VALUE;
+        search:
+        for (int d = 0; d <= MAX_DOUBLINGS && bits + d <= 30; d++) {
+            int b = bits + d;
+            boolean[] used = new boolean[1 << b];
+            for (int k = 0; k < ATTEMPTS_PER_SIZE; k++) {
+                int m = multiplier(k);
+                int collisions = 0;
+                for (int h : hashes) {
+                    int slot = (h * m) >>> (32 - b);
+                    if (used[slot])
+                        collisions++;
+                    used[slot] = true;
+                }
+                Arrays.fill(used, false);
+                if (collisions < bestCollisions) {
+                    bestCollisions = collisions;
+                    bestMultiplier = m;
+                    bestBits = b;
+                    if (collisions == 0)
+                        break search;
+                }
+            }
+        }
+
+        int mask = (1 << bestBits) - 1;
+        int shift = 32 - bestBits;
+        String[] names = new String[mask + 1];
+        Object[] constants = new Object[mask + 1];
+        for (int i = 0; i < n; i++) {
+            int slot = (hashes[i] * bestMultiplier) >>> shift;
+            while (names[slot] != null)
+                slot = (slot + 1) & mask;
+            names[slot] = ((Enum<?>)universe[i]).name();
+            constants[slot] = universe[i];
+        }
+        return new EnumDirectory<>(names, constants, bestMultiplier, shift);
+    }
+
+    // The k'th odd multiplier to try, spread by the golden ratio
+    private static int multiplier(int k) {
+        return (int)(((k + 1) * 0x9E3779B97F4A7C15L) >>> 32) | 1;
+    }
+
+    /**
+     * Returns the constant with the given name, or null if there is none
+     * or the name is null.
+     */
+    @SuppressWarnings("unchecked")
+    T get(String name) {
+        if (name == null)
+            return null;
+        int mask = names.length - 1;
+        int slot = (name.hashCode() * multiplier) >>> shift;
+        for (;;) {
+            String n = names[slot];
+            if (n == null)
+                return null;
+            if (n == name || n.equals(name))
+                return (T)constants[slot];
+            slot = (slot + 1) & mask;
+        }
+    }
+}
@@ -203,6 +203,8 @@ public final class Float extends Number implements Comparable<Float> {
      * @return a string representation of the argument.
      */
     public static String toString(float f) {
+        if (Double.isSmallInteger(f))
+            return Double.toString(f);
         return FloatingDecimal.toJavaFormatString(f);
     }
 
@@ -0,0 +1,272 @@
+/*
+ * Copyright (c) 2013, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.lang;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * A thread-local variable whose values are stored at a fixed index of an
+ * array held by each thread, rather than in the thread's hash map of
+ * {@link ThreadLocal} values.
+ *
+ * <p>Each {@code IndexedThreadLocal} is assigned a dense index when it is
+ * created, so {@link #get} and {@link #set} are an array access, with no
+ * hashing, probing or clearing of stale entries.  This suits thread-local
+ * variables that are read very frequently, typically ones held in static
+ * fields for the life of the application.  The per-thread arrays grow with
+ * the highest index in use, so an application that creates many short-lived
+ * thread-local variables should use {@code ThreadLocal} instead, or
+ * {@linkplain #destroy() destroy} each variable when it is no longer needed
+ * so that its index can be reused.
+ *
+ * <p>An {@code IndexedThreadLocal} is not inherited by child threads, even
+ * if a subclass overrides methods of {@code InheritableThreadLocal}.
+ *
+ * @param <T> the type of the thread-local's value
+ * @since 1.8
+ */
+public class IndexedThreadLocal<T> extends ThreadLocal<T> {
+
+    /*
+     * Thread.indexedThreadLocals holds a pair of elements for each index:
+     * the owning IndexedThreadLocal, followed by its value.  Checking the
+     * owner distinguishes a value that was never set from one that is null,
+     * and keeps a variable from seeing a value left behind by a destroyed
+     * variable whose index it reuses.  Each array is only written by its
+     * own thread: destroy() clears the calling thread's slot, and a value
+     * left in another thread's array is discarded when that thread next
+     * uses the index, so the index can be given out again at once.
+     */
+
+    /**
+     * The index of this variable's owner element in each thread's array.
+     */
+    private final int slot;
+
+    /**
+     * Whether this variable has been destroyed.
+     */
+    private volatile boolean destroyed;
+
+    /**
+     * The next index to be given out when there are no free indices.
+     * Guarded by the class lock.
+     */
+    private static int nextIndex;
+
+    /**
+     * The indices of destroyed variables, available for reuse.  Guarded by
+     * the class lock.
+     */
+    private static int[] freeIndices = new int[8];
+    private static int freeCount;
+
+    /**
+     * The largest number of indices that may be in use at once.
+     */
+    private static final int MAX_INDICES = (Integer.MAX_VALUE - 8) / 2;
+
+    /**
+     * The initial length of a thread's array.
+     */
+    private static final int INITIAL_SLOTS = 32;
+
+    private static synchronized int allocateIndex() {
+        if (freeCount > 0)
+            return freeIndices[--freeCount];
+        if (nextIndex >= MAX_INDICES)
+            throw new IllegalStateException("Too many IndexedThreadLocals");
+        return nextIndex++;
+    }
+
+    private static synchronized void freeIndex(int index) {
+        if (freeCount == freeIndices.length)
+            freeIndices = Arrays.copyOf(freeIndices, freeCount * 2);
+        freeIndices[freeCount++] = index;
+    }
+
+    /**
+     * Creates a thread-local variable.
+     * @see #withInitial(java.util.function.Supplier)
+     */
+    public IndexedThreadLocal() {
+        slot = allocateIndex() * 2;
+    }
+
+    /**
+     * Creates a thread-local variable. The initial value of the variable is
+     * determined by invoking the {@code get} method on the {@code Supplier}.
+     *
+     * @param <S> the type of the thread local's value
+     * @param supplier the supplier to be used to determine the initial value
+     * @return a new thread local variable
+     * @throws NullPointerException if the specified supplier is null
+     */
+    public static <S> IndexedThreadLocal<S> withInitial(Supplier<? extends S> supplier) {
+        return new SuppliedIndexedThreadLocal<>(supplier);
+    }
+
+    /**
+     * Returns the value in the current thread's copy of this
+     * thread-local variable.  If the variable has no value for the
+     * current thread, it is first initialized to the value returned
+     * by an invocation of the {@link #initialValue} method.
+     *
+     * @return the current thread's value of this thread-local
+     * @throws IllegalStateException if this variable has been destroyed
+     */
+    @Override
+    public T get() {
+        Thread t = Thread.currentThread();
+        Object[] slots = t.indexedThreadLocals;
+        int i = slot;
+        if (slots != null && i < slots.length && slots[i] == this && !destroyed) {
+            @SuppressWarnings("unchecked")
+            T result = (T)slots[i + 1];
+            return result;
+        }
+        return setInitialValue(t);
+    }
+
+    private T setInitialValue(Thread t) {
+        checkDestroyed();
+        T value = initialValue();
+        store(t, value);
+        return value;
+    }
+
+    /**
+     * Returns {@code true} if there is a value in the current thread's copy of
+     * this thread-local variable, even if that values is {@code null}.
+     */
+    @Override
+    boolean isPresent() {
+        Object[] slots = Thread.currentThread().indexedThreadLocals;
+        int i = slot;
+        return slots != null && i < slots.length && slots[i] == this;
+    }
+
+    /**
+     * Sets the current thread's copy of this thread-local variable
+     * to the specified value.
+     *
+     * @param value the value to be stored in the current thread's copy of
+     *        this thread-local.
+     * @throws IllegalStateException if this variable has been destroyed
+     */
+    @Override
+    public void set(T value) {
+        checkDestroyed();
+        Thread t = Thread.currentThread();
+        Object[] slots = t.indexedThreadLocals;
+        int i = slot;
+        if (slots != null && i < slots.length) {
+            slots[i] = this;
+            slots[i + 1] = value;
+        } else {
+            store(t, value);
+        }
+    }
+
+    private void store(Thread t, T value) {
+        int i = slot;
+        Object[] slots = t.indexedThreadLocals;
+        if (slots == null) {
+            slots = t.indexedThreadLocals =
+                new Object[Math.max(INITIAL_SLOTS, Integer.highestOneBit(i + 1) << 1)];
+        } else if (i >= slots.length) {
+            int n = Integer.highestOneBit(i + 1) << 1;
+            slots = t.indexedThreadLocals =
+                Arrays.copyOf(slots, (n < 0) ? Integer.MAX_VALUE - 8 : n);
+        }
+        slots[i] = this;
+        slots[i + 1] = value;
+    }
+
+    /**
+     * Removes the current thread's value for this thread-local
+     * variable.  If this thread-local variable is subsequently
+     * {@linkplain #get read} by the current thread, its value will be
+     * reinitialized by invoking its {@link #initialValue} method,
+     * unless its value is {@linkplain #set set} by the current thread
+     * in the interim.
+     */
+    @Override
+    public void remove() {
+        Object[] slots = Thread.currentThread().indexedThreadLocals;
+        int i = slot;
+        if (slots != null && i < slots.length && slots[i] == this) {
+            slots[i] = null;
+            slots[i + 1] = null;
+        }
+    }
+
+    /**
+     * Destroys this thread-local variable, removing the current thread's
+     * value and making the variable's index available to variables created
+     * later.  The values of other threads are not removed at once: each
+     * remains reachable from its thread until the thread uses the index
+     * again, through a variable created later, or terminates.
+     *
+     * <p>The variable must not be used, by any thread, once it has been
+     * destroyed.  Destroying a variable that has already been destroyed has
+     * no effect.
+     */
+    public void destroy() {
+        synchronized (IndexedThreadLocal.class) {
+            if (destroyed)
+                return;
+            destroyed = true;
+        }
+        remove();
+        freeIndex(slot / 2);
+    }
+
+    private void checkDestroyed() {
+        if (destroyed)
+            throw new IllegalStateException("IndexedThreadLocal has been destroyed");
+    }
+
+    /**
+     * An extension of IndexedThreadLocal that obtains its initial value from
+     * the specified {@code Supplier}.
+     */
+    static final class SuppliedIndexedThreadLocal<T> extends IndexedThreadLocal<T> {
+
+        private final Supplier<? extends T> supplier;
+
+        SuppliedIndexedThreadLocal(Supplier<? extends T> supplier) {
+            this.supplier = Objects.requireNonNull(supplier);
+        }
+
+        @Override
+        protected T initialValue() {
+            return supplier.get();
+        }
+    }
+}
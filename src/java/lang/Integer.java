@@ -25,6 +25,7 @@
 
 package java.lang;
 
+import java.io.IOException;
 import java.lang.annotation.Native;
 
 /**
@@ -403,6 +404,30 @@ public final class Integer extends Number implements Comparable<Integer> {
         return new String(buf, true);
     }
 
+    /**
+     * Appends the string representation of the {@code int} argument, as
+     * returned by {@link #toString(int)}, to the given {@code Appendable}.
+     * If the {@code Appendable} is a {@link StringBuilder} or a {@link
+     * StringBuffer} the characters are written directly into its buffer,
+     * without creating a string.
+     *
+     * @param   <A> the type of the {@code Appendable}
+     * @param   i   an {@code int} to be converted.
+     * @param   a   the {@code Appendable} to append to.
+     * @return  {@code a}
+     * @throws  IOException if {@code a} throws it
+     * @throws  NullPointerException if {@code a} is {@code null}
+     * @since   1.8
+     */
+    public static <A extends Appendable> A appendTo(int i, A a) throws IOException {
+        if (a instanceof AbstractStringBuilder) {
+            ((AbstractStringBuilder)a).append(i);
+        } else {
+            a.append(toString(i));
+        }
+        return a;
+    }
+
     /**
      * Returns a string representation of the argument as an unsigned
      * decimal value.
@@ -594,6 +619,98 @@ public final class Integer extends Number implements Comparable<Integer> {
         return negative ? result : -result;
     }
 
+    /**
+     * Parses the {@link CharSequence} argument as a signed {@code int} in
+     * the specified {@code radix}, beginning at the specified {@code
+     * beginIndex} and extending to {@code endIndex - 1}, exactly as {@link
+     * #parseInt(java.lang.String, int)} parses the corresponding string.  This
+     * allows a number to be parsed from a buffer, such as a {@code
+     * StringBuilder} or a {@code CharBuffer}, without first creating a
+     * string of the number.
+     *
+     * <p>The method does not take steps to guard against the
+     * {@code CharSequence} being mutated while parsing.
+     *
+     * @param      s   the {@code CharSequence} containing the {@code int}
+     *                  representation to be parsed
+     * @param      beginIndex   the beginning index, inclusive.
+     * @param      endIndex     the ending index, exclusive.
+     * @param      radix   the radix to be used while parsing {@code s}.
+     * @return     the signed {@code int} represented by the subsequence in
+     *             the specified radix.
+     * @throws     NullPointerException  if {@code s} is null.
+     * @throws     IndexOutOfBoundsException  if {@code beginIndex} is
+     *             negative, or if {@code beginIndex} is greater than
+     *             {@code endIndex} or if {@code endIndex} is greater than
+     *             {@code s.length()}.
+     * @throws     NumberFormatException  if the {@code CharSequence} does not
+     *             contain a parsable {@code int} in the specified
+     *             {@code radix}, or if {@code radix} is either smaller than
+     *             {@link java.lang.Character#MIN_RADIX} or larger than
+     *             {@link java.lang.Character#MAX_RADIX}.
+     * @since  1.8
+     */
+    public static int parseInt(CharSequence s, int beginIndex, int endIndex, int radix)
+                throws NumberFormatException {
+        if (s == null) {
+            throw new NullPointerException();
+        }
+
+        if (beginIndex < 0 || beginIndex > endIndex || endIndex > s.length()) {
+            throw new IndexOutOfBoundsException();
+        }
+        if (radix < Character.MIN_RADIX) {
+            throw new NumberFormatException("radix " + radix +
+                                            " less than Character.MIN_RADIX");
+        }
+        if (radix > Character.MAX_RADIX) {
+            throw new NumberFormatException("radix " + radix +
+                                            " greater than Character.MAX_RADIX");
+        }
+
+        boolean negative = false;
+        int i = beginIndex;
+        int limit = -Integer.MAX_VALUE;
+
+        if (i < endIndex) {
+            char firstChar = s.charAt(i);
+            if (firstChar < '0') { // Possible leading "+" or "-"
+                if (firstChar == '-') {
+                    negative = true;
+                    limit = Integer.MIN_VALUE;
+                } else if (firstChar != '+') {
+                    throw NumberFormatException.forCharSequence(s, beginIndex,
+                            endIndex, i);
+                }
+                i++;
+                if (i == endIndex) { // Cannot have lone "+" or "-"
+                    throw NumberFormatException.forCharSequence(s, beginIndex,
+                            endIndex, i);
+                }
+            }
+            int multmin = limit / radix;
+            int result = 0;
+            while (i < endIndex) {
+                // Accumulating negatively avoids surprises near MAX_VALUE
+                int digit = Character.digit(s.charAt(i), radix);
+                if (digit < 0 || result < multmin) {
+                    throw NumberFormatException.forCharSequence(s, beginIndex,
+                            endIndex, i);
+                }
+                result *= radix;
+                if (result < limit + digit) {
+                    throw NumberFormatException.forCharSequence(s, beginIndex,
+                            endIndex, i);
+                }
+                i++;
+                result -= digit;
+            }
+            return negative ? result : -result;
+        } else {
+            throw NumberFormatException.forInputString("");
+        }
+    }
+
     /**
      * Parses the string argument as a signed decimal integer. The
      * characters in the string must all be decimal digits, except
@@ -25,6 +25,7 @@
 
 package java.lang;
 
+import java.io.IOException;
 import java.lang.annotation.Native;
 import java.math.*;
 
@@ -399,6 +400,30 @@ public final class Long extends Number implements Comparable<Long> {
         return new String(buf, true);
     }
 
+    /**
+     * Appends the string representation of the {@code long} argument, as
+     * returned by {@link #toString(long)}, to the given {@code Appendable}.
+     * If the {@code Appendable} is a {@link StringBuilder} or a {@link
+     * StringBuffer} the characters are written directly into its buffer,
+     * without creating a string.
+     *
+     * @param   <A> the type of the {@code Appendable}
+     * @param   i   a {@code long} to be converted.
+     * @param   a   the {@code Appendable} to append to.
+     * @return  {@code a}
+     * @throws  IOException if {@code a} throws it
+     * @throws  NullPointerException if {@code a} is {@code null}
+     * @since   1.8
+     */
+    public static <A extends Appendable> A appendTo(long i, A a) throws IOException {
+        if (a instanceof AbstractStringBuilder) {
+            ((AbstractStringBuilder)a).append(i);
+        } else {
+            a.append(toString(i));
+        }
+        return a;
+    }
+
     /**
      * Returns a string representation of the argument as an unsigned
      * decimal value.
@@ -603,6 +628,98 @@ public final class Long extends Number implements Comparable<Long> {
         return negative ? result : -result;
     }
 
+    /**
+     * Parses the {@link CharSequence} argument as a signed {@code long} in
+     * the specified {@code radix}, beginning at the specified {@code
+     * beginIndex} and extending to {@code endIndex - 1}, exactly as {@link
+     * #parseLong(java.lang.String, int)} parses the corresponding string.  This
+     * allows a number to be parsed from a buffer, such as a {@code
+     * StringBuilder} or a {@code CharBuffer}, without first creating a
+     * string of the number.
+     *
+     * <p>The method does not take steps to guard against the
+     * {@code CharSequence} being mutated while parsing.
+     *
+     * @param      s   the {@code CharSequence} containing the {@code long}
+     *                  representation to be parsed
+     * @param      beginIndex   the beginning index, inclusive.
+     * @param      endIndex     the ending index, exclusive.
+     * @param      radix   the radix to be used while parsing {@code s}.
+     * @return     the signed {@code long} represented by the subsequence in
+     *             the specified radix.
+     * @throws     NullPointerException  if {@code s} is null.
+     * @throws     IndexOutOfBoundsException  if {@code beginIndex} is
+     *             negative, or if {@code beginIndex} is greater than
+     *             {@code endIndex} or if {@code endIndex} is greater than
+     *             {@code s.length()}.
+     * @throws     NumberFormatException  if the {@code CharSequence} does not
+     *             contain a parsable {@code long} in the specified
+     *             {@code radix}, or if {@code radix} is either smaller than
+     *             {@link java.lang.Character#MIN_RADIX} or larger than
+     *             {@link java.lang.Character#MAX_RADIX}.
+     * @since  1.8
+     */
+    public static long parseLong(CharSequence s, int beginIndex, int endIndex, int radix)
+                throws NumberFormatException {
+        if (s == null) {
+            throw new NullPointerException();
+        }
+
+        if (beginIndex < 0 || beginIndex > endIndex || endIndex > s.length()) {
+            throw new IndexOutOfBoundsException();
+        }
+        if (radix < Character.MIN_RADIX) {
+            throw new NumberFormatException("radix " + radix +
+                                            " less than Character.MIN_RADIX");
+        }
+        if (radix > Character.MAX_RADIX) {
+            throw new NumberFormatException("radix " + radix +
+                                            " greater than Character.MAX_RADIX");
+        }
+
+        boolean negative = false;
+        int i = beginIndex;
+        long limit = -Long.MAX_VALUE;
+
+        if (i < endIndex) {
+            char firstChar = s.charAt(i);
+            if (firstChar < '0') { // Possible leading "+" or "-"
+                if (firstChar == '-') {
+                    negative = true;
+                    limit = Long.MIN_VALUE;
+                } else if (firstChar != '+') {
+                    throw NumberFormatException.forCharSequence(s, beginIndex,
+                            endIndex, i);
+                }
+                i++;
+                if (i == endIndex) { // Cannot have lone "+" or "-"
+                    throw NumberFormatException.forCharSequence(s, beginIndex,
+                            endIndex, i);
+                }
+            }
+            long multmin = limit / radix;
+            long result = 0;
+            while (i < endIndex) {
+                // Accumulating negatively avoids surprises near MAX_VALUE
+                int digit = Character.digit(s.charAt(i), radix);
+                if (digit < 0 || result < multmin) {
+                    throw NumberFormatException.forCharSequence(s, beginIndex,
+                            endIndex, i);
+                }
+                result *= radix;
+                if (result < limit + digit) {
+                    throw NumberFormatException.forCharSequence(s, beginIndex,
+                            endIndex, i);
+                }
+                i++;
+                result -= digit;
+            }
+            return negative ? result : -result;
+        } else {
+            throw NumberFormatException.forInputString("");
+        }
+    }
+
     /**
      * Parses the string argument as a signed decimal {@code long}.
      * The characters in the string must all be decimal digits, except
@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2013, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.lang;
+
+/**
+ * Statistics of the reflection data that each {@link Class} caches: the
+ * fields, methods, constructors and interfaces fetched from the virtual
+ * machine by reflective calls such as {@link Class#getDeclaredMethods()}.
+ *
+ * <p>The reflection data of a class is normally softly reachable, so the
+ * garbage collector may clear it when memory is short, after which it is
+ * fetched again from the virtual machine.  A steadily rising
+ * {@linkplain #reclaimedCount() reclaimed count} shows such churn; the
+ * classes concerned can be cached strongly by listing their name prefixes,
+ * separated by commas, in the system property {@code sun.reflect.strongCaches}.
+ *
+ * <p>The counts are totals over all classes since the virtual machine
+ * started.
+ *
+ * @since 1.8
+ */
+public final class ReflectionCacheStatistics {
+
+    private ReflectionCacheStatistics() {}
+
+    // Guarded by the class lock; updated only when reflection data is
+    // created, which a class does rarely
+    private static long created;
+    private static long reclaimed;
+    private static long invalidated;
+
+    static synchronized void recordCreated() {
+        created++;
+    }
+
+    static synchronized void recordReclaimed() {
+        reclaimed++;
+    }
+
+    static synchronized void recordInvalidated() {
+        invalidated++;
+    }
+
+    /**
+     * Returns the number of times reflection data was created for a class
+     * that had none.
+     *
+     * @return the number of classes whose reflection data was created
+     */
+    public static synchronized long createdCount() {
+        return created;
+    }
+
+    /**
+     * Returns the number of times reflection data was created again for a
+     * class because the garbage collector had cleared it.
+     *
+     * @return the number of times cleared reflection data was rebuilt
+     */
+    public static synchronized long reclaimedCount() {
+        return reclaimed;
+    }
+
+    /**
+     * Returns the number of times reflection data was created again for a
+     * class because the class was redefined.  Redefining a superclass does
+     * not invalidate the reflection data of its subclasses, and is not
+     * counted.
+     *
+     * @return the number of times stale reflection data was rebuilt
+     */
+    public static synchronized long invalidatedCount() {
+        return invalidated;
+    }
+
+    /**
+     * Returns the number of times reflection data was created again for a
+     * class after it was first created, for any reason.
+     *
+     * @return the number of times reflection data was rebuilt
+     */
+    public static synchronized long rebuildCount() {
+        return reclaimed + invalidated;
+    }
+}
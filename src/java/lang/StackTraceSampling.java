@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) 2013, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.lang;
+
+import java.security.AccessController;
+import java.util.HashMap;
+import java.util.Map;
+import sun.misc.VM;
+import sun.security.action.GetPropertyAction;
+
+/**
+ * Decides whether {@link Throwable#fillInStackTrace()} captures the stack
+ * of a throwable, so that exceptions thrown at a high rate, for example a
+ * {@code NumberFormatException} used to reject malformed input, need not
+ * each pay for a walk of the thread's stack.
+ *
+ * <p>The policy is given by the system property
+ * {@code java.lang.Throwable.stackTraceSampling}, a comma-separated list of
+ * entries of the form <i>class-name</i>{@code :}<i>N</i>.  The stack is
+ * captured for one in every <i>N</i> throwables whose class is exactly the
+ * named class; the others have an empty stack trace.  An <i>N</i> of zero
+ * captures no stacks, and malformed entries are ignored.  Throwables of
+ * classes that are not listed always capture their stack, as do all
+ * throwables created before the system is fully initialized.
+ *
+ * <p>The VM backtrace of a captured stack is turned into
+ * {@code StackTraceElement}s only when the stack trace is first asked for,
+ * so the cost of a captured throwable that is never printed is the stack
+ * walk itself.
+ */
+final class StackTraceSampling {
+
+    private StackTraceSampling() {}
+
+    /**
+     * The counters by class name, or null if no class is sampled.
+     */
+    private static volatile Map<String, Counter> counters;
+
+    /**
+     * Whether the system property has been read.  Set before it is read, so
+     * that throwables created while parsing it capture their stack.
+     */
+    private static volatile boolean initialized;
+
+    /**
+     * Counts the throwables of one class.  The count is updated without
+     * synchronization: a race can only shift which throwables are sampled.
+     */
+    private static final class Counter {
+        final int interval;
+        int count;
+
+        Counter(int interval) {
+            this.interval = interval;
+        }
+
+        boolean next() {
+            if (interval == 0)
+                return false;
+            int c = count;
+            count = (c + 1 == interval) ? 0 : c + 1;
+            return c == 0;
+        }
+    }
+
+    /**
+     * Returns whether the stack of the given throwable should be captured.
+     */
+    static boolean isSampled(Throwable t) {
+        if (!initialized) {
+            if (!VM.isBooted())
+                return true;
+            initialize();
+        }
+        Map<String, Counter> m = counters;
+        if (m == null)
+            return true;
+        Counter c = m.get(t.getClass().getName());
+        return c == null || c.next();
+    }
+
+    private static synchronized void initialize() {
+        if (initialized)
+            return;
+        initialized = true;
+        String spec = AccessController.doPrivileged(
+            new GetPropertyAction("java.lang.Throwable.stackTraceSampling"));
+        if (spec == null)
+            return;
+        Map<String, Counter> m = new HashMap<>();
+        for (String entry : spec.split(",")) {
+            int colon = entry.lastIndexOf(':');
+            if (colon <= 0)
+                continue;
+            int n = parseInterval(entry, colon + 1);
+            if (n >= 0)
+                m.put(entry.substring(0, colon).trim(), new Counter(n));
+        }
+        if (!m.isEmpty())
+            counters = m;
+    }
+
+    // Parses the decimal interval at the end of an entry without throwing,
+    // returning -1 if it is malformed
+    private static int parseInterval(String entry, int start) {
+        int end = entry.length();
+        while (start < end && entry.charAt(start) == ' ')
+            start++;
+        while (end > start && entry.charAt(end - 1) == ' ')
+            end--;
+        if (start == end || end - start > 9)
+            return -1;
+        int n = 0;
+        for (int i = start; i < end; i++) {
+            char c = entry.charAt(i);
+            if (c < '0' || c > '9')
+                return -1;
+            n = n * 10 + (c - '0');
+        }
+        return n;
+    }
+}
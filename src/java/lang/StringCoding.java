@@ -36,6 +36,7 @@ import java.nio.charset.CharacterCodingException;
 import java.nio.charset.CoderResult;
 import java.nio.charset.CodingErrorAction;
 import java.nio.charset.IllegalCharsetNameException;
+import java.nio.charset.StandardCharsets;
 import java.nio.charset.UnsupportedCharsetException;
 import java.util.Arrays;
 import sun.misc.MessageUtils;
@@ -106,6 +107,241 @@ class StringCoding {
         return null;
     }
 
+    // -- Fast paths --
+    //
+    // The common cases of the standard UTF-8 and US-ASCII charsets, and
+    // decoding from ISO-8859-1, are coded directly between byte[] and
+    // char[], without a charset decoder or encoder, their buffer wrappers
+    // or a trimming copy: only the exactly sized result is allocated.
+    // Input the fast paths do not handle, malformed bytes or chars that
+    // need the charset's replacement, is coded through the charset as
+    // before.
+
+    private static final int SLOW = 0;
+    private static final int UTF8 = 1;
+    private static final int LATIN1 = 2;
+    private static final int ASCII = 3;
+
+    private static int fastCoding(Charset cs) {
+        if (cs == StandardCharsets.UTF_8)
+            return UTF8;
+        if (cs == StandardCharsets.ISO_8859_1)
+            return LATIN1;
+        if (cs == StandardCharsets.US_ASCII)
+            return ASCII;
+        return SLOW;
+    }
+
+    // Returns the decoded chars, or null if the bytes must be decoded by
+    // the charset
+    private static char[] fastDecode(int coding, byte[] ba, int off, int len) {
+        // every byte is a char of ISO-8859-1
+        int n = (coding == LATIN1) ? len : asciiPrefix(ba, off, len);
+        if (n == len) {
+            char[] ca = new char[len];
+            inflate(ba, off, ca, 0, len);
+            return ca;
+        }
+        if (coding != UTF8)
+            return null;
+        int clen = decodedLengthUTF8(ba, off + n, off + len);
+        if (clen < 0)
+            return null;
+        char[] ca = new char[n + clen];
+        inflate(ba, off, ca, 0, n);
+        decodeUTF8(ba, off + n, off + len, ca, n);
+        return ca;
+    }
+
+    // Returns the encoded bytes, or null if the chars must be encoded by
+    // the charset
+    private static byte[] fastEncode(int coding, char[] ca, int off, int len) {
+        // The ISO-8859-1 encoder narrows chars in an intrinsic loop, which
+        // is faster than any loop here
+        if (coding == LATIN1)
+            return null;
+        int n = asciiPrefix(ca, off, len);
+        if (n == len) {
+            byte[] ba = new byte[len];
+            compress(ca, off, ba, 0, len);
+            return ba;
+        }
+        if (coding != UTF8)
+            return null;
+        long blen = encodedLengthUTF8(ca, off + n, off + len);
+        if (blen < 0 || n + blen > Integer.MAX_VALUE)
+            return null;
+        byte[] ba = new byte[n + (int)blen];
+        compress(ca, off, ba, 0, n);
+        encodeUTF8(ca, off + n, off + len, ba, n);
+        return ba;
+    }
+
+    // Returns the length of the ASCII prefix of the given bytes, checking
+    // eight bytes at a time
+    private static int asciiPrefix(byte[] ba, int off, int len) {
+        int i = 0;
+        for (int limit = len & ~7; i < limit; i += 8) {
+            int p = off + i;
+            if ((ba[p] | ba[p+1] | ba[p+2] | ba[p+3] |
+                 ba[p+4] | ba[p+5] | ba[p+6] | ba[p+7]) < 0)
+                break;
+        }
+        while (i < len && ba[off + i] >= 0)
+            i++;
+        return i;
+    }
+
+    // Returns the length of the ASCII prefix of the given chars, checking
+    // eight chars at a time
+    private static int asciiPrefix(char[] ca, int off, int len) {
+        int i = 0;
+        for (int limit = len & ~7; i < limit; i += 8) {
+            int p = off + i;
+            if ((ca[p] | ca[p+1] | ca[p+2] | ca[p+3] |
+                 ca[p+4] | ca[p+5] | ca[p+6] | ca[p+7]) >= 0x80)
+                break;
+        }
+        while (i < len && ca[off + i] < 0x80)
+            i++;
+        return i;
+    }
+
+    // Widens ASCII or ISO-8859-1 bytes to chars
+    private static void inflate(byte[] src, int sp, char[] dst, int dp, int len) {
+        for (int end = sp + len; sp < end; )
+            dst[dp++] = (char)(src[sp++] & 0xff);
+    }
+
+    // Narrows ASCII chars to bytes
+    private static void compress(char[] src, int sp, byte[] dst, int dp, int len) {
+        for (int end = sp + len; sp < end; )
+            dst[dp++] = (byte)src[sp++];
+    }
+
+    private static boolean isContinuation(int b) {
+        return (b & 0xc0) == 0x80;
+    }
+
+    // Returns the number of chars the well-formed UTF-8 in ba[sp, sl)
+    // decodes to, or -1 if it is malformed.  Non-shortest forms, encoded
+    // surrogates and code points above U+10FFFF are malformed.
+    private static int decodedLengthUTF8(byte[] ba, int sp, int sl) {
+        int n = 0;
+        while (sp < sl) {
+            int b1 = ba[sp++] & 0xff;
+            if (b1 < 0x80) {
+                n++;
+            } else if (b1 >= 0xc2 && b1 <= 0xdf) {
+                if (sp >= sl || !isContinuation(ba[sp]))
+                    return -1;
+                sp++;
+                n++;
+            } else if (b1 >= 0xe0 && b1 <= 0xef) {
+                if (sl - sp < 2)
+                    return -1;
+                int b2 = ba[sp] & 0xff;
+                if (b2 < (b1 == 0xe0 ? 0xa0 : 0x80) ||
+                    b2 > (b1 == 0xed ? 0x9f : 0xbf) ||
+                    !isContinuation(ba[sp + 1]))
+                    return -1;
+                sp += 2;
+                n++;
+            } else if (b1 >= 0xf0 && b1 <= 0xf4) {
+                if (sl - sp < 3)
+                    return -1;
+                int b2 = ba[sp] & 0xff;
+                if (b2 < (b1 == 0xf0 ? 0x90 : 0x80) ||
+                    b2 > (b1 == 0xf4 ? 0x8f : 0xbf) ||
+                    !isContinuation(ba[sp + 1]) ||
+                    !isContinuation(ba[sp + 2]))
+                    return -1;
+                sp += 3;
+                n += 2;
+            } else {
+                return -1;
+            }
+        }
+        return n;
+    }
+
+    // Decodes the UTF-8 in ba[sp, sl), which must be well-formed, into ca
+    // starting at dp
+    private static void decodeUTF8(byte[] ba, int sp, int sl, char[] ca, int dp) {
+        while (sp < sl) {
+            int b1 = ba[sp++];
+            if (b1 >= 0) {
+                ca[dp++] = (char)b1;
+            } else if ((b1 >> 5) == -2) {
+                int b2 = ba[sp++];
+                ca[dp++] = (char)(((b1 & 0x1f) << 6) | (b2 & 0x3f));
+            } else if ((b1 >> 4) == -2) {
+                int b2 = ba[sp++];
+                int b3 = ba[sp++];
+                ca[dp++] = (char)(((b1 & 0x0f) << 12) |
+                                  ((b2 & 0x3f) << 6) |
+                                  (b3 & 0x3f));
+            } else {
+                int b2 = ba[sp++];
+                int b3 = ba[sp++];
+                int b4 = ba[sp++];
+                int cp = ((b1 & 0x07) << 18) |
+                         ((b2 & 0x3f) << 12) |
+                         ((b3 & 0x3f) << 6) |
+                         (b4 & 0x3f);
+                ca[dp++] = Character.highSurrogate(cp);
+                ca[dp++] = Character.lowSurrogate(cp);
+            }
+        }
+    }
+
+    // Returns the number of bytes the chars in ca[sp, sl) encode to in
+    // UTF-8, or -1 if there is an unpaired surrogate
+    private static long encodedLengthUTF8(char[] ca, int sp, int sl) {
+        long n = 0;
+        while (sp < sl) {
+            char c = ca[sp++];
+            if (c < 0x80) {
+                n++;
+            } else if (c < 0x800) {
+                n += 2;
+            } else if (Character.isSurrogate(c)) {
+                if (!Character.isHighSurrogate(c) || sp >= sl ||
+                    !Character.isLowSurrogate(ca[sp]))
+                    return -1;
+                sp++;
+                n += 4;
+            } else {
+                n += 3;
+            }
+        }
+        return n;
+    }
+
+    // Encodes the chars in ca[sp, sl), which must not contain unpaired
+    // surrogates, into ba starting at dp
+    private static void encodeUTF8(char[] ca, int sp, int sl, byte[] ba, int dp) {
+        while (sp < sl) {
+            char c = ca[sp++];
+            if (c < 0x80) {
+                ba[dp++] = (byte)c;
+            } else if (c < 0x800) {
+                ba[dp++] = (byte)(0xc0 | (c >> 6));
+                ba[dp++] = (byte)(0x80 | (c & 0x3f));
+            } else if (Character.isHighSurrogate(c)) {
+                int cp = Character.toCodePoint(c, ca[sp++]);
+                ba[dp++] = (byte)(0xf0 | (cp >> 18));
+                ba[dp++] = (byte)(0x80 | ((cp >> 12) & 0x3f));
+                ba[dp++] = (byte)(0x80 | ((cp >> 6) & 0x3f));
+                ba[dp++] = (byte)(0x80 | (cp & 0x3f));
+            } else {
+                ba[dp++] = (byte)(0xe0 | (c >> 12));
+                ba[dp++] = (byte)(0x80 | ((c >> 6) & 0x3f));
+                ba[dp++] = (byte)(0x80 | (c & 0x3f));
+            }
+        }
+    }
+
     private static void warnUnsupportedCharset(String csn) {
         if (warnUnsupportedCharset) {
             // Use sun.misc.MessageUtils rather than the Logging API or
@@ -124,6 +360,7 @@ class StringCoding {
         private final Charset cs;
         private final CharsetDecoder cd;
         private final boolean isTrusted;
+        private final int fastCoding;
 
         private StringDecoder(Charset cs, String rcn) {
             this.requestedCharsetName = rcn;
@@ -132,6 +369,7 @@ class StringCoding {
                 .onMalformedInput(CodingErrorAction.REPLACE)
                 .onUnmappableCharacter(CodingErrorAction.REPLACE);
             this.isTrusted = (cs.getClass().getClassLoader0() == null);
+            this.fastCoding = fastCoding(cs);
         }
 
         String charsetName() {
@@ -145,6 +383,11 @@ class StringCoding {
         }
 
         char[] decode(byte[] ba, int off, int len) {
+            if (fastCoding != SLOW) {
+                char[] ca = fastDecode(fastCoding, ba, off, len);
+                if (ca != null)
+                    return ca;
+            }
             int en = scale(len, cd.maxCharsPerByte());
             char[] ca = new char[en];
             if (len == 0)
@@ -210,6 +453,12 @@ class StringCoding {
         // check (... && (isTrusted || SM == null || getClassLoader0())) in trim
         // but it then can be argued that the SM is null when the opertaion
         // is started...
+        int coding = fastCoding(cs);
+        if (coding != SLOW) {
+            char[] ca = fastDecode(coding, ba, off, len);
+            if (ca != null)
+                return ca;
+        }
         CharsetDecoder cd = cs.newDecoder();
         int en = scale(len, cd.maxCharsPerByte());
         char[] ca = new char[en];
@@ -248,7 +497,14 @@ class StringCoding {
     }
 
     static char[] decode(byte[] ba, int off, int len) {
-        String csn = Charset.defaultCharset().name();
+        Charset cs = Charset.defaultCharset();
+        int coding = fastCoding(cs);
+        if (coding != SLOW) {
+            char[] ca = fastDecode(coding, ba, off, len);
+            if (ca != null)
+                return ca;
+        }
+        String csn = cs.name();
         try {
             // use charset name decode() variant which provides caching.
             return decode(csn, ba, off, len);
@@ -275,6 +531,7 @@ class StringCoding {
         private CharsetEncoder ce;
         private final String requestedCharsetName;
         private final boolean isTrusted;
+        private final int fastCoding;
 
         private StringEncoder(Charset cs, String rcn) {
             this.requestedCharsetName = rcn;
@@ -283,6 +540,7 @@ class StringCoding {
                 .onMalformedInput(CodingErrorAction.REPLACE)
                 .onUnmappableCharacter(CodingErrorAction.REPLACE);
             this.isTrusted = (cs.getClass().getClassLoader0() == null);
+            this.fastCoding = fastCoding(cs);
         }
 
         String charsetName() {
@@ -296,6 +554,11 @@ class StringCoding {
         }
 
         byte[] encode(char[] ca, int off, int len) {
+            if (fastCoding != SLOW) {
+                byte[] ba = fastEncode(fastCoding, ca, off, len);
+                if (ba != null)
+                    return ba;
+            }
             int en = scale(len, ce.maxBytesPerChar());
             byte[] ba = new byte[en];
             if (len == 0)
@@ -345,6 +608,12 @@ class StringCoding {
     }
 
     static byte[] encode(Charset cs, char[] ca, int off, int len) {
+        int coding = fastCoding(cs);
+        if (coding != SLOW) {
+            byte[] ba = fastEncode(coding, ca, off, len);
+            if (ba != null)
+                return ba;
+        }
         CharsetEncoder ce = cs.newEncoder();
         int en = scale(len, ce.maxBytesPerChar());
         byte[] ba = new byte[en];
@@ -381,7 +650,14 @@ class StringCoding {
     }
 
     static byte[] encode(char[] ca, int off, int len) {
-        String csn = Charset.defaultCharset().name();
+        Charset cs = Charset.defaultCharset();
+        int coding = fastCoding(cs);
+        if (coding != SLOW) {
+            byte[] ba = fastEncode(coding, ca, off, len);
+            if (ba != null)
+                return ba;
+        }
+        String csn = cs.name();
         try {
             // use charset name encode() variant which provides caching.
             return encode(csn, ca, off, len);
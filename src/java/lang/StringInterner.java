@@ -0,0 +1,468 @@
+/*
+ * Copyright (c) 2013, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.lang;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A pool of canonical strings, for applications that would otherwise intern
+ * very many strings with {@link String#intern()}.
+ *
+ * <p>{@code String.intern()} adds strings to a single table maintained by the
+ * virtual machine, which is shared by all code, whose size is fixed when the
+ * virtual machine starts, and whose strings must be visited by the garbage
+ * collector.  A {@code StringInterner} is an ordinary object: each component
+ * of an application can have its own, it grows as strings are added, and it
+ * is reclaimed along with its strings once it is no longer referenced.
+ *
+ * <p>An interner is either <em>strong</em> or <em>weak</em>.  A strong
+ * interner keeps its strings until it is {@linkplain #clear() cleared}.  A
+ * weak interner drops a string once the string is no longer referenced from
+ * outside the interner, so that it can be used for an unbounded set of
+ * strings without retaining all of them.
+ *
+ * <p>For any two strings {@code s} and {@code t}, {@code interner.intern(s)
+ * == interner.intern(t)} is {@code true} if and only if {@code s.equals(t)}
+ * is {@code true}, provided that, for a weak interner, the string returned
+ * by the first call is still reachable when the second is made.  The
+ * canonical strings of an interner are in general not the strings returned
+ * by {@code String.intern()}, so code that compares interned strings with
+ * string literals using {@code ==} must continue to use
+ * {@code String.intern()}.
+ *
+ * <p>An interner is safe for use by multiple concurrent threads.  Its strings
+ * are divided among a number of segments, each guarded by its own lock, and
+ * strings already in the interner are found without locking.  The number of
+ * lookups that found a string already in the interner, and the number that
+ * added one, are available as {@link #hitCount()} and {@link #missCount()}.
+ *
+ * @since 1.8
+ */
+public final class StringInterner {
+
+    /**
+     * The default initial capacity of an interner.
+     */
+    private static final int DEFAULT_CAPACITY = 1024;
+
+    /**
+     * The default number of segments of an interner.
+     */
+    private static final int DEFAULT_CONCURRENCY_LEVEL = 16;
+
+    /**
+     * The largest number of segments of an interner.
+     */
+    private static final int MAX_SEGMENTS = 1 << 16;
+
+    /**
+     * The largest table size of a segment.
+     */
+    private static final int MAX_TABLE_SIZE = 1 << 30;
+
+    private final Segment[] segments;
+    private final int segmentShift;
+    private final boolean weak;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    private StringInterner(boolean weak, int capacity, int concurrencyLevel) {
+        if (capacity < 0)
+            throw new IllegalArgumentException("Illegal capacity: " + capacity);
+        if (concurrencyLevel <= 0)
+            throw new IllegalArgumentException("Illegal concurrency level: " +
+                                               concurrencyLevel);
+        int sshift = 0;
+        int ssize = 1;
+        while (ssize < concurrencyLevel && ssize < MAX_SEGMENTS) {
+            ++sshift;
+            ssize <<= 1;
+        }
+        int c = capacity / ssize;
+        int tsize = 2;
+        while (tsize < c && tsize < MAX_TABLE_SIZE)
+            tsize <<= 1;
+        Segment[] ss = new Segment[ssize];
+        for (int i = 0; i < ssize; i++)
+            ss[i] = new Segment(tsize, weak);
+        this.segments = ss;
+        this.segmentShift = 32 - sshift;
+        this.weak = weak;
+    }
+
+    /**
+     * Creates a strong interner with a default initial capacity and number
+     * of segments.
+     *
+     * @return a new strong interner
+     */
+    public static StringInterner newStrongInterner() {
+        return new StringInterner(false, DEFAULT_CAPACITY, DEFAULT_CONCURRENCY_LEVEL);
+    }
+
+    /**
+     * Creates a strong interner sized for the given number of strings and
+     * the given number of concurrently updating threads.
+     *
+     * @param capacity the expected number of strings
+     * @param concurrencyLevel the expected number of threads concurrently
+     *        adding strings, used to choose the number of segments
+     * @return a new strong interner
+     * @throws IllegalArgumentException if {@code capacity} is negative or
+     *         {@code concurrencyLevel} is not positive
+     */
+    public static StringInterner newStrongInterner(int capacity, int concurrencyLevel) {
+        return new StringInterner(false, capacity, concurrencyLevel);
+    }
+
+    /**
+     * Creates a weak interner with a default initial capacity and number
+     * of segments.
+     *
+     * @return a new weak interner
+     */
+    public static StringInterner newWeakInterner() {
+        return new StringInterner(true, DEFAULT_CAPACITY, DEFAULT_CONCURRENCY_LEVEL);
+    }
+
+    /**
+     * Creates a weak interner sized for the given number of strings and
+     * the given number of concurrently updating threads.
+     *
+     * @param capacity the expected number of strings
+     * @param concurrencyLevel the expected number of threads concurrently
+     *        adding strings, used to choose the number of segments
+     * @return a new weak interner
+     * @throws IllegalArgumentException if {@code capacity} is negative or
+     *         {@code concurrencyLevel} is not positive
+     */
+    public static StringInterner newWeakInterner(int capacity, int concurrencyLevel) {
+        return new StringInterner(true, capacity, concurrencyLevel);
+    }
+
+    /**
+     * Returns the canonical string of this interner that is equal to the
+     * given string.  If there is none, the given string is added to the
+     * interner and returned.
+     *
+     * @param s a string
+     * @return the canonical string equal to {@code s}
+     * @throws NullPointerException if {@code s} is null
+     */
+    public String intern(String s) {
+        int h = s.hashCode();
+        Segment seg = segmentFor(h);
+        String c = seg.find(h, s);
+        if (c != null) {
+            hits.increment();
+            return c;
+        }
+        misses.increment();
+        return seg.add(h, s, null, 0, 0);
+    }
+
+    /**
+     * Returns the canonical string of this interner whose characters are
+     * those of the given subarray.  If there is none, a new string with
+     * those characters is added to the interner and returned.  No string is
+     * created if the interner already contains one, which makes this method
+     * suitable for interning the names found by a scanner or parser.
+     *
+     * @param chars the characters
+     * @param offset the index of the first character
+     * @param length the number of characters
+     * @return the canonical string with the given characters
+     * @throws NullPointerException if {@code chars} is null
+     * @throws IndexOutOfBoundsException if {@code offset} or {@code length}
+     *         is negative, or {@code offset + length} is greater than
+     *         {@code chars.length}
+     */
+    public String intern(char[] chars, int offset, int length) {
+        if ((offset | length | (offset + length) | (chars.length - offset - length)) < 0)
+            throw new IndexOutOfBoundsException();
+        int h = 0;
+        for (int i = offset, end = offset + length; i < end; i++)
+            h = 31 * h + chars[i];
+        Segment seg = segmentFor(h);
+        String c = seg.find(h, chars, offset, length);
+        if (c != null) {
+            hits.increment();
+            return c;
+        }
+        misses.increment();
+        return seg.add(h, null, chars, offset, length);
+    }
+
+    /**
+     * Returns whether this is a weak interner.
+     *
+     * @return {@code true} if this is a weak interner, {@code false} if it is
+     *         a strong interner
+     */
+    public boolean isWeak() {
+        return weak;
+    }
+
+    /**
+     * Returns the number of strings in this interner.  For a weak interner
+     * this may include strings that are no longer referenced but have not yet
+     * been removed.
+     *
+     * @return the number of strings in this interner
+     */
+    public int size() {
+        long n = 0;
+        for (Segment seg : segments)
+            n += seg.count;
+        return (n > Integer.MAX_VALUE) ? Integer.MAX_VALUE : (int)n;
+    }
+
+    /**
+     * Removes all strings from this interner.  Strings interned afterwards
+     * are not, in general, identical to strings interned before.  The hit
+     * and miss counts are not reset.
+     */
+    public void clear() {
+        for (Segment seg : segments)
+            seg.clear();
+    }
+
+    /**
+     * Returns the number of lookups that found the string already in this
+     * interner.
+     *
+     * @return the number of lookups that found an existing string
+     */
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * Returns the number of lookups that did not find the string in this
+     * interner and so added it.  Some of these may have raced with another
+     * thread adding the same string, in which case that thread's string was
+     * returned and none was added.
+     *
+     * @return the number of lookups that did not find an existing string
+     */
+    public long missCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Returns a string describing this interner and its statistics.
+     *
+     * @return a string describing this interner
+     */
+    @Override
+    public String toString() {
+        return "StringInterner[" + (weak ? "weak" : "strong") +
+               ", size=" + size() +
+               ", segments=" + segments.length +
+               ", hits=" + hitCount() +
+               ", misses=" + missCount() + "]";
+    }
+
+    private Segment segmentFor(int h) {
+        h ^= (h >>> 16);
+        return segments[(segmentShift == 32) ? 0 : (h * 0x9e3779b9) >>> segmentShift];
+    }
+
+    private static boolean matches(String s, char[] chars, int offset, int length) {
+        if (s.length() != length)
+            return false;
+        for (int i = 0; i < length; i++) {
+            if (s.charAt(i) != chars[offset + i])
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * An entry of a segment's table.  A strong interner uses {@link
+     * StrongEntry}, which holds its string directly; a weak interner uses
+     * {@link WeakEntry}.  Readers walk a chain without locking, so an entry
+     * is fully initialized before it is published, and an entry that is
+     * unlinked keeps its link to the rest of the chain.
+     */
+    interface Entry {
+        int hash();
+        String get();
+        Entry next();
+    }
+
+    static final class StrongEntry implements Entry {
+        private final int hash;
+        private final String s;
+        private final Entry next;
+
+        StrongEntry(String s, int hash, Entry next) {
+            this.hash = hash;
+            this.s = s;
+            this.next = next;
+        }
+
+        public int hash() { return hash; }
+        public String get() { return s; }
+        public Entry next() { return next; }
+    }
+
+    /**
+     * An entry whose string is held weakly.  Once the string is collected
+     * the entry is queued, and it is unlinked from its chain by the next
+     * addition to the segment.
+     */
+    static final class WeakEntry extends WeakReference<String> implements Entry {
+        private final int hash;
+        volatile Entry next;
+
+        WeakEntry(String s, int hash, Entry next, ReferenceQueue<String> queue) {
+            super(s, queue);
+            this.hash = hash;
+            this.next = next;
+        }
+
+        public int hash() { return hash; }
+        public Entry next() { return next; }
+    }
+
+    /**
+     * A segment of an interner: a hash table of entries, with the lock
+     * taken to add to and clean up the table.
+     */
+    static final class Segment {
+        private final ReferenceQueue<String> queue;
+        private volatile Entry[] table;
+        volatile int count;
+
+        Segment(int tableSize, boolean weak) {
+            this.queue = weak ? new ReferenceQueue<>() : null;
+            this.table = new Entry[tableSize];
+        }
+
+        String find(int h, String s) {
+            Entry[] tab = table;
+            for (Entry e = tab[h & (tab.length - 1)]; e != null; e = e.next()) {
+                if (e.hash() == h) {
+                    String c = e.get();
+                    if (c != null && c.equals(s))
+                        return c;
+                }
+            }
+            return null;
+        }
+
+        String find(int h, char[] chars, int offset, int length) {
+            Entry[] tab = table;
+            for (Entry e = tab[h & (tab.length - 1)]; e != null; e = e.next()) {
+                if (e.hash() == h) {
+                    String c = e.get();
+                    if (c != null && matches(c, chars, offset, length))
+                        return c;
+                }
+            }
+            return null;
+        }
+
+        synchronized String add(int h, String s, char[] chars, int offset, int length) {
+            if (queue != null)
+                expungeStaleEntries();
+            // Another thread may have added the string since the unlocked find
+            String c = (s != null) ? find(h, s) : find(h, chars, offset, length);
+            if (c != null)
+                return c;
+            if (s == null)
+                s = new String(chars, offset, length);
+            Entry[] tab = table;
+            if (count >= tab.length - (tab.length >>> 2) && tab.length < MAX_TABLE_SIZE)
+                tab = resize(tab);
+            int i = h & (tab.length - 1);
+            tab[i] = newEntry(s, h, tab[i]);
+            // The volatile write publishes the new entry to unlocked readers
+            count++;
+            table = tab;
+            return s;
+        }
+
+        synchronized void clear() {
+            if (queue != null) {
+                while (queue.poll() != null)
+                    ;
+            }
+            table = new Entry[table.length];
+            count = 0;
+        }
+
+        private Entry newEntry(String s, int h, Entry next) {
+            return (queue == null) ? new StrongEntry(s, h, next)
+                                   : new WeakEntry(s, h, next, queue);
+        }
+
+        private Entry[] resize(Entry[] oldTab) {
+            Entry[] newTab = new Entry[oldTab.length << 1];
+            int mask = newTab.length - 1;
+            int n = 0;
+            for (Entry head : oldTab) {
+                for (Entry e = head; e != null; e = e.next()) {
+                    String s = e.get();
+                    if (s != null) {
+                        int i = e.hash() & mask;
+                        newTab[i] = newEntry(s, e.hash(), newTab[i]);
+                        n++;
+                    }
+                }
+            }
+            count = n;
+            return newTab;
+        }
+
+        private void expungeStaleEntries() {
+            Entry[] tab = table;
+            int mask = tab.length - 1;
+            int n = count;
+            for (Object x; (x = queue.poll()) != null; ) {
+                WeakEntry stale = (WeakEntry)x;
+                int i = stale.hash() & mask;
+                // A resize copies the live entries into a new table, so an
+                // entry added before the last resize is no longer found
+                Entry prev = null;
+                for (Entry e = tab[i]; e != null; prev = e, e = e.next()) {
+                    if (e == stale) {
+                        if (prev == null)
+                            tab[i] = stale.next;
+                        else
+                            ((WeakEntry)prev).next = stale.next;
+                        n--;
+                        break;
+                    }
+                }
+            }
+            count = n;
+        }
+    }
+}
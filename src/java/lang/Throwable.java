@@ -775,13 +775,21 @@ public class Throwable implements Serializable {
      * Throwable#Throwable(String, Throwable, boolean, boolean) is not
      * writable}, calling this method has no effect.
      *
+     * <p>The stack of throwables of frequently thrown classes may be
+     * sampled, as set by the system property {@code
+     * java.lang.Throwable.stackTraceSampling}; the stack trace of a
+     * throwable whose stack was not sampled is empty.
+     *
      * @return  a reference to this {@code Throwable} instance.
      * @see     java.lang.Throwable#printStackTrace()
      */
     public synchronized Throwable fillInStackTrace() {
         if (stackTrace != null ||
             backtrace != null /* Out of protocol state */ ) {
-            fillInStackTrace(0);
+            if (StackTraceSampling.isSampled(this))
+                fillInStackTrace(0);
+            else
+                backtrace = null;
             stackTrace = UNASSIGNED_STACK;
         }
         return this;
@@ -822,7 +830,7 @@ public class Throwable implements Serializable {
         // backtrace if this is the first call to this method
         if (stackTrace == UNASSIGNED_STACK ||
             (stackTrace == null && backtrace != null) /* Out of protocol state */) {
-            int depth = getStackTraceDepth();
+            int depth = (backtrace != null) ? getStackTraceDepth() : 0;
             stackTrace = new StackTraceElement[depth];
             for (int i=0; i < depth; i++)
                 stackTrace[i] = getStackTraceElement(i);
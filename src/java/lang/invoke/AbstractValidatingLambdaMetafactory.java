@@ -133,7 +133,9 @@ import static sun.invoke.util.Wrapper.isWrapperType;
         this.implIsInstanceMethod =
                 implKind == MethodHandleInfo.REF_invokeVirtual ||
                 implKind == MethodHandleInfo.REF_invokeSpecial ||
-                implKind == MethodHandleInfo.REF_invokeInterface;
+                implKind == MethodHandleInfo.REF_invokeInterface ||
+                implKind == MethodHandleInfo.REF_getField ||
+                implKind == MethodHandleInfo.REF_putField;
         this.implDefiningClass = implInfo.getDeclaringClass();
         this.implMethodType = implInfo.getMethodType();
         this.instantiatedMethodType = instantiatedMethodType;
@@ -171,6 +173,16 @@ import static sun.invoke.util.Wrapper.isWrapperType;
      * @throws LambdaConversionException if there are improper conversions
      */
     void validateMetafactoryArgs() throws LambdaConversionException {
+        validateMetafactoryArgs(false);
+    }
+
+    /**
+     * Check the meta-factory arguments for errors
+     * @param allowFieldAccess whether the implementation may be a field
+     *        getter or setter, as used by {@link MemberAccessors}
+     * @throws LambdaConversionException if there are improper conversions
+     */
+    void validateMetafactoryArgs(boolean allowFieldAccess) throws LambdaConversionException {
         switch (implKind) {
             case MethodHandleInfo.REF_invokeInterface:
             case MethodHandleInfo.REF_invokeVirtual:
@@ -178,6 +190,13 @@ import static sun.invoke.util.Wrapper.isWrapperType;
             case MethodHandleInfo.REF_newInvokeSpecial:
             case MethodHandleInfo.REF_invokeSpecial:
                 break;
+            case MethodHandleInfo.REF_getField:
+            case MethodHandleInfo.REF_getStatic:
+            case MethodHandleInfo.REF_putField:
+            case MethodHandleInfo.REF_putStatic:
+                if (allowFieldAccess)
+                    break;
+                // fall through
             default:
                 throw new LambdaConversionException(String.format("Unsupported MethodHandle kind: %s", implInfo));
         }
@@ -94,6 +94,21 @@ import static jdk.internal.org.objectweb.asm.Opcodes.*;
         dumper = (null == path) ? null : ProxyClassesDumper.getInstance(path);
     }
 
+    // For reusing classes spun by an earlier run, to speed up startup
+    private static final LambdaProxyArchive archive;
+
+    static {
+        final String loadKey = "jdk.internal.lambda.proxyClassArchive";
+        final String recordKey = "jdk.internal.lambda.recordProxyClassArchive";
+        String loadPath = AccessController.doPrivileged(
+                new GetPropertyAction(loadKey), null,
+                new PropertyPermission(loadKey, "read"));
+        String recordPath = AccessController.doPrivileged(
+                new GetPropertyAction(recordKey), null,
+                new PropertyPermission(recordKey, "read"));
+        archive = LambdaProxyArchive.getInstance(loadPath, recordPath);
+    }
+
     // See context values in AbstractValidatingLambdaMetafactory
     private final String implMethodClassName;        // Name of type containing implementation "CC"
     private final String implMethodName;             // Name of implementation method "impl"
@@ -250,6 +265,22 @@ import static jdk.internal.org.objectweb.asm.Opcodes.*;
         String[] interfaces;
         String samIntf = samBase.getName().replace('.', '/');
         boolean accidentallySerializable = !isSerializable && Serializable.class.isAssignableFrom(samBase);
+        for (Class<?> markerInterface : markerInterfaces) {
+            accidentallySerializable |= !isSerializable && Serializable.class.isAssignableFrom(markerInterface);
+        }
+
+        // Reuse the class spun for this call site by an earlier run, if any
+        String archiveKey = null;
+        if (archive != null) {
+            archiveKey = archiveKey(accidentallySerializable);
+            byte[] classBytes = archive.lookup(archiveKey);
+            if (classBytes != null) {
+                dumpClass(classBytes);
+                archive.record(archiveKey, classBytes);
+                return UNSAFE.defineAnonymousClass(targetClass, classBytes, null);
+            }
+        }
+
         if (markerInterfaces.length == 0) {
             interfaces = new String[]{samIntf};
         } else {
@@ -258,7 +289,6 @@ import static jdk.internal.org.objectweb.asm.Opcodes.*;
             itfs.add(samIntf);
             for (Class<?> markerInterface : markerInterfaces) {
                 itfs.add(markerInterface.getName().replace('.', '/'));
-                accidentallySerializable |= !isSerializable && Serializable.class.isAssignableFrom(markerInterface);
             }
             interfaces = itfs.toArray(new String[itfs.size()]);
         }
@@ -310,6 +340,22 @@ import static jdk.internal.org.objectweb.asm.Opcodes.*;
         final byte[] classBytes = cw.toByteArray();
 
         // If requested, dump out to a file for debugging purposes
+        dumpClass(classBytes);
+
+        if (archive != null) {
+            archive.record(archiveKey, classBytes);
+        }
+
+        return UNSAFE.defineAnonymousClass(targetClass, classBytes, null);
+    }
+
+    /**
+     * Writes the class file to the dump directory, if one was requested.
+     * A class defined from the archive is dumped under the name the current
+     * run would have given it, which need not match the name recorded in
+     * its class file.
+     */
+    private void dumpClass(final byte[] classBytes) {
         if (dumper != null) {
             AccessController.doPrivileged(new PrivilegedAction<Void>() {
                 @Override
@@ -322,8 +368,35 @@ import static jdk.internal.org.objectweb.asm.Opcodes.*;
             // createDirectories may need it
             new PropertyPermission("user.dir", "read"));
         }
+    }
 
-        return UNSAFE.defineAnonymousClass(targetClass, classBytes, null);
+    /**
+     * Returns the key of the spun class in a {@link LambdaProxyArchive}:
+     * every input to the class file except the name of the class, which
+     * need not be unique for an anonymous class.
+     */
+    private String archiveKey(boolean accidentallySerializable) {
+        StringBuilder sb = new StringBuilder(256);
+        sb.append(targetClass.getName())
+          .append(' ').append(samBase.getName())
+          .append(' ').append(samMethodName).append(samMethodType.toMethodDescriptorString())
+          .append(' ').append(invokedType.toMethodDescriptorString())
+          .append(' ').append(implKind)
+          .append(' ').append(implMethodClassName).append('.').append(implMethodName)
+          .append(implMethodDesc)
+          .append(' ').append(implDefiningClass.isInterface())
+          .append(' ').append(instantiatedMethodType.toMethodDescriptorString())
+          .append(' ').append(isSerializable)
+          .append(' ').append(accidentallySerializable);
+        for (Class<?> markerInterface : markerInterfaces) {
+            sb.append(' ').append(markerInterface.getName());
+        }
+        if (additionalBridges != null) {
+            for (MethodType mt : additionalBridges) {
+                sb.append(' ').append(mt.toMethodDescriptorString());
+            }
+        }
+        return sb.toString();
     }
 
     /**
@@ -466,10 +539,23 @@ import static jdk.internal.org.objectweb.asm.Opcodes.*;
 
             convertArgumentTypes(methodType);
 
-            // Invoke the method we want to forward to
-            visitMethodInsn(invocationOpcode(), implMethodClassName,
-                            implMethodName, implMethodDesc,
-                            implDefiningClass.isInterface());
+            // Invoke the method, or access the field, we want to forward to
+            switch (implKind) {
+                case MethodHandleInfo.REF_getField:
+                case MethodHandleInfo.REF_getStatic:
+                    visitFieldInsn(fieldOpcode(), implMethodClassName, implMethodName,
+                                   BytecodeDescriptor.unparse(implMethodType.returnType()));
+                    break;
+                case MethodHandleInfo.REF_putField:
+                case MethodHandleInfo.REF_putStatic:
+                    visitFieldInsn(fieldOpcode(), implMethodClassName, implMethodName,
+                                   BytecodeDescriptor.unparse(implMethodType.parameterType(0)));
+                    break;
+                default:
+                    visitMethodInsn(invocationOpcode(), implMethodClassName,
+                                    implMethodName, implMethodDesc,
+                                    implDefiningClass.isInterface());
+            }
 
             // Convert the return value (if any) and return it
             // Note: if adapting from non-void to void, the 'return'
@@ -520,6 +606,21 @@ import static jdk.internal.org.objectweb.asm.Opcodes.*;
                     throw new InternalError("Unexpected invocation kind: " + implKind);
             }
         }
+
+        private int fieldOpcode() throws InternalError {
+            switch (implKind) {
+                case MethodHandleInfo.REF_getField:
+                    return GETFIELD;
+                case MethodHandleInfo.REF_getStatic:
+                    return GETSTATIC;
+                case MethodHandleInfo.REF_putField:
+                    return PUTFIELD;
+                case MethodHandleInfo.REF_putStatic:
+                    return PUTSTATIC;
+                default:
+                    throw new InternalError("Unexpected field access kind: " + implKind);
+            }
+        }
     }
 
     static int getParameterSize(Class<?> c) {
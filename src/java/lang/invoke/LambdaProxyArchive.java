@@ -0,0 +1,202 @@
+/*
+ * Copyright (c) 2013, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.lang.invoke;
+
+import sun.util.logging.PlatformLogger;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FilePermission;
+import java.io.IOException;
+import java.security.AccessController;
+import java.security.PrivilegedAction;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Helper class used by InnerClassLambdaMetafactory to reuse the lambda proxy
+ * classes spun by an earlier run of the same application, so that starting
+ * an application with many lambda call sites does not pay for generating
+ * each class with ASM.
+ *
+ * <p>A training run with the system property
+ * {@code jdk.internal.lambda.recordProxyClassArchive} set to a file name
+ * writes every proxy class it spins to that file, keyed by the linkage
+ * arguments of its call site.  Later runs with
+ * {@code jdk.internal.lambda.proxyClassArchive} set to the same file define
+ * the recorded class instead of spinning a new one whenever a call site with
+ * the same key is linked.  The key holds every input to the generated
+ * class, so a call site changed since the training run simply misses.  An
+ * archive recorded by a different Java runtime version is ignored.
+ *
+ * <p>An archive is trusted like the class path: its classes are defined
+ * with the access of the class that contains the call site.
+ *
+ * @implNote
+ * <p> The archive is opened while InnerClassLambdaMetafactory is being
+ * initialized, so this class must not use lambdas or method references:
+ * linking them would need the metafactory it is helping to initialize.
+ */
+final class LambdaProxyArchive {
+    private static final int MAGIC = 0x4C504341;  // "LPCA"
+
+    /**
+     * Keys longer than this are not recorded, so that they fit in the
+     * modified UTF-8 encoding of DataOutput.writeUTF.
+     */
+    private static final int MAX_KEY_LENGTH = 16 * 1024;
+
+    // The classes read from the archive, or null if none was given
+    private final Map<String, byte[]> classes;
+
+    // The output of a recording run, or null if not recording
+    private final DataOutputStream out;
+    private final Set<String> recorded;
+
+    private LambdaProxyArchive(Map<String, byte[]> classes, DataOutputStream out) {
+        this.classes = classes;
+        this.out = out;
+        this.recorded = (out != null) ? new HashSet<String>() : null;
+    }
+
+    /**
+     * Returns the archive named by the system properties, or null if
+     * neither property is set or the archive could not be opened.
+     */
+    static LambdaProxyArchive getInstance(final String loadPath, final String recordPath) {
+        if (loadPath == null && recordPath == null) {
+            return null;
+        }
+        return AccessController.doPrivileged(new PrivilegedAction<LambdaProxyArchive>() {
+                @Override
+                public LambdaProxyArchive run() {
+                    Map<String, byte[]> classes = (loadPath != null) ? load(loadPath.trim()) : null;
+                    DataOutputStream out = (recordPath != null) ? create(recordPath.trim()) : null;
+                    if (classes == null && out == null) {
+                        return null;
+                    }
+                    return new LambdaProxyArchive(classes, out);
+                }
+            }, null, new FilePermission("<<ALL FILES>>", "read, write"));
+    }
+
+    private static String runtimeVersion() {
+        return String.valueOf(System.getProperty("java.runtime.version"));
+    }
+
+    private static Map<String, byte[]> load(String path) {
+        Map<String, byte[]> classes = new HashMap<>();
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(new FileInputStream(path)))) {
+            if (in.readInt() != MAGIC) {
+                warning("File " + path + " is not a lambda proxy class archive - archive ignored");
+                return null;
+            }
+            if (!in.readUTF().equals(runtimeVersion())) {
+                warning("Archive " + path + " was recorded by another runtime version - archive ignored");
+                return null;
+            }
+            for (;;) {
+                String key;
+                try {
+                    key = in.readUTF();
+                } catch (EOFException eof) {
+                    break;
+                }
+                byte[] classBytes = new byte[in.readInt()];
+                in.readFully(classBytes);
+                classes.put(key, classBytes);
+            }
+        } catch (IOException | RuntimeException ex) {
+            warning("Exception reading archive " + path + " - archive ignored");
+            return null;
+        }
+        return classes;
+    }
+
+    private static DataOutputStream create(String path) {
+        DataOutputStream out = null;
+        try {
+            out = new DataOutputStream(
+                    new BufferedOutputStream(new FileOutputStream(path)));
+            out.writeInt(MAGIC);
+            out.writeUTF(runtimeVersion());
+            out.flush();
+            return out;
+        } catch (IOException ex) {
+            warning("Exception creating archive " + path + " - recording disabled");
+            if (out != null) {
+                try {
+                    out.close();
+                } catch (IOException ignore) {
+                }
+            }
+            return null;
+        }
+    }
+
+    private static void warning(String msg) {
+        PlatformLogger.getLogger(LambdaProxyArchive.class.getName()).warning(msg);
+    }
+
+    /**
+     * Returns the recorded bytes of the class with the given key, or null.
+     */
+    byte[] lookup(String key) {
+        return (classes != null) ? classes.get(key) : null;
+    }
+
+    /**
+     * Records the bytes of a class defined for the given key, if recording.
+     * Each entry is flushed as it is written, so the archive is usable even
+     * if the recording run does not exit normally.
+     */
+    void record(String key, final byte[] classBytes) {
+        if (out == null || key.length() > MAX_KEY_LENGTH) {
+            return;
+        }
+        synchronized (this) {
+            if (!recorded.add(key)) {
+                return;
+            }
+            try {
+                out.writeUTF(key);
+                out.writeInt(classBytes.length);
+                out.write(classBytes);
+                out.flush();
+            } catch (IOException ex) {
+                warning("Exception writing lambda proxy class archive");
+            }
+        }
+    }
+}
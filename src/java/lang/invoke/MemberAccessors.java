@@ -0,0 +1,340 @@
+/*
+ * Copyright (c) 2013, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.lang.invoke;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import sun.invoke.util.VerifyAccess;
+import sun.invoke.util.Wrapper;
+import static java.lang.invoke.MethodHandleStatics.*;
+
+/**
+ * This class consists exclusively of static methods that turn reflected
+ * methods, constructors and fields into instances of functional interfaces.
+ *
+ * <p>Invoking a {@link Method} reflectively boxes the arguments into an
+ * array, checks access on every call, and goes through a native accessor
+ * until the method has been invoked often enough to be given a generated
+ * one.  The accessors made by this class instead implement a functional
+ * interface chosen by the caller, such as {@link java.util.function.Function}
+ * or an interface specific to the application, with a class spun by the
+ * same {@linkplain LambdaMetafactory metafactory} that implements lambda
+ * expressions.  The single abstract method of the interface calls the
+ * method, invokes the constructor, or reads or writes the field directly,
+ * and the arguments and result are converted as for a method reference:
+ * <pre>{@code
+ * MethodHandles.Lookup lookup = MethodHandles.lookup();
+ * Method m = Bean.class.getMethod("getName");
+ * Function<Bean, String> getName = MemberAccessors.method(lookup, Function.class, m);
+ * String name = getName.apply(bean);   // as if by bean.getName()
+ * }</pre>
+ *
+ * <p>Access is checked when an accessor is asked for.  Because the
+ * accessor is a class spun in the lookup class, the lookup must have
+ * {@linkplain MethodHandles.Lookup#PRIVATE private} access, and the member
+ * must be accessible to the bytecode of the lookup class: it must be public,
+ * or in the same package as the lookup class and not private, or be a
+ * member of the lookup class itself.  Access granted with
+ * {@link java.lang.reflect.AccessibleObject#setAccessible setAccessible}
+ * is not sufficient.
+ *
+ * <p>Accessors are cached for each lookup class, so asking again for an
+ * accessor of the same member and interface returns the same instance, once
+ * the lookup has again been checked for access to the member.
+ *
+ * @since 1.8
+ */
+public final class MemberAccessors {
+
+    private MemberAccessors() { } // do not instantiate
+
+    private static final int INVOKE = 0, GET = 1, SET = 2;
+
+    private static final MethodType[] EMPTY_MT_ARRAY = new MethodType[0];
+
+    private static final ClassValue<ConcurrentHashMap<Key, Object>> CACHE =
+        new ClassValue<ConcurrentHashMap<Key, Object>>() {
+            @Override
+            protected ConcurrentHashMap<Key, Object> computeValue(Class<?> lookupClass) {
+                return new ConcurrentHashMap<>();
+            }
+        };
+
+    /**
+     * The members for which one lookup class has made accessors.
+     */
+    private static final class Key {
+        final Member member;
+        final Class<?> intfc;
+        final int kind;
+
+        Key(Member member, Class<?> intfc, int kind) {
+            this.member = member;
+            this.intfc = intfc;
+            this.kind = kind;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key))
+                return false;
+            Key k = (Key)o;
+            return member.equals(k.member) && intfc == k.intfc && kind == k.kind;
+        }
+
+        @Override
+        public int hashCode() {
+            return (member.hashCode() * 31 + intfc.hashCode()) * 31 + kind;
+        }
+    }
+
+    /**
+     * Returns an instance of the given functional interface that invokes the
+     * given method.  If the method is an instance method, the receiver is the
+     * first argument of the interface's method.
+     *
+     * @param <T> the type of the functional interface
+     * @param caller a lookup with private access, in whose class the
+     *        accessor is defined
+     * @param intfc the functional interface to implement
+     * @param m the method to invoke
+     * @return an instance of {@code intfc} that invokes {@code m}
+     * @throws IllegalAccessException if the method is not accessible to the
+     *         lookup class, or its declaring class is not visible from the
+     *         lookup class's loader
+     * @throws LambdaConversionException if the lookup does not have private
+     *         access, or the method's type cannot be adapted to the type of
+     *         the interface's method
+     * @throws IllegalArgumentException if {@code intfc} is not an interface
+     *         with a single abstract method
+     * @throws NullPointerException if any argument is null
+     */
+    public static <T> T method(MethodHandles.Lookup caller, Class<T> intfc, Method m)
+            throws IllegalAccessException, LambdaConversionException {
+        checkAccess(caller, m);
+        MethodHandle impl = caller.unreflect(m);
+        return intfc.cast(accessor(caller, intfc, impl, new Key(m, intfc, INVOKE)));
+    }
+
+    /**
+     * Returns an instance of the given functional interface that creates
+     * objects with the given constructor.
+     *
+     * @param <T> the type of the functional interface
+     * @param caller a lookup with private access, in whose class the
+     *        accessor is defined
+     * @param intfc the functional interface to implement
+     * @param c the constructor to invoke
+     * @return an instance of {@code intfc} that invokes {@code c}
+     * @throws IllegalAccessException if the constructor is not accessible to
+     *         the lookup class, or its declaring class is not visible from
+     *         the lookup class's loader
+     * @throws LambdaConversionException if the lookup does not have private
+     *         access, or the constructor's type cannot be adapted to the type
+     *         of the interface's method
+     * @throws IllegalArgumentException if {@code intfc} is not an interface
+     *         with a single abstract method
+     * @throws NullPointerException if any argument is null
+     */
+    public static <T> T constructor(MethodHandles.Lookup caller, Class<T> intfc, Constructor<?> c)
+            throws IllegalAccessException, LambdaConversionException {
+        checkAccess(caller, c);
+        MethodHandle impl = caller.unreflectConstructor(c);
+        return intfc.cast(accessor(caller, intfc, impl, new Key(c, intfc, INVOKE)));
+    }
+
+    /**
+     * Returns an instance of the given functional interface that reads the
+     * given field.  If the field is an instance field, the object whose
+     * field is read is the argument of the interface's method.
+     *
+     * @param <T> the type of the functional interface
+     * @param caller a lookup with private access, in whose class the
+     *        accessor is defined
+     * @param intfc the functional interface to implement
+     * @param f the field to read
+     * @return an instance of {@code intfc} that reads {@code f}
+     * @throws IllegalAccessException if the field is not accessible to the
+     *         lookup class, or its declaring class is not visible from the
+     *         lookup class's loader
+     * @throws LambdaConversionException if the lookup does not have private
+     *         access, or the field's type cannot be adapted to the type of
+     *         the interface's method
+     * @throws IllegalArgumentException if {@code intfc} is not an interface
+     *         with a single abstract method
+     * @throws NullPointerException if any argument is null
+     */
+    public static <T> T getter(MethodHandles.Lookup caller, Class<T> intfc, Field f)
+            throws IllegalAccessException, LambdaConversionException {
+        checkAccess(caller, f);
+        MethodHandle impl = caller.unreflectGetter(f);
+        return intfc.cast(accessor(caller, intfc, impl, new Key(f, intfc, GET)));
+    }
+
+    /**
+     * Returns an instance of the given functional interface that writes the
+     * given field.  If the field is an instance field, the object whose
+     * field is written is the first argument of the interface's method, and
+     * the value is the second.
+     *
+     * @param <T> the type of the functional interface
+     * @param caller a lookup with private access, in whose class the
+     *        accessor is defined
+     * @param intfc the functional interface to implement
+     * @param f the field to write
+     * @return an instance of {@code intfc} that writes {@code f}
+     * @throws IllegalAccessException if the field is final or is not
+     *         accessible to the lookup class, or its declaring class is not
+     *         visible from the lookup class's loader
+     * @throws LambdaConversionException if the lookup does not have private
+     *         access, or the field's type cannot be adapted to the type of
+     *         the interface's method
+     * @throws IllegalArgumentException if {@code intfc} is not an interface
+     *         with a single abstract method
+     * @throws NullPointerException if any argument is null
+     */
+    public static <T> T setter(MethodHandles.Lookup caller, Class<T> intfc, Field f)
+            throws IllegalAccessException, LambdaConversionException {
+        if (Modifier.isFinal(f.getModifiers()))
+            throw new IllegalAccessException("field is final: " + f);
+        checkAccess(caller, f);
+        MethodHandle impl = caller.unreflectSetter(f);
+        return intfc.cast(accessor(caller, intfc, impl, new Key(f, intfc, SET)));
+    }
+
+    /**
+     * Checks that the spun class, which has the access of the lookup class,
+     * can link to the member, whether or not it has been made accessible,
+     * and that the member's declaring class is visible from the lookup
+     * class's loader.
+     * The lookup itself is checked for private access first, since the
+     * cached accessor of the member may be returned without spinning.
+     */
+    private static void checkAccess(MethodHandles.Lookup caller, Member m)
+            throws IllegalAccessException, LambdaConversionException {
+        if ((caller.lookupModes() & MethodHandles.Lookup.PRIVATE) == 0)
+            throw new LambdaConversionException("Invalid caller: " + caller);
+        Class<?> lookupClass = caller.lookupClass();
+        Class<?> defc = m.getDeclaringClass();
+        int mods = m.getModifiers();
+        boolean samePackage = VerifyAccess.isSamePackage(defc, lookupClass);
+        boolean accessible;
+        if (Modifier.isPrivate(mods))
+            accessible = (defc == lookupClass);
+        else if (Modifier.isPublic(mods))
+            accessible = samePackage || Modifier.isPublic(defc.getModifiers());
+        else
+            accessible = samePackage;
+        if (!accessible)
+            throw new IllegalAccessException("member is not accessible from "
+                                             + lookupClass.getName() + ": " + m);
+        // The spun class resolves the declaring class through the loader of
+        // the lookup class, as MethodHandles.Lookup does
+        if (!VerifyAccess.isTypeVisible(defc, lookupClass))
+            throw new IllegalAccessException("class is not visible from "
+                                             + lookupClass.getName() + ": "
+                                             + defc.getName());
+    }
+
+    /**
+     * Returns the cached accessor for the key, or spins one.  The caller
+     * has been checked for access to the member.
+     */
+    private static Object accessor(MethodHandles.Lookup caller, Class<?> intfc,
+                                   MethodHandle impl, Key key)
+            throws LambdaConversionException {
+        Object accessor = CACHE.get(caller.lookupClass()).get(key);
+        return (accessor != null) ? accessor : spin(caller, intfc, impl, key);
+    }
+
+    /**
+     * Spins the accessor class, creates its instance and caches it.
+     */
+    private static Object spin(MethodHandles.Lookup caller, Class<?> intfc,
+                               MethodHandle impl, Key key)
+            throws LambdaConversionException {
+        Method[] methods = MethodHandleProxies.getSingleNameMethods(intfc);
+        if (!intfc.isInterface() || methods == null)
+            throw newIllegalArgumentException("not a single-method interface", intfc.getName());
+        Method sam = methods[0];
+        MethodType samType = MethodType.methodType(sam.getReturnType(), sam.getParameterTypes());
+        int bridgeCount = 0;
+        MethodType[] bridges = new MethodType[methods.length - 1];
+        for (int i = 1; i < methods.length; i++) {
+            MethodType mt = MethodType.methodType(methods[i].getReturnType(),
+                                                  methods[i].getParameterTypes());
+            if (!mt.equals(samType))
+                bridges[bridgeCount++] = mt;
+        }
+        if (bridgeCount == 0)
+            bridges = EMPTY_MT_ARRAY;
+        else if (bridgeCount < bridges.length)
+            bridges = Arrays.copyOf(bridges, bridgeCount);
+
+        // Instantiate the interface's method as a method reference to the
+        // member would: reference types are narrowed to the member's types
+        MethodType implType = impl.type();
+        MethodType instantiatedType = samType;
+        if (implType.parameterCount() == samType.parameterCount()) {
+            for (int i = 0; i < samType.parameterCount(); i++) {
+                instantiatedType = instantiatedType.changeParameterType(i,
+                        instantiatedType(samType.parameterType(i), implType.parameterType(i)));
+            }
+        }
+        instantiatedType = instantiatedType.changeReturnType(
+                instantiatedType(samType.returnType(), implType.returnType()));
+
+        InnerClassLambdaMetafactory mf =
+            new InnerClassLambdaMetafactory(caller, MethodType.methodType(intfc),
+                                            sam.getName(), samType, impl,
+                                            instantiatedType, false,
+                                            new Class<?>[0], bridges);
+        mf.validateMetafactoryArgs(true);
+        Object accessor;
+        try {
+            accessor = mf.buildCallSite().getTarget().invoke();
+        } catch (Error | LambdaConversionException e) {
+            throw e;
+        } catch (Throwable ex) {
+            throw newInternalError("cannot create accessor for " + key.member, ex);
+        }
+        Object prev = CACHE.get(caller.lookupClass()).putIfAbsent(key, accessor);
+        return (prev != null) ? prev : accessor;
+    }
+
+    private static Class<?> instantiatedType(Class<?> samType, Class<?> implType) {
+        if (samType.isPrimitive() || implType == void.class)
+            return samType;
+        if (implType.isPrimitive())
+            implType = Wrapper.forPrimitiveType(implType).wrapperType();
+        return samType.isAssignableFrom(implType) ? implType : samType;
+    }
+}
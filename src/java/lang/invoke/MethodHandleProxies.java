@@ -302,7 +302,7 @@ public class MethodHandleProxies {
         return null;
     }
 
-    private static
+    static
     Method[] getSingleNameMethods(Class<?> intfc) {
         ArrayList<Method> methods = new ArrayList<Method>();
         String uniqueName = null;
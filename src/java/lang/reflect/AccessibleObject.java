@@ -118,6 +118,10 @@ public class AccessibleObject implements AnnotatedElement {
      * java.lang.reflect.Constructor} object for the class
      * {@code java.lang.Class}, and {@code flag} is true.
      *
+     * <p>A {@code SecurityException} is also raised if this object is one of
+     * the members shared by the lists returned by methods such as {@link
+     * Class#getDeclaredFieldList()}, and {@code flag} is true.
+     *
      * @param flag the new value for the {@code accessible} flag
      * @throws SecurityException if the request is denied.
      * @see SecurityManager#checkPermission
@@ -141,9 +145,20 @@ public class AccessibleObject implements AnnotatedElement {
                                             " constructor accessible");
             }
         }
+        if (flag && obj.isShared()) {
+            throw new SecurityException("Cannot make a shared member" +
+                                        " accessible");
+        }
         obj.override = flag;
     }
 
+    // Whether this object is a root member cached by its declaring class,
+    // which Class.getFieldList and the like hand out to all callers, rather
+    // than a copy of one.
+    boolean isShared() {
+        return false;
+    }
+
     /**
      * Get the value of the {@code accessible} flag for this object.
      *
@@ -156,6 +156,13 @@ class Field extends AccessibleObject implements Member {
         return res;
     }
 
+    // A root is the member cached by Class, which hands out only copies
+    // of it, except from its shared member lists
+    @Override
+    boolean isShared() {
+        return root == null;
+    }
+
     /**
      * Returns the {@code Class} object representing the class or interface
      * that declares the field represented by this {@code Field} object.
@@ -159,6 +159,13 @@ public final class Method extends Executable {
         return res;
     }
 
+    // A root is the member cached by Class, which hands out only copies
+    // of it, except from its shared member lists
+    @Override
+    boolean isShared() {
+        return root == null;
+    }
+
     /**
      * Used by Excecutable for annotation sharing.
      */
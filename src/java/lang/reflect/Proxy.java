@@ -413,10 +413,106 @@ public class Proxy implements java.io.Serializable {
             throw new IllegalArgumentException("interface limit exceeded");
         }
 
+        // Try the proxy classes recently returned for the first interface,
+        // which needs no allocation
+        RecentProxyClasses recent = null;
+        if (interfaces.length > 0) {
+            recent = recentProxyClasses.get(interfaces[0]);
+            Class<?> cl = recent.get(loader, interfaces);
+            if (cl != null) {
+                return cl;
+            }
+        }
+
         // If the proxy class defined by the given loader implementing
         // the given interfaces exists, this will simply return the cached copy;
         // otherwise, it will create the proxy class via the ProxyClassFactory
-        return proxyClassCache.get(loader, interfaces);
+        Class<?> cl = proxyClassCache.get(loader, interfaces);
+        if (recent != null) {
+            recent.add(loader, interfaces, cl);
+        }
+        return cl;
+    }
+
+    /**
+     * The proxy classes most recently returned for each first proxy
+     * interface, consulted before {@link #proxyClassCache}.  A lookup in
+     * {@code proxyClassCache} allocates a key holding weak references to the
+     * loader and interfaces; applications that create many proxy instances
+     * for the same few interfaces find their class here instead.
+     */
+    private static final ClassValue<RecentProxyClasses> recentProxyClasses =
+        new ClassValue<RecentProxyClasses>() {
+            @Override
+            protected RecentProxyClasses computeValue(Class<?> intf) {
+                return new RecentProxyClasses();
+            }
+        };
+
+    /**
+     * A few proxy classes implementing the same first interface.  The
+     * entries refer weakly to the proxy class, its loader and its other
+     * interfaces, so that holding them in a class value of the first
+     * interface does not keep any class loader alive.
+     */
+    private static final class RecentProxyClasses {
+        private static final int MAX_ENTRIES = 4;
+
+        // Replaced, never modified, when an entry is added
+        private volatile Entry[] entries = new Entry[0];
+
+        private static final class Entry extends WeakReference<Class<?>> {
+            private final WeakReference<ClassLoader> loader;  // null if bootstrap
+            private final WeakReference<?>[] interfaces;       // all but the first
+
+            Entry(ClassLoader loader, Class<?>[] interfaces, Class<?> proxyClass) {
+                super(proxyClass);
+                this.loader = (loader == null) ? null : new WeakReference<>(loader);
+                this.interfaces = new WeakReference<?>[interfaces.length - 1];
+                for (int i = 1; i < interfaces.length; i++) {
+                    this.interfaces[i - 1] = new WeakReference<>(interfaces[i]);
+                }
+            }
+
+            boolean matches(ClassLoader loader, Class<?>[] interfaces) {
+                if (this.loader == null ? loader != null : this.loader.get() != loader) {
+                    return false;
+                }
+                if (this.interfaces.length != interfaces.length - 1) {
+                    return false;
+                }
+                for (int i = 1; i < interfaces.length; i++) {
+                    if (this.interfaces[i - 1].get() != interfaces[i]) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+        }
+
+        Class<?> get(ClassLoader loader, Class<?>[] interfaces) {
+            for (Entry e : entries) {
+                if (e.matches(loader, interfaces)) {
+                    // A cleared loader or interface cannot match, as the
+                    // caller holds them; only the proxy class may be gone
+                    return e.get();
+                }
+            }
+            return null;
+        }
+
+        synchronized void add(ClassLoader loader, Class<?>[] interfaces, Class<?> proxyClass) {
+            Entry[] old = entries;
+            int n = 0;
+            Entry[] tab = new Entry[MAX_ENTRIES];
+            tab[n++] = new Entry(loader, interfaces, proxyClass);
+            for (Entry e : old) {
+                if (n < MAX_ENTRIES && e.get() != null && !e.matches(loader, interfaces)) {
+                    tab[n++] = e;
+                }
+            }
+            entries = Arrays.copyOf(tab, n);
+        }
     }
 
     /*
@@ -726,16 +822,7 @@ public class Proxy implements java.io.Serializable {
                 checkNewProxyPermission(Reflection.getCallerClass(), cl);
             }
 
-            final Constructor<?> cons = cl.getConstructor(constructorParams);
-            final InvocationHandler ih = h;
-            if (!Modifier.isPublic(cl.getModifiers())) {
-                AccessController.doPrivileged(new PrivilegedAction<Void>() {
-                    public Void run() {
-                        cons.setAccessible(true);
-                        return null;
-                    }
-                });
-            }
+            final Constructor<?> cons = proxyConstructors.get(cl);
             return cons.newInstance(new Object[]{h});
         } catch (IllegalAccessException|InstantiationException e) {
             throw new InternalError(e.toString(), e);
@@ -746,11 +833,36 @@ public class Proxy implements java.io.Serializable {
             } else {
                 throw new InternalError(t.toString(), t);
             }
-        } catch (NoSuchMethodException e) {
-            throw new InternalError(e.toString(), e);
         }
     }
 
+    /**
+     * The constructor of each proxy class, made accessible if the class is
+     * not public, so that creating an instance does not search for and copy
+     * the constructor each time.
+     */
+    private static final ClassValue<Constructor<?>> proxyConstructors =
+        new ClassValue<Constructor<?>>() {
+            @Override
+            protected Constructor<?> computeValue(Class<?> cl) {
+                final Constructor<?> cons;
+                try {
+                    cons = cl.getConstructor(constructorParams);
+                } catch (NoSuchMethodException e) {
+                    throw new InternalError(e.toString(), e);
+                }
+                if (!Modifier.isPublic(cl.getModifiers())) {
+                    AccessController.doPrivileged(new PrivilegedAction<Void>() {
+                        public Void run() {
+                            cons.setAccessible(true);
+                            return null;
+                        }
+                    });
+                }
+                return cons;
+            }
+        };
+
     private static void checkNewProxyPermission(Class<?> caller, Class<?> proxyClass) {
         SecurityManager sm = System.getSecurityManager();
         if (sm != null) {
@@ -53,6 +53,7 @@ import sun.misc.Resource;
 import sun.misc.SharedSecrets;
 import sun.misc.URLClassPath;
 import sun.net.www.ParseUtil;
+import sun.security.action.GetBooleanAction;
 import sun.security.util.SecurityConstants;
 
 /**
@@ -67,6 +68,12 @@ import sun.security.util.SecurityConstants;
  * <p>
  * The classes that are loaded are by default granted permission only to
  * access the URLs specified when the URLClassLoader was created.
+ * <p>
+ * If the system property {@code java.net.URLClassLoader.negativeLookupCache}
+ * is {@code true}, the names of classes that cannot be found are cached, as
+ * described in {@link ClassLoader#setNegativeLookupCacheEnabled
+ * ClassLoader.setNegativeLookupCacheEnabled}, until a URL is added to this
+ * or any other class loader, or a class is defined.
  *
  * @author  David Connelly
  * @since   1.2
@@ -78,6 +85,15 @@ public class URLClassLoader extends SecureClassLoader implements Closeable {
     /* The context to be used when loading classes and resources */
     private final AccessControlContext acc;
 
+    /*
+     * Whether classes that cannot be found are remembered, so that repeated
+     * lookups of them fail without searching the URLs again.  The cache is
+     * invalidated when a URL is added to any class loader.
+     */
+    private static final boolean NEGATIVE_LOOKUP_CACHE =
+        AccessController.doPrivileged(
+            new GetBooleanAction("java.net.URLClassLoader.negativeLookupCache"));
+
     /**
      * Constructs a new URLClassLoader for the given URLs. The URLs will be
      * searched in the order specified for classes and resources after first
@@ -106,6 +122,7 @@ public class URLClassLoader extends SecureClassLoader implements Closeable {
         }
         this.acc = AccessController.getContext();
         ucp = new URLClassPath(urls, acc);
+        setNegativeLookupCacheEnabled(NEGATIVE_LOOKUP_CACHE);
     }
 
     URLClassLoader(URL[] urls, ClassLoader parent,
@@ -118,6 +135,7 @@ public class URLClassLoader extends SecureClassLoader implements Closeable {
         }
         this.acc = acc;
         ucp = new URLClassPath(urls, acc);
+        setNegativeLookupCacheEnabled(NEGATIVE_LOOKUP_CACHE);
     }
 
     /**
@@ -150,6 +168,7 @@ public class URLClassLoader extends SecureClassLoader implements Closeable {
         }
         this.acc = AccessController.getContext();
         ucp = new URLClassPath(urls, acc);
+        setNegativeLookupCacheEnabled(NEGATIVE_LOOKUP_CACHE);
     }
 
     URLClassLoader(URL[] urls, AccessControlContext acc) {
@@ -161,6 +180,7 @@ public class URLClassLoader extends SecureClassLoader implements Closeable {
         }
         this.acc = acc;
         ucp = new URLClassPath(urls, acc);
+        setNegativeLookupCacheEnabled(NEGATIVE_LOOKUP_CACHE);
     }
 
     /**
@@ -194,6 +214,7 @@ public class URLClassLoader extends SecureClassLoader implements Closeable {
         }
         acc = AccessController.getContext();
         ucp = new URLClassPath(urls, factory, acc);
+        setNegativeLookupCacheEnabled(NEGATIVE_LOOKUP_CACHE);
     }
 
     /* A map (used as a set) to keep track of closeable local resources
@@ -331,6 +352,7 @@ public class URLClassLoader extends SecureClassLoader implements Closeable {
      */
     protected void addURL(URL url) {
         ucp.addURL(url);
+        clearNegativeLookupCache();
     }
 
     /**
@@ -0,0 +1,536 @@
+/*
+ * Copyright (c) 2013, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.nio;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.security.AccessController;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import sun.security.action.GetPropertyAction;
+import sun.util.logging.PlatformLogger;
+
+/**
+ * A pool of direct byte buffers that are carved out of large regions of
+ * native memory and returned to the pool explicitly.
+ *
+ * <p>Each {@link ByteBuffer#allocateDirect allocateDirect} reserves and
+ * zeroes native memory of its own, which under memory pressure may involve
+ * a full garbage collection and a wait, and frees it only once the garbage
+ * collector has found the buffer unreachable.  A {@code DirectBufferPool}
+ * allocates direct buffers of a fixed region size, 4 megabytes by default,
+ * and hands out {@linkplain ByteBuffer#slice slices} of them.  Within a
+ * region, space is managed by a buddy allocator with blocks of 512 bytes
+ * and larger powers of two, so that a released block is merged with its
+ * free neighbor and memory does not fragment into unusable pieces.  A
+ * request larger than a region is given a direct buffer of its own, which
+ * the pool drops as soon as it is released.
+ *
+ * <p>Regions are grouped into arenas, each with its own lock, and a thread
+ * allocates from the arena selected by its identifier, so that threads
+ * allocating at the same time seldom contend.  A buffer may be released by
+ * any thread.
+ *
+ * <p>A buffer that is returned by {@link #allocate allocate} must be passed
+ * to {@link #release release} once it, and every buffer derived from it,
+ * is no longer used; its memory may be given out again at once.  The
+ * released buffer's limit is set to zero, so that it cannot be used by
+ * mistake, but a buffer derived from it may still read and write the
+ * memory, which may by then belong to another buffer.
+ *
+ * <p>The native memory of a region is never freed while a buffer allocated
+ * from it, or derived from such a buffer, is reachable.  When a region is
+ * dropped by the pool, its memory is freed as is that of any direct buffer,
+ * once the garbage collector finds that no buffer refers to it.  A buffer
+ * that becomes unreachable without having been released is a <i>leak</i>:
+ * it is counted, reported to the {@code java.nio} platform logger, and its
+ * block is returned to the pool.  If the system property {@code
+ * java.nio.DirectBufferPool.traceLeaks} is {@code true}, the stack trace
+ * of the allocation of each buffer is recorded and included in the report.
+ *
+ * <p>The contents of a buffer returned by {@code allocate} are unspecified;
+ * unlike those of a buffer returned by {@code allocateDirect}, they are
+ * not zeroed.
+ *
+ * @see     ByteBuffer#allocateDirect(int)
+ * @since   1.8
+ */
+public final class DirectBufferPool {
+
+    /**
+     * The default size of a region.
+     */
+    private static final int DEFAULT_REGION_SIZE = 4 << 20;
+
+    /**
+     * The smallest block, and the unit in which regions are managed.
+     */
+    private static final int MIN_BLOCK_SHIFT = 9;
+    private static final int MIN_BLOCK = 1 << MIN_BLOCK_SHIFT;
+
+    /**
+     * The largest number of arenas.
+     */
+    private static final int MAX_ARENAS = 8;
+
+    private static final boolean TRACE_LEAKS =
+        Boolean.parseBoolean(AccessController.doPrivileged(
+            new GetPropertyAction("java.nio.DirectBufferPool.traceLeaks")));
+
+    private final int regionSize;
+    private final int maxOrder;
+    private final Arena[] arenas;
+
+    /**
+     * The regions by base address, to find the region of a released buffer.
+     */
+    private final ConcurrentSkipListMap<Long, Region> regions =
+        new ConcurrentSkipListMap<>();
+
+    private final ReferenceQueue<ByteBuffer> leaked = new ReferenceQueue<>();
+
+    private final AtomicLong pooledBytes = new AtomicLong();
+    private final AtomicLong usedBytes = new AtomicLong();
+    private final AtomicLong leakCount = new AtomicLong();
+
+    private volatile boolean closed;
+
+    /**
+     * Creates a pool with regions of the default size of 4 megabytes.
+     */
+    public DirectBufferPool() {
+        this(DEFAULT_REGION_SIZE);
+    }
+
+    /**
+     * Creates a pool with regions of the given size, rounded up to a power
+     * of two.
+     *
+     * @param  regionSize  the size of a region, in bytes
+     * @throws IllegalArgumentException if {@code regionSize} is less than
+     *         64 kilobytes or greater than 2<sup>30</sup>
+     */
+    public DirectBufferPool(int regionSize) {
+        if (regionSize < (64 << 10) || regionSize > (1 << 30))
+            throw new IllegalArgumentException("Illegal region size: "
+                                               + regionSize);
+        int shift = 32 - Integer.numberOfLeadingZeros(regionSize - 1);
+        this.regionSize = 1 << shift;
+        this.maxOrder = shift - MIN_BLOCK_SHIFT;
+        int n = Math.min(Runtime.getRuntime().availableProcessors(), MAX_ARENAS);
+        arenas = new Arena[n];
+        for (int i = 0; i < n; i++)
+            arenas[i] = new Arena();
+    }
+
+    /**
+     * Allocates a direct byte buffer from this pool.
+     *
+     * <p>The new buffer's position will be zero, its limit will be its
+     * capacity, its mark will be undefined, and its byte order will be
+     * {@link ByteOrder#BIG_ENDIAN BIG_ENDIAN}.  Its contents are
+     * unspecified.
+     *
+     * @param  capacity  the new buffer's capacity, in bytes
+     * @return the new byte buffer
+     * @throws IllegalArgumentException if {@code capacity} is negative
+     * @throws IllegalStateException if this pool has been closed
+     * @throws OutOfMemoryError if a new region is needed and no direct
+     *         memory is available for it
+     */
+    public ByteBuffer allocate(int capacity) {
+        if (capacity < 0)
+            throw new IllegalArgumentException("Negative capacity: "
+                                               + capacity);
+        expungeLeaks();
+        if (capacity > regionSize)
+            return allocateUnpooled(capacity);
+        int order = 0;
+        while ((MIN_BLOCK << order) < capacity)
+            order++;
+        Arena a = arenas[(int)(Thread.currentThread().getId() % arenas.length)];
+        synchronized (a) {
+            ensureOpen();
+            return a.allocate(order, capacity);
+        }
+    }
+
+    private ByteBuffer allocateUnpooled(int capacity) {
+        ensureOpen();
+        Region r = new Region(null, capacity);
+        synchronized (r) {
+            r.allocate(0);
+            return r.slice(0, 0, capacity);
+        }
+    }
+
+    private void ensureOpen() {
+        if (closed)
+            throw new IllegalStateException("Pool closed");
+    }
+
+    /**
+     * Returns a buffer to this pool.  The buffer, and every buffer derived
+     * from it, must not be used afterwards: its memory may be given out
+     * again at once.  The buffer's position and limit are set to zero.
+     *
+     * @param  buf  a buffer returned by {@link #allocate allocate}
+     * @throws IllegalArgumentException if the buffer was not returned by
+     *         {@code allocate} of this pool, for example if it is a
+     *         duplicate or slice of such a buffer, or has already been
+     *         released
+     */
+    public void release(ByteBuffer buf) {
+        Region r = null;
+        if (buf instanceof DirectByteBuffer) {
+            Map.Entry<Long, Region> e = regions.floorEntry(buf.address);
+            if (e != null)
+                r = e.getValue();
+        }
+        if (r == null || !r.release(buf))
+            throw new IllegalArgumentException(
+                "Buffer not allocated by this pool, or already released");
+        buf.position(0).limit(0);
+        expungeLeaks();
+    }
+
+    /**
+     * Drops the regions that have no buffers allocated from them, so that
+     * their memory is freed once no buffer derived from them is reachable.
+     * Regions are otherwise kept, for later allocations, until the pool is
+     * closed.
+     */
+    public void trim() {
+        for (Arena a : arenas) {
+            ArrayList<Region> empty = new ArrayList<>();
+            synchronized (a) {
+                for (int i = a.regions.size() - 1; i >= 0; i--) {
+                    Region r = a.regions.get(i);
+                    if (r.used == 0) {
+                        a.regions.remove(i);
+                        empty.add(r);
+                    }
+                }
+            }
+            for (Region r : empty)
+                r.drop();
+        }
+    }
+
+    /**
+     * Closes this pool.  The regions that have no buffers allocated from
+     * them are dropped at once, and each other region when its last buffer
+     * is released.  No buffers can be allocated from a closed pool.  Closing
+     * a pool that is already closed has no effect.
+     */
+    public void close() {
+        for (Arena a : arenas) {
+            synchronized (a) {
+                closed = true;
+            }
+        }
+        trim();
+        expungeLeaks();
+    }
+
+    /**
+     * Returns the number of bytes of native memory held by this pool: the
+     * total size of its regions, and of the buffers it has allocated that
+     * are larger than a region.  The memory of a region that has been
+     * dropped is not counted, even if it has not yet been freed.
+     *
+     * @return the number of bytes of native memory held by this pool
+     */
+    public long pooledBytes() {
+        return pooledBytes.get();
+    }
+
+    /**
+     * Returns the number of bytes of the blocks currently given out by
+     * this pool.  A buffer occupies a block of the smallest power of two,
+     * and at least 512 bytes, that is no smaller than its capacity, or, if
+     * it is larger than a region, exactly its capacity.
+     *
+     * @return the number of bytes in use
+     */
+    public long usedBytes() {
+        return usedBytes.get();
+    }
+
+    /**
+     * Returns the number of buffers allocated from this pool that became
+     * unreachable without having been released.
+     *
+     * @return the number of leaked buffers
+     */
+    public long leakCount() {
+        return leakCount.get();
+    }
+
+    // Returns the blocks of leaked buffers to the pool
+    private void expungeLeaks() {
+        Lease l;
+        while ((l = (Lease)leaked.poll()) != null) {
+            if (l.region.reclaim(l)) {
+                leakCount.incrementAndGet();
+                PlatformLogger logger = PlatformLogger.getLogger("java.nio");
+                String msg = "DirectBufferPool: a buffer of " + l.capacity
+                    + " bytes was not released before it became unreachable";
+                if (l.site != null)
+                    logger.warning(msg, l.site);
+                else
+                    logger.warning(msg + "; set java.nio.DirectBufferPool"
+                                   + ".traceLeaks=true to record where it"
+                                   + " was allocated");
+            }
+        }
+    }
+
+    /**
+     * A set of regions guarded by the arena's lock.
+     */
+    private final class Arena {
+        final ArrayList<Region> regions = new ArrayList<>();
+
+        ByteBuffer allocate(int order, int capacity) {
+            for (int i = regions.size() - 1; i >= 0; i--) {
+                Region r = regions.get(i);
+                int unit = r.allocate(order);
+                if (unit >= 0)
+                    return r.slice(unit, order, capacity);
+            }
+            Region r = new Region(this, regionSize);
+            regions.add(r);
+            return r.slice(r.allocate(order), order, capacity);
+        }
+    }
+
+    /**
+     * The tracking of an allocated buffer, which is enqueued if the buffer
+     * becomes unreachable before it is released.
+     */
+    private static final class Lease extends WeakReference<ByteBuffer> {
+        final Region region;
+        final int unit;
+        final int capacity;
+        final Throwable site;
+
+        Lease(ByteBuffer buf, ReferenceQueue<ByteBuffer> q,
+              Region region, int unit, int capacity) {
+            super(buf, q);
+            this.region = region;
+            this.unit = unit;
+            this.capacity = capacity;
+            this.site = TRACE_LEAKS ? new Throwable("Allocation site") : null;
+        }
+    }
+
+    /**
+     * A direct buffer from which blocks are allocated by the buddy system,
+     * in units of MIN_BLOCK bytes, or, if arena is null, a direct buffer
+     * allocated for a single large request.  The fields are guarded by the
+     * arena's lock, or by the region's own lock if it has no arena.
+     */
+    private final class Region {
+        final Arena arena;
+        final ByteBuffer memory;
+        final long address;
+        final int size;
+
+        /**
+         * The number of orders of blocks, and the first free block of each
+         * order, or -1.
+         */
+        final int orders;
+        final int[] head;
+
+        /**
+         * For each unit: the neighbors in the free list of the free block
+         * starting at the unit, the order plus one of the free or allocated
+         * block starting at the unit, or zero, and the lease of the buffer
+         * allocated there.
+         */
+        final int[] next;
+        final int[] prev;
+        final byte[] freeOrder;
+        final byte[] usedOrder;
+        final Lease[] leases;
+
+        int used;
+
+        Region(Arena arena, int size) {
+            this.arena = arena;
+            this.size = size;
+            memory = ByteBuffer.allocateDirect(size);
+            address = ((DirectByteBuffer)memory).address();
+            int units = (arena == null) ? 1 : size >>> MIN_BLOCK_SHIFT;
+            orders = (arena == null) ? 0 : maxOrder;
+            head = new int[orders + 1];
+            next = new int[units];
+            prev = new int[units];
+            freeOrder = new byte[units];
+            usedOrder = new byte[units];
+            leases = new Lease[units];
+            for (int i = 0; i <= orders; i++)
+                head[i] = -1;
+            link(0, orders);
+            regions.put(address, this);
+            pooledBytes.addAndGet(size);
+        }
+
+        private Object lock() {
+            return (arena != null) ? arena : this;
+        }
+
+        private int blockSize(int order) {
+            return (arena != null) ? MIN_BLOCK << order : size;
+        }
+
+        private void link(int unit, int order) {
+            freeOrder[unit] = (byte)(order + 1);
+            int h = head[order];
+            prev[unit] = -1;
+            next[unit] = h;
+            if (h >= 0)
+                prev[h] = unit;
+            head[order] = unit;
+        }
+
+        private void unlink(int unit, int order) {
+            freeOrder[unit] = 0;
+            int n = next[unit];
+            int p = prev[unit];
+            if (p >= 0)
+                next[p] = n;
+            else
+                head[order] = n;
+            if (n >= 0)
+                prev[n] = p;
+        }
+
+        // Returns the first unit of a block of the given order, split from
+        // the smallest free block that is large enough, or -1 if there is
+        // none
+        int allocate(int order) {
+            int k = order;
+            while (k <= orders && head[k] < 0)
+                k++;
+            if (k > orders)
+                return -1;
+            int unit = head[k];
+            unlink(unit, k);
+            while (k > order) {
+                k--;
+                link(unit + (1 << k), k);
+            }
+            usedOrder[unit] = (byte)(order + 1);
+            used += blockSize(order);
+            usedBytes.addAndGet(blockSize(order));
+            return unit;
+        }
+
+        // Frees the block at the given unit, merging it with its buddy for
+        // as long as the buddy is free
+        private void free(int unit) {
+            int order = usedOrder[unit] - 1;
+            usedOrder[unit] = 0;
+            leases[unit] = null;
+            used -= blockSize(order);
+            usedBytes.addAndGet(-blockSize(order));
+            while (order < orders) {
+                int buddy = unit ^ (1 << order);
+                if (freeOrder[buddy] != order + 1)
+                    break;
+                unlink(buddy, order);
+                unit = Math.min(unit, buddy);
+                order++;
+            }
+            link(unit, order);
+        }
+
+        ByteBuffer slice(int unit, int order, int capacity) {
+            ByteBuffer buf = new DirectByteBuffer((DirectByteBuffer)memory,
+                                                  -1, 0, capacity, capacity,
+                                                  unit << MIN_BLOCK_SHIFT);
+            leases[unit] = new Lease(buf, leaked, this, unit, capacity);
+            return buf;
+        }
+
+        boolean release(ByteBuffer buf) {
+            boolean empty;
+            synchronized (lock()) {
+                long offset = buf.address - address;
+                if (offset < 0 || offset >= size
+                        || (offset & (MIN_BLOCK - 1)) != 0)
+                    return false;
+                int unit = (int)(offset >>> MIN_BLOCK_SHIFT);
+                Lease l = leases[unit];
+                if (l == null || l.get() != buf)
+                    return false;
+                l.clear();
+                free(unit);
+                empty = retireIfEmpty();
+            }
+            if (empty)
+                drop();
+            return true;
+        }
+
+        boolean reclaim(Lease l) {
+            boolean empty;
+            synchronized (lock()) {
+                if (leases[l.unit] != l)
+                    return false;
+                free(l.unit);
+                empty = retireIfEmpty();
+            }
+            if (empty)
+                drop();
+            return true;
+        }
+
+        // Removes this region from its arena if it is empty and is not to
+        // be kept for later allocations, returning whether it was removed
+        private boolean retireIfEmpty() {
+            if (used != 0 || (arena != null && !closed))
+                return false;
+            if (arena != null)
+                arena.regions.remove(this);
+            return true;
+        }
+
+        // Drops this region, which has been removed from its arena and has
+        // no buffers allocated from it.  The memory is not freed here: views
+        // of released buffers may still refer to it, through their
+        // attachment, and its cleaner frees it once none does.
+        void drop() {
+            regions.remove(address, this);
+            pooledBytes.addAndGet(-size);
+        }
+    }
+}
@@ -178,6 +178,17 @@ public abstract class MappedByteBuffer
         return this;
     }
 
+    // Asks the operating system to begin reading the given range of this
+    // buffer into memory, without waiting for it or touching its pages
+    void prefetch(int index, int length) {
+        checkMapped();
+        if ((address == 0) || (length == 0))
+            return;
+        long start = address + index;
+        long aligned = start - (start % Bits.pageSize());
+        load0(aligned, start + length - aligned);
+    }
+
     /**
      * Forces any changes made to this buffer's content to be written to the
      * storage device containing the mapped file.
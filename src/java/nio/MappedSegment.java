@@ -0,0 +1,851 @@
+/*
+ * Copyright (c) 2013, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.nio;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.util.Objects;
+import sun.nio.ch.DirectBuffer;
+
+/**
+ * A region of a file that is mapped into memory, addressed by {@code long}
+ * offsets, and unmapped when it is closed.
+ *
+ * <p>A {@link MappedByteBuffer} is limited to {@link Integer#MAX_VALUE}
+ * bytes, and the mapping that it represents remains until the buffer is
+ * garbage-collected, so that a program that maps many regions of large
+ * files may run out of address space long before it runs out of heap.  A
+ * mapped segment of any size is created by the {@link #map map} method,
+ * which maps the region in chunks of up to 2<sup>30</sup> bytes, and its
+ * mapping is removed at once when the segment is {@linkplain #close
+ * closed}.
+ *
+ * <p>Values are read and written at absolute offsets within the segment,
+ * in the segment's {@linkplain #order byte order}, which is initially
+ * {@link ByteOrder#BIG_ENDIAN BIG_ENDIAN}.  A {@linkplain #slice slice} or
+ * a {@linkplain #withOrder differently ordered} view of a segment shares the
+ * segment's mapping: closing any of them closes all of them.
+ *
+ * <p>A segment is confined to the thread that mapped it, its <i>owner</i>.
+ * Its content may be accessed, and it may be closed, only by the owner, so
+ * that the mapping is never removed while another thread is accessing it.
+ * The methods that access the content of a segment, or any slice or view of
+ * it, throw {@link IllegalStateException} when invoked by another thread,
+ * or once the segment is closed.
+ *
+ * @see     FileChannel#map
+ * @since   1.8
+ */
+public final class MappedSegment implements AutoCloseable {
+
+    /**
+     * Advice about how the content of a segment will be accessed, which
+     * the operating system may use to schedule reading and caching.
+     *
+     * @see MappedSegment#advise
+     */
+    public enum Advice {
+        /**
+         * No particular access pattern; the default.
+         */
+        NORMAL,
+
+        /**
+         * The content will be accessed in increasing order of offsets.
+         */
+        SEQUENTIAL,
+
+        /**
+         * The content will be accessed in no particular order.
+         */
+        RANDOM,
+
+        /**
+         * The content will be accessed soon, and may be read ahead of
+         * time.
+         */
+        WILLNEED
+    }
+
+    /**
+     * The log2 of the size of a chunk.
+     */
+    private static final int CHUNK_SHIFT = 30;
+    private static final long CHUNK_MASK = (1L << CHUNK_SHIFT) - 1;
+
+    /**
+     * The mapped buffers of a region, shared by a segment and its slices
+     * and views.
+     */
+    private static final class Mapping {
+        final MappedByteBuffer[] chunks;
+        final boolean readOnly;
+        final Thread owner;
+        volatile boolean closed;
+
+        Mapping(MappedByteBuffer[] chunks, boolean readOnly) {
+            this.chunks = chunks;
+            this.readOnly = readOnly;
+            this.owner = Thread.currentThread();
+        }
+
+        void checkOwner() {
+            if (Thread.currentThread() != owner)
+                throw new IllegalStateException(
+                    "Segment accessed by a thread other than its owner");
+        }
+
+        // Only the owner accesses the chunks, so none can be in use here
+        void close() {
+            checkOwner();
+            if (closed)
+                return;
+            closed = true;
+            for (MappedByteBuffer b : chunks)
+                ((DirectBuffer)b).cleaner().clean();
+        }
+    }
+
+    private final Mapping mapping;
+
+    /**
+     * The chunks of the mapping, in this segment's byte order.  Only
+     * absolute operations are used on them, so they may be shared.
+     */
+    private final ByteBuffer[] views;
+
+    private final long base;
+    private final long length;
+    private final ByteOrder order;
+
+    private MappedSegment(Mapping mapping, ByteBuffer[] views,
+                          long base, long length, ByteOrder order) {
+        this.mapping = mapping;
+        this.views = views;
+        this.base = base;
+        this.length = length;
+        this.order = order;
+    }
+
+    /**
+     * Maps a region of a channel's file into memory as a segment.
+     *
+     * <p>The region is mapped as if by invoking {@link FileChannel#map
+     * map} for each chunk of up to 2<sup>30</sup> bytes, with the
+     * same mode, and the requirements and behavior of that method apply,
+     * except that the size of the region may exceed {@link
+     * Integer#MAX_VALUE}.  If a chunk cannot be mapped, the chunks already
+     * mapped are unmapped before the exception is thrown.
+     *
+     * @param  channel
+     *         The channel of the file to map
+     * @param  mode
+     *         The mode of the mapping
+     * @param  position
+     *         The position within the file at which the mapped region
+     *         is to start; must be non-negative
+     * @param  size
+     *         The size of the region to be mapped; must be non-negative
+     *
+     * @return  The mapped segment
+     *
+     * @throws IllegalArgumentException
+     *         If the preconditions on the parameters do not hold
+     * @throws IOException
+     *         If some I/O error occurs
+     *
+     * @see FileChannel#map
+     */
+    public static MappedSegment map(FileChannel channel, MapMode mode,
+                                    long position, long size)
+        throws IOException
+    {
+        Objects.requireNonNull(channel);
+        Objects.requireNonNull(mode);
+        if (position < 0L)
+            throw new IllegalArgumentException("Negative position");
+        if (size < 0L)
+            throw new IllegalArgumentException("Negative size");
+        if (position + size < 0)
+            throw new IllegalArgumentException("Position + size overflow");
+        int n = (int)((size + CHUNK_MASK) >>> CHUNK_SHIFT);
+        MappedByteBuffer[] chunks = new MappedByteBuffer[n];
+        Mapping m = new Mapping(chunks, mode == MapMode.READ_ONLY);
+        try {
+            for (int i = 0; i < n; i++) {
+                long start = (long)i << CHUNK_SHIFT;
+                chunks[i] = channel.map(mode, position + start,
+                                        Math.min(size - start, CHUNK_MASK + 1));
+            }
+        } catch (IOException | RuntimeException | Error x) {
+            for (MappedByteBuffer b : chunks) {
+                if (b != null)
+                    ((DirectBuffer)b).cleaner().clean();
+            }
+            throw x;
+        }
+        ByteBuffer[] views = new ByteBuffer[n];
+        System.arraycopy(chunks, 0, views, 0, n);
+        return new MappedSegment(m, views, 0L, size, ByteOrder.BIG_ENDIAN);
+    }
+
+    /**
+     * Returns the size of this segment.
+     *
+     * @return  The size of this segment, in bytes
+     */
+    public long size() {
+        return length;
+    }
+
+    /**
+     * Tells whether this segment is read-only.
+     *
+     * @return  {@code true} if the segment was mapped in {@link
+     *          MapMode#READ_ONLY READ_ONLY} mode
+     */
+    public boolean isReadOnly() {
+        return mapping.readOnly;
+    }
+
+    /**
+     * Tells whether this segment is open.
+     *
+     * @return  {@code true} if neither this segment, nor any segment
+     *          sharing its mapping, has been closed
+     */
+    public boolean isOpen() {
+        return !mapping.closed;
+    }
+
+    /**
+     * Retrieves this segment's byte order.
+     *
+     * @return  This segment's byte order
+     */
+    public ByteOrder order() {
+        return order;
+    }
+
+    /**
+     * Returns a segment that shares this segment's mapping, offsets and
+     * size, with the given byte order.
+     *
+     * @param  bo
+     *         The byte order of the new segment
+     *
+     * @return  The new segment
+     *
+     * @throws IllegalStateException
+     *         If this segment has been closed, or the current thread is
+     *         not its owner
+     */
+    public MappedSegment withOrder(ByteOrder bo) {
+        Objects.requireNonNull(bo);
+        ensureOpen();
+        if (bo == order)
+            return this;
+        ByteBuffer[] chunks = mapping.chunks;
+        ByteBuffer[] v = new ByteBuffer[chunks.length];
+        for (int i = 0; i < v.length; i++)
+            v[i] = chunks[i].duplicate().order(bo);
+        return new MappedSegment(mapping, v, base, length, bo);
+    }
+
+    /**
+     * Returns a segment that shares the given range of this segment, with
+     * this segment's byte order.  Offset zero of the new segment is the
+     * given offset of this segment.
+     *
+     * @param  offset
+     *         The offset of the range; must be non-negative and no larger
+     *         than {@code size()}
+     * @param  size
+     *         The size of the range; must be non-negative and no larger than
+     *         {@code size() - offset}
+     *
+     * @return  The new segment
+     *
+     * @throws IndexOutOfBoundsException
+     *         If the preconditions on the parameters do not hold
+     * @throws IllegalStateException
+     *         If this segment has been closed, or the current thread is
+     *         not its owner
+     */
+    public MappedSegment slice(long offset, long size) {
+        checkBounds(offset, size);
+        return new MappedSegment(mapping, views, base + offset, size, order);
+    }
+
+    private void ensureOpen() {
+        mapping.checkOwner();
+        if (mapping.closed)
+            throw new IllegalStateException("Segment closed");
+    }
+
+    private void checkBounds(long offset, long size) {
+        ensureOpen();
+        if ((offset | size) < 0 || size > length - offset)
+            throw new IndexOutOfBoundsException("offset " + offset
+                                                + ", size " + size
+                                                + ", segment size " + length);
+    }
+
+    // Returns the chunk holding the given offset of this segment
+    private ByteBuffer chunk(long offset) {
+        return views[(int)((base + offset) >>> CHUNK_SHIFT)];
+    }
+
+    // Returns the index within its chunk of the given offset
+    private static int index(long position) {
+        return (int)(position & CHUNK_MASK);
+    }
+
+    // Returns whether a value of the given size at the given offset lies
+    // within a single chunk, checking that it lies within this segment
+    private boolean inChunk(long offset, int size) {
+        checkBounds(offset, size);
+        return index(base + offset) <= (int)CHUNK_MASK + 1 - size;
+    }
+
+    // Reads a value that spans two chunks a byte at a time
+    private long getSpanning(long offset, int size) {
+        long x = 0L;
+        if (order == ByteOrder.BIG_ENDIAN) {
+            for (int i = 0; i < size; i++)
+                x = (x << 8) | (getByte(offset + i) & 0xff);
+        } else {
+            for (int i = size - 1; i >= 0; i--)
+                x = (x << 8) | (getByte(offset + i) & 0xff);
+        }
+        return x;
+    }
+
+    // Writes a value that spans two chunks a byte at a time
+    private void putSpanning(long offset, int size, long x) {
+        if (order == ByteOrder.BIG_ENDIAN) {
+            for (int i = size - 1; i >= 0; i--, x >>>= 8)
+                putByte(offset + i, (byte)x);
+        } else {
+            for (int i = 0; i < size; i++, x >>>= 8)
+                putByte(offset + i, (byte)x);
+        }
+    }
+
+    /**
+     * Reads the byte at the given offset.
+     *
+     * @param  offset
+     *         The offset from which the byte will be read
+     *
+     * @return  The byte at the given offset
+     *
+     * @throws IndexOutOfBoundsException
+     *         If {@code offset} is negative or not smaller than the
+     *         segment's size
+     * @throws IllegalStateException
+     *         If this segment has been closed, or the current thread is
+     *         not its owner
+     */
+    public byte getByte(long offset) {
+        checkBounds(offset, 1);
+        return chunk(offset).get(index(base + offset));
+    }
+
+    /**
+     * Reads the two bytes at the given offset, composing them into a short
+     * value according to the segment's byte order.
+     *
+     * @param  offset
+     *         The offset from which the bytes will be read
+     *
+     * @return  The short value at the given offset
+     *
+     * @throws IndexOutOfBoundsException
+     *         If {@code offset} is negative or not smaller than the
+     *         segment's size, minus one
+     * @throws IllegalStateException
+     *         If this segment has been closed, or the current thread is
+     *         not its owner
+     */
+    public short getShort(long offset) {
+        if (inChunk(offset, 2))
+            return chunk(offset).getShort(index(base + offset));
+        return (short)getSpanning(offset, 2);
+    }
+
+    /**
+     * Reads the four bytes at the given offset, composing them into an int
+     * value according to the segment's byte order.
+     *
+     * @param  offset
+     *         The offset from which the bytes will be read
+     *
+     * @return  The int value at the given offset
+     *
+     * @throws IndexOutOfBoundsException
+     *         If {@code offset} is negative or not smaller than the
+     *         segment's size, minus three
+     * @throws IllegalStateException
+     *         If this segment has been closed, or the current thread is
+     *         not its owner
+     */
+    public int getInt(long offset) {
+        if (inChunk(offset, 4))
+            return chunk(offset).getInt(index(base + offset));
+        return (int)getSpanning(offset, 4);
+    }
+
+    /**
+     * Reads the eight bytes at the given offset, composing them into a long
+     * value according to the segment's byte order.
+     *
+     * @param  offset
+     *         The offset from which the bytes will be read
+     *
+     * @return  The long value at the given offset
+     *
+     * @throws IndexOutOfBoundsException
+     *         If {@code offset} is negative or not smaller than the
+     *         segment's size, minus seven
+     * @throws IllegalStateException
+     *         If this segment has been closed, or the current thread is
+     *         not its owner
+     */
+    public long getLong(long offset) {
+        if (inChunk(offset, 8))
+            return chunk(offset).getLong(index(base + offset));
+        return getSpanning(offset, 8);
+    }
+
+    /**
+     * Reads the four bytes at the given offset, composing them into a float
+     * value according to the segment's byte order.
+     *
+     * @param  offset
+     *         The offset from which the bytes will be read
+     *
+     * @return  The float value at the given offset
+     *
+     * @throws IndexOutOfBoundsException
+     *         If {@code offset} is negative or not smaller than the
+     *         segment's size, minus three
+     * @throws IllegalStateException
+     *         If this segment has been closed, or the current thread is
+     *         not its owner
+     */
+    public float getFloat(long offset) {
+        return Float.intBitsToFloat(getInt(offset));
+    }
+
+    /**
+     * Reads the eight bytes at the given offset, composing them into a
+     * double value according to the segment's byte order.
+     *
+     * @param  offset
+     *         The offset from which the bytes will be read
+     *
+     * @return  The double value at the given offset
+     *
+     * @throws IndexOutOfBoundsException
+     *         If {@code offset} is negative or not smaller than the
+     *         segment's size, minus seven
+     * @throws IllegalStateException
+     *         If this segment has been closed, or the current thread is
+     *         not its owner
+     */
+    public double getDouble(long offset) {
+        return Double.longBitsToDouble(getLong(offset));
+    }
+
+    /**
+     * Writes the given byte at the given offset.
+     *
+     * @param  offset
+     *         The offset at which the byte will be written
+     * @param  value
+     *         The byte value to be written
+     *
+     * @throws IndexOutOfBoundsException
+     *         If {@code offset} is negative or not smaller than the
+     *         segment's size
+     * @throws ReadOnlyBufferException
+     *         If this segment is read-only
+     * @throws IllegalStateException
+     *         If this segment has been closed, or the current thread is
+     *         not its owner
+     */
+    public void putByte(long offset, byte value) {
+        checkBounds(offset, 1);
+        chunk(offset).put(index(base + offset), value);
+    }
+
+    /**
+     * Writes two bytes containing the given short value, in the segment's
+     * byte order, at the given offset.
+     *
+     * @param  offset
+     *         The offset at which the bytes will be written
+     * @param  value
+     *         The short value to be written
+     *
+     * @throws IndexOutOfBoundsException
+     *         If {@code offset} is negative or not smaller than the
+     *         segment's size, minus one
+     * @throws ReadOnlyBufferException
+     *         If this segment is read-only
+     * @throws IllegalStateException
+     *         If this segment has been closed, or the current thread is
+     *         not its owner
+     */
+    public void putShort(long offset, short value) {
+        if (inChunk(offset, 2))
+            chunk(offset).putShort(index(base + offset), value);
+        else
+            putSpanning(offset, 2, value);
+    }
+
+    /**
+     * Writes four bytes containing the given int value, in the segment's
+     * byte order, at the given offset.
+     *
+     * @param  offset
+     *         The offset at which the bytes will be written
+     * @param  value
+     *         The int value to be written
+     *
+     * @throws IndexOutOfBoundsException
+     *         If {@code offset} is negative or not smaller than the
+     *         segment's size, minus three
+     * @throws ReadOnlyBufferException
+     *         If this segment is read-only
+     * @throws IllegalStateException
+     *         If this segment has been closed, or the current thread is
+     *         not its owner
+     */
+    public void putInt(long offset, int value) {
+        if (inChunk(offset, 4))
+            chunk(offset).putInt(index(base + offset), value);
+        else
+            putSpanning(offset, 4, value);
+    }
+
+    /**
+     * Writes eight bytes containing the given long value, in the segment's
+     * byte order, at the given offset.
+     *
+     * @param  offset
+     *         The offset at which the bytes will be written
+     * @param  value
+     *         The long value to be written
+     *
+     * @throws IndexOutOfBoundsException
+     *         If {@code offset} is negative or not smaller than the
+     *         segment's size, minus seven
+     * @throws ReadOnlyBufferException
+     *         If this segment is read-only
+     * @throws IllegalStateException
+     *         If this segment has been closed, or the current thread is
+     *         not its owner
+     */
+    public void putLong(long offset, long value) {
+        if (inChunk(offset, 8))
+            chunk(offset).putLong(index(base + offset), value);
+        else
+            putSpanning(offset, 8, value);
+    }
+
+    /**
+     * Writes four bytes containing the given float value, in the segment's
+     * byte order, at the given offset.
+     *
+     * @param  offset
+     *         The offset at which the bytes will be written
+     * @param  value
+     *         The float value to be written
+     *
+     * @throws IndexOutOfBoundsException
+     *         If {@code offset} is negative or not smaller than the
+     *         segment's size, minus three
+     * @throws ReadOnlyBufferException
+     *         If this segment is read-only
+     * @throws IllegalStateException
+     *         If this segment has been closed, or the current thread is
+     *         not its owner
+     */
+    public void putFloat(long offset, float value) {
+        putInt(offset, Float.floatToRawIntBits(value));
+    }
+
+    /**
+     * Writes eight bytes containing the given double value, in the
+     * segment's byte order, at the given offset.
+     *
+     * @param  offset
+     *         The offset at which the bytes will be written
+     * @param  value
+     *         The double value to be written
+     *
+     * @throws IndexOutOfBoundsException
+     *         If {@code offset} is negative or not smaller than the
+     *         segment's size, minus seven
+     * @throws ReadOnlyBufferException
+     *         If this segment is read-only
+     * @throws IllegalStateException
+     *         If this segment has been closed, or the current thread is
+     *         not its owner
+     */
+    public void putDouble(long offset, double value) {
+        putLong(offset, Double.doubleToRawLongBits(value));
+    }
+
+    /**
+     * Copies bytes from this segment into the given array.
+     *
+     * @param  offset
+     *         The offset of the first byte to be copied
+     * @param  dst
+     *         The array into which bytes are to be written
+     * @param  off
+     *         The offset within the array of the first byte to be written
+     * @param  len
+     *         The number of bytes to be copied
+     *
+     * @throws IndexOutOfBoundsException
+     *         If the range of the segment or of the array is out of bounds
+     * @throws IllegalStateException
+     *         If this segment has been closed, or the current thread is
+     *         not its owner
+     */
+    public void get(long offset, byte[] dst, int off, int len) {
+        checkBounds(offset, len);
+        checkBounds(off, len, dst.length);
+        while (len > 0) {
+            long p = base + offset;
+            int n = (int)Math.min(len, CHUNK_MASK + 1 - index(p));
+            ByteBuffer b = views[(int)(p >>> CHUNK_SHIFT)].duplicate();
+            b.position(index(p));
+            b.get(dst, off, n);
+            offset += n;
+            off += n;
+            len -= n;
+        }
+    }
+
+    /**
+     * Copies bytes from the given array into this segment.
+     *
+     * @param  offset
+     *         The offset in this segment of the first byte to be written
+     * @param  src
+     *         The array from which bytes are to be read
+     * @param  off
+     *         The offset within the array of the first byte to be read
+     * @param  len
+     *         The number of bytes to be copied
+     *
+     * @throws IndexOutOfBoundsException
+     *         If the range of the segment or of the array is out of bounds
+     * @throws ReadOnlyBufferException
+     *         If this segment is read-only
+     * @throws IllegalStateException
+     *         If this segment has been closed, or the current thread is
+     *         not its owner
+     */
+    public void put(long offset, byte[] src, int off, int len) {
+        checkBounds(offset, len);
+        checkBounds(off, len, src.length);
+        while (len > 0) {
+            long p = base + offset;
+            int n = (int)Math.min(len, CHUNK_MASK + 1 - index(p));
+            ByteBuffer b = views[(int)(p >>> CHUNK_SHIFT)].duplicate();
+            b.position(index(p));
+            b.put(src, off, n);
+            offset += n;
+            off += n;
+            len -= n;
+        }
+    }
+
+    /**
+     * Copies a range of this segment into a range of another segment.  The
+     * segments may share a mapping, in which case the ranges may overlap.
+     *
+     * @param  offset
+     *         The offset in this segment of the first byte to be copied
+     * @param  dst
+     *         The segment into which bytes are to be copied
+     * @param  dstOffset
+     *         The offset in the destination segment of the first byte to be
+     *         written
+     * @param  size
+     *         The number of bytes to be copied
+     *
+     * @throws IndexOutOfBoundsException
+     *         If either range is out of bounds
+     * @throws ReadOnlyBufferException
+     *         If the destination segment is read-only
+     * @throws IllegalStateException
+     *         If either segment has been closed, or the current thread
+     *         is not its owner
+     */
+    public void copyTo(long offset, MappedSegment dst, long dstOffset,
+                       long size) {
+        checkBounds(offset, size);
+        dst.checkBounds(dstOffset, size);
+        if (dst.mapping.readOnly)
+            throw new ReadOnlyBufferException();
+        // Copy backwards if the destination follows an overlapping source,
+        // in pieces that lie within a single chunk of either segment
+        boolean backwards = dst.mapping == mapping
+            && dst.base + dstOffset > base + offset;
+        while (size > 0) {
+            long s = base + offset + (backwards ? size : 0);
+            long d = dst.base + dstOffset + (backwards ? size : 0);
+            long room = backwards
+                ? Math.min(((s - 1) & CHUNK_MASK) + 1, ((d - 1) & CHUNK_MASK) + 1)
+                : Math.min(CHUNK_MASK + 1 - index(s), CHUNK_MASK + 1 - index(d));
+            int n = (int)Math.min(size, room);
+            if (backwards) {
+                s -= n;
+                d -= n;
+            }
+            ByteBuffer from = mapping.chunks[(int)(s >>> CHUNK_SHIFT)].duplicate();
+            from.position(index(s)).limit(index(s) + n);
+            ByteBuffer to = dst.mapping.chunks[(int)(d >>> CHUNK_SHIFT)].duplicate();
+            to.position(index(d));
+            to.put(from);
+            if (!backwards) {
+                offset += n;
+                dstOffset += n;
+            }
+            size -= n;
+        }
+    }
+
+    private static void checkBounds(int off, int len, int size) {
+        if ((off | len | (off + len) | (size - (off + len))) < 0)
+            throw new IndexOutOfBoundsException();
+    }
+
+    /**
+     * Advises the operating system how a range of this segment will be
+     * accessed.  The advice is a hint, which does not change the content
+     * of the segment, and which may be ignored.
+     *
+     * @implNote This implementation acts on {@link Advice#WILLNEED
+     * WILLNEED}, by asking the operating system to begin reading the
+     * range in the background, and ignores other advice.
+     *
+     * @param  advice
+     *         The advice
+     * @param  offset
+     *         The offset of the first byte of the range
+     * @param  size
+     *         The size of the range
+     *
+     * @throws IndexOutOfBoundsException
+     *         If the range is out of bounds
+     * @throws IllegalStateException
+     *         If this segment has been closed, or the current thread is
+     *         not its owner
+     */
+    public void advise(Advice advice, long offset, long size) {
+        Objects.requireNonNull(advice);
+        checkBounds(offset, size);
+        if (advice != Advice.WILLNEED)
+            return;
+        while (size > 0) {
+            long p = base + offset;
+            int n = (int)Math.min(size, CHUNK_MASK + 1 - index(p));
+            mapping.chunks[(int)(p >>> CHUNK_SHIFT)].prefetch(index(p), n);
+            offset += n;
+            size -= n;
+        }
+    }
+
+    /**
+     * Loads the content of this segment into physical memory, as if by
+     * invoking {@link MappedByteBuffer#load load} on each chunk of the
+     * mapping that this segment covers.
+     *
+     * @throws IllegalStateException
+     *         If this segment has been closed, or the current thread is
+     *         not its owner
+     */
+    public void load() {
+        ensureOpen();
+        forEachChunk(false);
+    }
+
+    /**
+     * Forces any changes made to the content of this segment to be written
+     * to the storage device containing the mapped file, as if by invoking
+     * {@link MappedByteBuffer#force force} on each chunk of the mapping
+     * that this segment covers.
+     *
+     * @throws IllegalStateException
+     *         If this segment has been closed, or the current thread is
+     *         not its owner
+     */
+    public void force() {
+        ensureOpen();
+        forEachChunk(true);
+    }
+
+    private void forEachChunk(boolean force) {
+        if (length == 0)
+            return;
+        int first = (int)(base >>> CHUNK_SHIFT);
+        int last = (int)((base + length - 1) >>> CHUNK_SHIFT);
+        for (int i = first; i <= last; i++) {
+            if (force)
+                mapping.chunks[i].force();
+            else
+                mapping.chunks[i].load();
+        }
+    }
+
+    /**
+     * Closes this segment, unmapping its region of the file.  Every slice
+     * and view of this segment, and every segment of which it is a slice or
+     * view, is closed too.  Closing a segment that is already closed has no
+     * effect.
+     *
+     * <p>Changes made to the content of a {@link MapMode#READ_WRITE
+     * READ_WRITE} segment are not lost when it is closed; they are written to
+     * the file by the operating system, as they would be for a {@link
+     * MappedByteBuffer} that is garbage-collected.
+     *
+     * @throws IllegalStateException
+     *         If the current thread is not the owner of this segment
+     */
+    @Override
+    public void close() {
+        mapping.close();
+    }
+}
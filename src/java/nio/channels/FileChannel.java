@@ -858,6 +858,9 @@ public abstract class FileChannel
      * capacity of <tt>size</tt>; its mark will be undefined.  The buffer and
      * the mapping that it represents will remain valid until the buffer itself
      * is garbage-collected.
+     * A region that is larger than {@link java.lang.Integer#MAX_VALUE} bytes,
+     * or that is to be unmapped at a known time, may be mapped as a {@link
+     * java.nio.MappedSegment} instead.
      *
      * <p> A mapping, once established, is not dependent upon the file channel
      * that was used to create it.  Closing the channel, in particular, has no
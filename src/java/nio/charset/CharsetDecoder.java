@@ -32,6 +32,7 @@ import java.nio.ByteBuffer;
 import java.nio.CharBuffer;
 import java.nio.BufferOverflowException;
 import java.nio.BufferUnderflowException;
+import java.nio.ByteOrder;
 import java.lang.ref.WeakReference;
 import java.nio.charset.CoderMalfunctionError;                  // javadoc
 import java.util.Arrays;
@@ -158,6 +159,10 @@ public abstract class CharsetDecoder {
     private static String stateNames[]
         = { "RESET", "CODING", "CODING_END", "FLUSHED" };
 
+    // The limit below which this decoder maps each byte directly to the
+    // char of the same value, or zero if it is not known to do so
+    private final int directLimit;
+
 
     /**
      * Initializes a new decoder.  The new decoder will have the given
@@ -204,9 +209,25 @@ public abstract class CharsetDecoder {
         this.replacement = replacement;
         this.averageCharsPerByte = averageCharsPerByte;
         this.maxCharsPerByte = maxCharsPerByte;
+        this.directLimit = directLimit(cs, getClass());
         replaceWith(replacement);
     }
 
+    // The standard UTF-8 and US-ASCII decoders map the bytes below 0x80
+    // directly to chars, and the ISO-8859-1 decoder maps all bytes; none of
+    // them keeps state between invocations of decodeLoop.  Decoders of other
+    // classes may not, even if they report one of these charsets.
+    private static int directLimit(Charset cs, Class<?> c) {
+        if (cs == null || c.getClassLoader() != null)
+            return 0;
+        String name = cs.name();
+        if (name.equals("UTF-8") || name.equals("US-ASCII"))
+            return 0x80;
+        if (name.equals("ISO-8859-1"))
+            return 0x100;
+        return 0;
+    }
+
     /**
      * Initializes a new decoder.  The new decoder will have the given
      * chars-per-byte values and its replacement will be the
@@ -572,6 +593,9 @@ public abstract class CharsetDecoder {
             throwIllegalStateException(state, newState);
         state = newState;
 
+        if (directLimit != 0)
+            decodeDirect(in, out);
+
         for (;;) {
 
             CoderResult cr;
@@ -624,6 +648,35 @@ public abstract class CharsetDecoder {
 
     }
 
+    // Decodes the run of bytes below directLimit at the start of an input
+    // buffer without an accessible array, such as a direct or mapped
+    // buffer, reading it a long at a time rather than through a relative
+    // get of each byte.  The rest of the input, and all input that has an
+    // array, whose bytes decodeLoop reads directly, are left to decodeLoop.
+    private void decodeDirect(ByteBuffer in, CharBuffer out) {
+        int n = Math.min(in.remaining(), out.remaining());
+        if (n < 8 || in.hasArray() || !out.hasArray())
+            return;
+        char[] ca = out.array();
+        int dp = out.arrayOffset() + out.position();
+        int ip = in.position();
+        boolean bigEndian = (in.order() == ByteOrder.BIG_ENDIAN);
+        int i = 0;
+        for (int limit = n & ~7; i < limit; i += 8) {
+            long w = in.getLong(ip + i);
+            if (directLimit == 0x80 && (w & 0x8080808080808080L) != 0)
+                break;
+            for (int k = 0; k < 8; k++) {
+                int shift = bigEndian ? 56 - (k << 3) : k << 3;
+                ca[dp + i + k] = (char)((w >>> shift) & 0xff);
+            }
+        }
+        if (i > 0) {
+            in.position(ip + i);
+            out.position(out.position() + i);
+        }
+    }
+
     /**
      * Flushes this decoder.
      *
@@ -32,6 +32,7 @@ import java.nio.ByteBuffer;
 import java.nio.CharBuffer;
 import java.nio.BufferOverflowException;
 import java.nio.BufferUnderflowException;
+import java.nio.ByteOrder;
 import java.lang.ref.WeakReference;
 import java.nio.charset.CoderMalfunctionError;                  // javadoc
 import java.util.Arrays;
@@ -158,6 +159,10 @@ public abstract class CharsetEncoder {
     private static String stateNames[]
         = { "RESET", "CODING", "CODING_END", "FLUSHED" };
 
+    // The limit below which this encoder maps each char directly to the
+    // byte of the same value, or zero if it is not known to do so
+    private final int directLimit;
+
 
     /**
      * Initializes a new encoder.  The new encoder will have the given
@@ -204,9 +209,26 @@ public abstract class CharsetEncoder {
         this.replacement = replacement;
         this.averageBytesPerChar = averageBytesPerChar;
         this.maxBytesPerChar = maxBytesPerChar;
+        this.directLimit = directLimit(cs, getClass());
         replaceWith(replacement);
     }
 
+    // The standard UTF-8 and US-ASCII encoders map the chars below 0x80
+    // directly to bytes, and the ISO-8859-1 encoder maps the chars below
+    // 0x100; none of them keeps state between invocations of encodeLoop.
+    // Encoders of other classes may not, even if they report one of these
+    // charsets.
+    private static int directLimit(Charset cs, Class<?> c) {
+        if (cs == null || c.getClassLoader() != null)
+            return 0;
+        String name = cs.name();
+        if (name.equals("UTF-8") || name.equals("US-ASCII"))
+            return 0x80;
+        if (name.equals("ISO-8859-1"))
+            return 0x100;
+        return 0;
+    }
+
     /**
      * Initializes a new encoder.  The new encoder will have the given
      * bytes-per-char values and its replacement will be the
@@ -572,6 +594,9 @@ public abstract class CharsetEncoder {
             throwIllegalStateException(state, newState);
         state = newState;
 
+        if (directLimit != 0)
+            encodeDirect(in, out);
+
         for (;;) {
 
             CoderResult cr;
@@ -624,6 +649,38 @@ public abstract class CharsetEncoder {
 
     }
 
+    // Encodes the run of chars below directLimit at the start of the input
+    // into an output buffer without an accessible array, such as a direct
+    // buffer, writing it a long at a time rather than through a relative
+    // put of each byte.  The rest of the input, and all output that has an
+    // array, whose bytes encodeLoop writes directly, are left to encodeLoop.
+    private void encodeDirect(CharBuffer in, ByteBuffer out) {
+        int n = Math.min(in.remaining(), out.remaining());
+        if (n < 8 || !in.hasArray() || out.hasArray() || out.isReadOnly())
+            return;
+        char[] ca = in.array();
+        int sp = in.arrayOffset() + in.position();
+        int op = out.position();
+        boolean bigEndian = (out.order() == ByteOrder.BIG_ENDIAN);
+        int i = 0;
+        for (int limit = n & ~7; i < limit; i += 8) {
+            int p = sp + i;
+            if ((ca[p] | ca[p+1] | ca[p+2] | ca[p+3] |
+                 ca[p+4] | ca[p+5] | ca[p+6] | ca[p+7]) >= directLimit)
+                break;
+            long w = 0;
+            for (int k = 0; k < 8; k++) {
+                int shift = bigEndian ? 56 - (k << 3) : k << 3;
+                w |= (long)ca[p + k] << shift;
+            }
+            out.putLong(op + i, w);
+        }
+        if (i > 0) {
+            in.position(in.position() + i);
+            out.position(op + i);
+        }
+    }
+
     /**
      * Flushes this encoder.
      *
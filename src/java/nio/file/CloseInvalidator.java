@@ -0,0 +1,251 @@
+/*
+ * Copyright (c) 2013, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.nio.file;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import sun.nio.fs.FileAttributeCache;
+
+/**
+ * Helper class to remove a file from the attribute cache when a stream or
+ * channel that writes to it is closed, as {@code FileOutputStream} does,
+ * since the file's size and modification time are only final then.  The
+ * wrappers are only used while the cache is enabled.
+ */
+class CloseInvalidator {
+    private CloseInvalidator() { }
+
+    /**
+     * Returns an output stream that writes to the given stream, and removes
+     * the file from the attribute cache when it is closed.
+     */
+    static OutputStream wrap(Path path, OutputStream out) {
+        if (!FileAttributeCache.isEnabled())
+            return out;
+        return new InvalidatingOutputStream(path, out);
+    }
+
+    /**
+     * Returns a channel that delegates to the given channel, and removes
+     * the file from the attribute cache when it is closed.  A file channel
+     * is wrapped in a file channel, so that callers may still cast it.
+     */
+    static SeekableByteChannel wrap(Path path, SeekableByteChannel sbc) {
+        if (!FileAttributeCache.isEnabled())
+            return sbc;
+        if (sbc instanceof FileChannel)
+            return new InvalidatingFileChannel(path, (FileChannel)sbc);
+        return new InvalidatingChannel(path, sbc);
+    }
+
+    private static void invalidate(Path path) {
+        if (FileAttributeCache.isEnabled())
+            FileAttributeCache.invalidate(path);
+    }
+
+    private static final class InvalidatingOutputStream extends FilterOutputStream {
+        private final Path path;
+        private boolean closed;
+
+        InvalidatingOutputStream(Path path, OutputStream out) {
+            super(out);
+            this.path = path;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (closed)
+                return;
+            closed = true;
+            try {
+                out.close();
+            } finally {
+                invalidate(path);
+            }
+        }
+    }
+
+    private static final class InvalidatingChannel implements SeekableByteChannel {
+        private final Path path;
+        private final SeekableByteChannel ch;
+
+        InvalidatingChannel(Path path, SeekableByteChannel ch) {
+            this.path = path;
+            this.ch = ch;
+        }
+
+        public int read(ByteBuffer dst) throws IOException {
+            return ch.read(dst);
+        }
+
+        public int write(ByteBuffer src) throws IOException {
+            return ch.write(src);
+        }
+
+        public long position() throws IOException {
+            return ch.position();
+        }
+
+        public SeekableByteChannel position(long newPosition) throws IOException {
+            ch.position(newPosition);
+            return this;
+        }
+
+        public long size() throws IOException {
+            return ch.size();
+        }
+
+        public SeekableByteChannel truncate(long size) throws IOException {
+            ch.truncate(size);
+            return this;
+        }
+
+        public boolean isOpen() {
+            return ch.isOpen();
+        }
+
+        public void close() throws IOException {
+            try {
+                ch.close();
+            } finally {
+                invalidate(path);
+            }
+        }
+    }
+
+    private static final class InvalidatingFileChannel extends FileChannel {
+        private final Path path;
+        private final FileChannel ch;
+
+        InvalidatingFileChannel(Path path, FileChannel ch) {
+            this.path = path;
+            this.ch = ch;
+        }
+
+        public int read(ByteBuffer dst) throws IOException {
+            return ch.read(dst);
+        }
+
+        public long read(ByteBuffer[] dsts, int offset, int length)
+            throws IOException
+        {
+            return ch.read(dsts, offset, length);
+        }
+
+        public int write(ByteBuffer src) throws IOException {
+            return ch.write(src);
+        }
+
+        public long write(ByteBuffer[] srcs, int offset, int length)
+            throws IOException
+        {
+            return ch.write(srcs, offset, length);
+        }
+
+        public long position() throws IOException {
+            return ch.position();
+        }
+
+        public FileChannel position(long newPosition) throws IOException {
+            ch.position(newPosition);
+            return this;
+        }
+
+        public long size() throws IOException {
+            return ch.size();
+        }
+
+        public FileChannel truncate(long size) throws IOException {
+            ch.truncate(size);
+            return this;
+        }
+
+        public void force(boolean metaData) throws IOException {
+            ch.force(metaData);
+        }
+
+        public long transferTo(long position, long count,
+                               WritableByteChannel target)
+            throws IOException
+        {
+            return ch.transferTo(position, count, target);
+        }
+
+        public long transferFrom(ReadableByteChannel src,
+                                 long position, long count)
+            throws IOException
+        {
+            return ch.transferFrom(src, position, count);
+        }
+
+        public int read(ByteBuffer dst, long position) throws IOException {
+            return ch.read(dst, position);
+        }
+
+        public int write(ByteBuffer src, long position) throws IOException {
+            return ch.write(src, position);
+        }
+
+        public MappedByteBuffer map(MapMode mode, long position, long size)
+            throws IOException
+        {
+            return ch.map(mode, position, size);
+        }
+
+        public FileLock lock(long position, long size, boolean shared)
+            throws IOException
+        {
+            return ch.lock(position, size, shared);
+        }
+
+        public FileLock tryLock(long position, long size, boolean shared)
+            throws IOException
+        {
+            return ch.tryLock(position, size, shared);
+        }
+
+        protected void implCloseChannel() throws IOException {
+            try {
+                ch.close();
+            } finally {
+                invalidate(path);
+            }
+        }
+    }
+}
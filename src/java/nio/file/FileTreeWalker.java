@@ -29,8 +29,12 @@ import java.nio.file.attribute.BasicFileAttributes;
 import java.io.Closeable;
 import java.io.IOException;
 import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Iterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
 import sun.nio.fs.BasicFileAttributesHolder;
 
 /**
@@ -51,6 +55,13 @@ import sun.nio.fs.BasicFileAttributesHolder;
  *     }
  * }</pre>
  *
+ * <p> If the {@link FileVisitOption#PARALLEL PARALLEL} option is given,
+ * directories are read, and the attributes of their entries obtained, by
+ * {@link Listing} tasks that run ahead of the walk in a fork/join pool.  The
+ * events are still generated by the thread that calls {@code next}, but each
+ * directory's entries and their attributes are a snapshot taken when the
+ * listing ran, so changes made to the tree during the walk may not be seen.
+ *
  * @see Files#walkFileTree
  */
 
@@ -58,9 +69,28 @@ class FileTreeWalker implements Closeable {
     private final boolean followLinks;
     private final LinkOption[] linkOptions;
     private final int maxDepth;
+    private final boolean parallel;
     private final ArrayDeque<DirectoryNode> stack = new ArrayDeque<>();
     private boolean closed;
 
+    /**
+     * The number of listings that have been started ahead of the walk and
+     * not yet reached or discarded by it; at most MAX_PENDING.
+     */
+    private final AtomicInteger pending = new AtomicInteger();
+    private static final int MAX_PENDING = 4 * ListingPool.PARALLELISM;
+
+    /**
+     * Holds the pool in which listings run, created on first use.  Reading
+     * directories is mostly waiting for I/O, so the pool has more threads
+     * than there are processors.
+     */
+    private static class ListingPool {
+        static final int PARALLELISM =
+            Math.max(4, 2 * Runtime.getRuntime().availableProcessors());
+        static final ForkJoinPool POOL = new ForkJoinPool(PARALLELISM);
+    }
+
     /**
      * The element on the walking stack corresponding to a directory node.
      */
@@ -69,6 +99,8 @@ class FileTreeWalker implements Closeable {
         private final Object key;
         private final DirectoryStream<Path> stream;
         private final Iterator<Path> iterator;
+        private final Listing listing;
+        private int index;
         private boolean skipped;
 
         DirectoryNode(Path dir, Object key, DirectoryStream<Path> stream) {
@@ -76,6 +108,15 @@ class FileTreeWalker implements Closeable {
             this.key = key;
             this.stream = stream;
             this.iterator = stream.iterator();
+            this.listing = null;
+        }
+
+        DirectoryNode(Path dir, Object key, Listing listing) {
+            this.dir = dir;
+            this.key = key;
+            this.stream = null;
+            this.iterator = null;
+            this.listing = listing;
         }
 
         Path directory() {
@@ -94,6 +135,33 @@ class FileTreeWalker implements Closeable {
             return iterator;
         }
 
+        /**
+         * Returns the listing of the directory, or {@code null} if the
+         * directory is read through {@code stream()}.
+         */
+        Listing listing() {
+            return listing;
+        }
+
+        /**
+         * Returns the index in the listing of the next entry, and advances it.
+         */
+        int nextIndex() {
+            return index++;
+        }
+
+        /**
+         * Closes the directory stream, or discards the listings started for
+         * the entries that have not been visited.
+         */
+        void close() throws IOException {
+            if (stream != null) {
+                stream.close();
+            } else {
+                listing.discardChildren();
+            }
+        }
+
         void skip() {
             skipped = true;
         }
@@ -176,10 +244,12 @@ class FileTreeWalker implements Closeable {
      */
     FileTreeWalker(Collection<FileVisitOption> options, int maxDepth) {
         boolean fl = false;
+        boolean par = false;
         for (FileVisitOption option: options) {
             // will throw NPE if options contains null
             switch (option) {
                 case FOLLOW_LINKS : fl = true; break;
+                case PARALLEL : par = true; break;
                 default:
                     throw new AssertionError("Should not get here");
             }
@@ -191,6 +261,10 @@ class FileTreeWalker implements Closeable {
         this.linkOptions = (fl) ? new LinkOption[0] :
             new LinkOption[] { LinkOption.NOFOLLOW_LINKS };
         this.maxDepth = maxDepth;
+
+        // listings run in pool threads, without the caller's access control
+        // context, so the walk is sequential when there is a security manager
+        this.parallel = par && System.getSecurityManager() == null;
     }
 
     /**
@@ -234,29 +308,33 @@ class FileTreeWalker implements Closeable {
      * file system loop/cycle.
      */
     private boolean wouldLoop(Path dir, Object key) {
-        // if this directory and ancestor has a file key then we compare
-        // them; otherwise we use less efficient isSameFile test.
         for (DirectoryNode ancestor: stack) {
-            Object ancestorKey = ancestor.key();
-            if (key != null && ancestorKey != null) {
-                if (key.equals(ancestorKey)) {
-                    // cycle detected
-                    return true;
-                }
-            } else {
-                try {
-                    if (Files.isSameFile(dir, ancestor.directory())) {
-                        // cycle detected
-                        return true;
-                    }
-                } catch (IOException | SecurityException x) {
-                    // ignore
-                }
+            if (isSameDirectory(dir, key, ancestor.directory(), ancestor.key())) {
+                // cycle detected
+                return true;
             }
         }
         return false;
     }
 
+    /**
+     * Returns true if the given directory is the given ancestor.
+     */
+    private static boolean isSameDirectory(Path dir, Object key,
+                                           Path ancestor, Object ancestorKey)
+    {
+        // if this directory and ancestor has a file key then we compare
+        // them; otherwise we use less efficient isSameFile test.
+        if (key != null && ancestorKey != null)
+            return key.equals(ancestorKey);
+        try {
+            return Files.isSameFile(dir, ancestor);
+        } catch (IOException | SecurityException x) {
+            // ignore
+            return false;
+        }
+    }
+
     /**
      * Visits the given file, returning the {@code Event} corresponding to that
      * visit.
@@ -294,6 +372,14 @@ class FileTreeWalker implements Closeable {
                              new FileSystemLoopException(entry.toString()));
         }
 
+        // file is a directory; when walking in parallel, read it now, which
+        // starts the listings of its subdirectories
+        if (parallel) {
+            Listing listing = new Listing(entry, attrs.fileKey(), null, 1);
+            listing.invoke();
+            return start(entry, attrs, listing);
+        }
+
         // file is a directory, attempt to open it
         DirectoryStream<Path> stream = null;
         try {
@@ -311,6 +397,233 @@ class FileTreeWalker implements Closeable {
         return new Event(EventType.START_DIRECTORY, entry, attrs);
     }
 
+    /**
+     * Visits the entry at the given index of the listing of the directory at
+     * the top of the stack, returning the {@code Event} corresponding to
+     * that visit.  This is the counterpart of {@link #visit(Path, boolean,
+     * boolean) visit} for a parallel walk, with the attributes of the entry,
+     * and the listing of the entry if it is a directory, obtained ahead of
+     * time.
+     */
+    private Event visit(Listing parent, int i) {
+        Path entry = parent.entry(i);
+        Object result = parent.result(i);
+        if (result instanceof IOException)
+            return new Event(EventType.ENTRY, entry, (IOException)result);
+        BasicFileAttributes attrs = (BasicFileAttributes)result;
+
+        // at maximum depth or file is not a directory
+        int depth = stack.size();
+        if (depth >= maxDepth || !attrs.isDirectory()) {
+            return new Event(EventType.ENTRY, entry, attrs);
+        }
+
+        // check for cycles when following links
+        if (followLinks && wouldLoop(entry, attrs.fileKey())) {
+            return new Event(EventType.ENTRY, entry,
+                             new FileSystemLoopException(entry.toString()));
+        }
+
+        // use the listing started ahead of the walk, if there is one
+        Listing listing = parent.takeChild(i);
+        if (listing != null) {
+            pending.decrementAndGet();
+            listing.join();
+        } else {
+            listing = new Listing(entry, attrs.fileKey(), parent, depth + 1);
+            listing.invoke();
+        }
+        return start(entry, attrs, listing);
+    }
+
+    /**
+     * Pushes a directory node for the given listing to the stack, returning
+     * the {@code START_DIRECTORY} event, or the {@code ENTRY} event with the
+     * exception if the directory could not be opened.
+     */
+    private Event start(Path dir, BasicFileAttributes attrs, Listing listing) {
+        IOException ioe = listing.openException();
+        if (ioe != null) {
+            listing.discardChildren();
+            return new Event(EventType.ENTRY, dir, ioe);
+        }
+        stack.push(new DirectoryNode(dir, attrs.fileKey(), listing));
+        return new Event(EventType.START_DIRECTORY, dir, attrs);
+    }
+
+    /**
+     * Reads a directory of a parallel walk: the entries of the directory,
+     * their attributes, or the exceptions thrown reading them, and any
+     * exception thrown opening, iterating or closing the directory.  Once
+     * the directory is read, listings are started for those entries that
+     * the walk would open, up to a total of MAX_PENDING outstanding for the
+     * walk; the walk reads any other directory itself when it reaches it.
+     */
+    private final class Listing extends RecursiveAction {
+        private static final long serialVersionUID = 0L;
+
+        private final Path dir;
+        private final Object key;
+        private final Listing parent;
+        private final int depth;    // the depth of the entries
+
+        private Path[] entries;
+        private Object[] results;   // BasicFileAttributes or IOException
+        private IOException openException;
+        private IOException endException;
+
+        // the listings started for the entries; guarded by this
+        private Listing[] children;
+        private boolean discarded;
+
+        Listing(Path dir, Object key, Listing parent, int depth) {
+            this.dir = dir;
+            this.key = key;
+            this.parent = parent;
+            this.depth = depth;
+        }
+
+        Path entry(int i) {
+            return entries[i];
+        }
+
+        Object result(int i) {
+            return results[i];
+        }
+
+        int size() {
+            return (entries == null) ? 0 : entries.length;
+        }
+
+        IOException openException() {
+            return openException;
+        }
+
+        IOException endException() {
+            return endException;
+        }
+
+        @Override
+        protected void compute() {
+            DirectoryStream<Path> stream;
+            try {
+                stream = Files.newDirectoryStream(dir);
+            } catch (IOException ioe) {
+                openException = ioe;
+                return;
+            }
+            ArrayList<Path> files = new ArrayList<>();
+            ArrayList<Object> attrs = new ArrayList<>();
+            IOException ioe = null;
+            try {
+                for (Path entry: stream) {
+                    files.add(entry);
+                    try {
+                        attrs.add(getAttributes(entry, true));
+                    } catch (IOException x) {
+                        attrs.add(x);
+                    }
+                }
+            } catch (DirectoryIteratorException x) {
+                ioe = x.getCause();
+            }
+            try {
+                stream.close();
+            } catch (IOException e) {
+                if (ioe == null) {
+                    ioe = e;
+                } else {
+                    ioe.addSuppressed(e);
+                }
+            }
+            entries = files.toArray(new Path[files.size()]);
+            results = attrs.toArray();
+            endException = ioe;
+            if (depth < maxDepth)
+                startChildren();
+        }
+
+        // Starts listings of the subdirectories, as the budget allows
+        private synchronized void startChildren() {
+            if (discarded)
+                return;
+            for (int i = 0; i < results.length; i++) {
+                Object r = results[i];
+                if (!(r instanceof BasicFileAttributes)
+                        || !((BasicFileAttributes)r).isDirectory())
+                    continue;
+                Object childKey = ((BasicFileAttributes)r).fileKey();
+                if (followLinks && isAncestor(entries[i], childKey))
+                    continue;
+                if (!reserve())
+                    return;
+                if (children == null)
+                    children = new Listing[results.length];
+                Listing child = new Listing(entries[i], childKey, this, depth + 1);
+                children[i] = child;
+                ListingPool.POOL.execute(child);
+            }
+        }
+
+        // Returns true if the given entry is this directory or one of its
+        // ancestors, so that walking into it would result in a loop/cycle
+        private boolean isAncestor(Path child, Object childKey) {
+            for (Listing l = this; l != null; l = l.parent) {
+                if (isSameDirectory(child, childKey, l.dir, l.key))
+                    return true;
+            }
+            return false;
+        }
+
+        /**
+         * Removes and returns the listing started for the entry at the given
+         * index, or returns {@code null} if there is none.
+         */
+        synchronized Listing takeChild(int i) {
+            if (children == null)
+                return null;
+            Listing child = children[i];
+            children[i] = null;
+            return child;
+        }
+
+        /**
+         * Discards the listings started for the entries, and any that they
+         * start in turn.
+         */
+        void discardChildren() {
+            Listing[] c;
+            synchronized (this) {
+                discarded = true;
+                c = children;
+                children = null;
+            }
+            if (c != null) {
+                for (Listing child: c) {
+                    if (child != null) {
+                        pending.decrementAndGet();
+                        child.cancel(false);
+                        child.discardChildren();
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Reserves a listing to be started ahead of the walk, returning false if
+     * MAX_PENDING are already outstanding.
+     */
+    private boolean reserve() {
+        for (;;) {
+            int n = pending.get();
+            if (n >= MAX_PENDING)
+                return false;
+            if (pending.compareAndSet(n, n + 1))
+                return true;
+        }
+    }
+
 
     /**
      * Start walking from the given file.
@@ -335,6 +648,9 @@ class FileTreeWalker implements Closeable {
         if (top == null)
             return null;      // stack is empty, we are done
 
+        if (top.listing() != null)
+            return nextListed(top);
+
         // continue iteration of the directory at the top of the stack
         Event ev;
         do {
@@ -378,6 +694,23 @@ class FileTreeWalker implements Closeable {
         return ev;
     }
 
+    /**
+     * Returns the next Event for the directory at the top of the stack, when
+     * it is read by a listing.
+     */
+    private Event nextListed(DirectoryNode top) {
+        Listing listing = top.listing();
+        if (!top.skipped()) {
+            int i = top.nextIndex();
+            if (i < listing.size())
+                return visit(listing, i);
+        }
+        listing.discardChildren();
+        stack.pop();
+        return new Event(EventType.END_DIRECTORY, top.directory(),
+                         listing.endException());
+    }
+
     /**
      * Pops the directory node that is the current top of the stack so that
      * there are no more events for the directory (including no END_DIRECTORY)
@@ -388,7 +721,7 @@ class FileTreeWalker implements Closeable {
         if (!stack.isEmpty()) {
             DirectoryNode node = stack.pop();
             try {
-                node.stream().close();
+                node.close();
             } catch (IOException ignore) { }
         }
     }
@@ -37,5 +37,24 @@ public enum FileVisitOption {
     /**
      * Follow symbolic links.
      */
-    FOLLOW_LINKS;
+    FOLLOW_LINKS,
+
+    /**
+     * Read directories in parallel.  Directories are read, and the
+     * attributes of their entries obtained, by background threads ahead of
+     * the traversal, which speeds up the traversal of large file trees on
+     * file systems that can serve several requests at once.  Files are
+     * still visited by the thread that traverses the tree, in the order in
+     * which each directory's entries were read.
+     *
+     * <p> The entries of a directory, and their attributes, are a snapshot
+     * taken when the directory was read, which may be well before its
+     * entries are visited.  If the file tree is modified during the
+     * traversal, by the visitor or by another program, the traversal may
+     * see a different set of files, or different attributes, than it would
+     * without this option.
+     *
+     * @since 1.8
+     */
+    PARALLEL;
 }
@@ -76,6 +76,7 @@ import java.util.Spliterators;
 import java.util.function.BiPredicate;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
+import sun.nio.fs.FileAttributeCache;
 
 /**
  * This class consists exclusively of static methods that operate on files,
@@ -97,6 +98,15 @@ public final class Files {
         return path.getFileSystem().provider();
     }
 
+    /**
+     * Removes a file from the attribute cache, after an operation that may
+     * have created, changed or removed it.
+     */
+    private static void invalidate(Path path) {
+        if (FileAttributeCache.isEnabled())
+            FileAttributeCache.invalidate(path);
+    }
+
     /**
      * Convert a Closeable to a Runnable by converting checked IOException
      * to UncheckedIOException
@@ -213,7 +223,9 @@ public final class Files {
     public static OutputStream newOutputStream(Path path, OpenOption... options)
         throws IOException
     {
-        return provider(path).newOutputStream(path, options);
+        OutputStream out = provider(path).newOutputStream(path, options);
+        invalidate(path);
+        return CloseInvalidator.wrap(path, out);
     }
 
     /**
@@ -358,7 +370,13 @@ public final class Files {
                                                      FileAttribute<?>... attrs)
         throws IOException
     {
-        return provider(path).newByteChannel(path, options, attrs);
+        SeekableByteChannel sbc = provider(path).newByteChannel(path, options, attrs);
+        if (options.contains(StandardOpenOption.WRITE) ||
+            options.contains(StandardOpenOption.APPEND)) {
+            invalidate(path);
+            sbc = CloseInvalidator.wrap(path, sbc);
+        }
+        return sbc;
     }
 
     /**
@@ -672,6 +690,7 @@ public final class Files {
         throws IOException
     {
         provider(dir).createDirectory(dir, attrs);
+        invalidate(dir);
         return dir;
     }
 
@@ -1041,6 +1060,7 @@ public final class Files {
         throws IOException
     {
         provider(link).createSymbolicLink(link, target, attrs);
+        invalidate(link);
         return link;
     }
 
@@ -1084,6 +1104,7 @@ public final class Files {
      */
     public static Path createLink(Path link, Path existing) throws IOException {
         provider(link).createLink(link, existing);
+        invalidate(link);
         return link;
     }
 
@@ -1124,6 +1145,7 @@ public final class Files {
      */
     public static void delete(Path path) throws IOException {
         provider(path).delete(path);
+        invalidate(path);
     }
 
     /**
@@ -1162,7 +1184,9 @@ public final class Files {
      *          is invoked to check delete access to the file.
      */
     public static boolean deleteIfExists(Path path) throws IOException {
-        return provider(path).deleteIfExists(path);
+        boolean deleted = provider(path).deleteIfExists(path);
+        invalidate(path);
+        return deleted;
     }
 
     // -- Copying and moving files --
@@ -1276,6 +1300,7 @@ public final class Files {
             // different providers
             CopyMoveHelper.copyToForeignTarget(source, target, options);
         }
+        invalidate(target);
         return target;
     }
 
@@ -1397,6 +1422,8 @@ public final class Files {
             // different providers
             CopyMoveHelper.moveToForeignTarget(source, target, options);
         }
+        invalidate(source);
+        invalidate(target);
         return target;
     }
 
@@ -1734,6 +1761,9 @@ public final class Files {
                                                                    LinkOption... options)
         throws IOException
     {
+        if (type == BasicFileAttributes.class && options.length == 0 &&
+            FileAttributeCache.isCacheable(path))
+            return type.cast(FileAttributeCache.readAttributes(path));
         return provider(path).readAttributes(path, type, options);
     }
 
@@ -1803,6 +1833,7 @@ public final class Files {
         throws IOException
     {
         provider(path).setAttribute(path, attribute, value, options);
+        invalidate(path);
         return path;
     }
 
@@ -2304,6 +2335,7 @@ public final class Files {
     {
         getFileAttributeView(path, BasicFileAttributeView.class)
             .setTimes(time, null, null);
+        invalidate(path);
         return path;
     }
 
@@ -2611,6 +2643,21 @@ public final class Files {
      * {@link FileVisitor#visitFileFailed visitFileFailed} method is invoked with
      * an instance of {@link FileSystemLoopException}.
      *
+     * <p> If the {@code options} parameter contains the {@link
+     * FileVisitOption#PARALLEL PARALLEL} option then directories are read,
+     * and the attributes of their entries obtained, by background threads
+     * ahead of the traversal. The visitor is still invoked by the thread
+     * that invoked this method. The entries of each directory, and their
+     * attributes, are a snapshot taken when the directory was read, which
+     * may be well before they are visited. If the file tree is not modified
+     * during the traversal then the files visited, and their order, are the
+     * same as without the option; if the visitor or another program
+     * modifies the tree then the traversal may not observe its changes. A
+     * directory for which {@code preVisitDirectory} returns {@link
+     * FileVisitResult#SKIP_SUBTREE SKIP_SUBTREE} may already have been read,
+     * but its entries are not visited. When a security manager is installed
+     * the option is ignored.
+     *
      * <p> The {@code maxDepth} parameter is the maximum number of levels of
      * directories to visit. A value of {@code 0} means that only the starting
      * file is visited, unless denied by the security manager. A value of
@@ -3023,9 +3070,12 @@ public final class Files {
         }
 
         // do the copy
+        long n;
         try (OutputStream out = ostream) {
-            return copy(in, out);
+            n = copy(in, out);
         }
+        invalidate(target);
+        return n;
     }
 
     /**
@@ -3298,6 +3348,7 @@ public final class Files {
                 rem -= n;
             }
         }
+        invalidate(path);
         return path;
     }
 
@@ -3355,6 +3406,7 @@ public final class Files {
                 writer.newLine();
             }
         }
+        invalidate(path);
         return path;
     }
 
@@ -3525,6 +3577,16 @@ public final class Files {
      * ancestor. When a cycle is detected it is treated as an I/O error with
      * an instance of {@link FileSystemLoopException}.
      *
+     * <p> If the {@code options} parameter contains the {@link
+     * FileVisitOption#PARALLEL PARALLEL} option then directories are read,
+     * and the attributes of their entries obtained, by background threads
+     * ahead of the stream. The entries of each directory are a snapshot
+     * taken when the directory was read, which may be well before they
+     * are reached by the stream. If the file tree is not modified while the
+     * stream is consumed then its elements, and their order, are the same
+     * as without the option; otherwise the stream may not reflect the
+     * changes.
+     *
      * <p> The {@code maxDepth} parameter is the maximum number of levels of
      * directories to visit. A value of {@code 0} means that only the starting
      * file is visited, unless denied by the security manager. A value of
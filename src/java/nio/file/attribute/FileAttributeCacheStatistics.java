@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2013, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.nio.file.attribute;
+
+import sun.nio.fs.FileAttributeCache;
+
+/**
+ * Statistics of the cache of basic file attributes shared by {@link
+ * java.io.File} and {@link java.nio.file.Files}.
+ *
+ * <p>The cache holds the {@link BasicFileAttributes} of files of the
+ * default file system, so that a program that tests the same files many
+ * times, for example with {@link java.io.File#isFile File.isFile} and
+ * {@link java.io.File#lastModified File.lastModified}, or with {@link
+ * java.nio.file.Files#readAttributes(java.nio.file.Path,Class,
+ * java.nio.file.LinkOption[]) Files.readAttributes} for {@code
+ * BasicFileAttributes} and no link options, reads them from the file
+ * system once.  The cache is disabled unless the system property {@code
+ * sun.nio.fs.attributeCacheTimeout} is set to the number of milliseconds
+ * for which an entry remains valid, and while a security manager is
+ * installed.
+ *
+ * <p>An entry is removed when {@code File} or {@code Files} changes the
+ * file, or a directory above it, through the same path.  Changes made by
+ * other means, including writes to a file that is open, are seen when the
+ * entry expires or, if the directory of the file is registered with the
+ * file system's {@link java.nio.file.WatchService WatchService}, when the
+ * change is reported.  Directories are registered unless the system
+ * property {@code sun.nio.fs.attributeCacheWatch} is {@code false}, up to
+ * the number given by the system property {@code
+ * sun.nio.fs.attributeCacheWatchLimit}, 256 by default.  The system
+ * property {@code sun.nio.fs.attributeCacheSize} bounds the number of
+ * entries, 10000 by default.
+ *
+ * <p>Entries are keyed by path, so the entry of a file reached through a
+ * symbolic link, or another hard link, is not removed when the file is
+ * changed through another of its paths; such changes are only seen when
+ * the entry expires or a watch event for its directory is reported.
+ *
+ * <p>The counts are totals since the virtual machine started.
+ *
+ * @since 1.8
+ */
+public final class FileAttributeCacheStatistics {
+
+    private FileAttributeCacheStatistics() {}
+
+    /**
+     * Tells whether the cache is enabled.
+     *
+     * @return {@code true} if file attributes are cached
+     */
+    public static boolean isEnabled() {
+        return FileAttributeCache.isEnabled();
+    }
+
+    /**
+     * Returns the number of times the attributes of a file were found in
+     * the cache.
+     *
+     * @return the number of cache hits
+     */
+    public static long hitCount() {
+        return FileAttributeCache.hitCount();
+    }
+
+    /**
+     * Returns the number of times the attributes of a file were read from
+     * the file system because they were not in the cache, or had expired.
+     *
+     * @return the number of cache misses
+     */
+    public static long missCount() {
+        return FileAttributeCache.missCount();
+    }
+
+    /**
+     * Returns the number of entries removed from the cache because the
+     * file was, or may have been, changed.
+     *
+     * @return the number of invalidated entries
+     */
+    public static long invalidationCount() {
+        return FileAttributeCache.invalidationCount();
+    }
+
+    /**
+     * Returns the number of files whose attributes are currently cached.
+     *
+     * @return the number of entries in the cache
+     */
+    public static int size() {
+        return FileAttributeCache.size();
+    }
+}
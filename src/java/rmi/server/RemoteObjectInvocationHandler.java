@@ -34,9 +34,8 @@ import java.rmi.UnexpectedException;
 import java.rmi.activation.Activatable;
 import java.security.PrivilegedAction;
 import java.util.Map;
-import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
 import sun.rmi.server.Util;
-import sun.rmi.server.WeakClassHashMap;
 
 /**
  * An implementation of the <code>InvocationHandler</code> interface for
@@ -78,8 +77,8 @@ public class RemoteObjectInvocationHandler
     }
 
     /**
-     * A weak hash map, mapping classes to weak hash maps that map
-     * method objects to method hashes.
+     * A class value, mapping classes to maps that map method objects to
+     * method hashes.
      **/
     private static final MethodToHash_Maps methodToHash_Maps =
         new MethodToHash_Maps();
@@ -295,30 +294,28 @@ public class RemoteObjectInvocationHandler
      * @return the method hash for the specified method
      */
     private static long getMethodHash(Method method) {
-        return methodToHash_Maps.get(method.getDeclaringClass()).get(method);
+        Map<Method,Long> map = methodToHash_Maps.get(method.getDeclaringClass());
+        // computeIfAbsent locks the bin even if the key is present
+        Long hash = map.get(method);
+        if (hash == null) {
+            hash = map.computeIfAbsent(method, Util::computeMethodHash);
+        }
+        return hash;
     }
 
     /**
-     * A weak hash map, mapping classes to weak hash maps that map
-     * method objects to method hashes.
+     * A class value, mapping classes to maps that map method objects to
+     * method hashes.  Each map is held by the class declaring its methods,
+     * so it does not keep the class loader alive, and is read without
+     * locking on every remote call.
      **/
     private static class MethodToHash_Maps
-        extends WeakClassHashMap<Map<Method,Long>>
+        extends ClassValue<Map<Method,Long>>
     {
         MethodToHash_Maps() {}
 
         protected Map<Method,Long> computeValue(Class<?> remoteClass) {
-            return new WeakHashMap<Method,Long>() {
-                public synchronized Long get(Object key) {
-                    Long hash = super.get(key);
-                    if (hash == null) {
-                        Method method = (Method) key;
-                        hash = Util.computeMethodHash(method);
-                        put(method, hash);
-                    }
-                    return hash;
-                }
-            };
+            return new ConcurrentHashMap<>();
         }
     }
 }
@@ -999,16 +999,17 @@ public class Arrays {
      */
     @SuppressWarnings("unchecked")
     public static <T extends Comparable<? super T>> void parallelSort(T[] a) {
-        int n = a.length, p, g;
-        if (n <= MIN_ARRAY_SORT_GRAN ||
-            (p = ForkJoinPool.getCommonPoolParallelism()) == 1)
+        int n = a.length, p, g, m;
+        if ((p = ForkJoinPool.getCommonPoolParallelism()) == 1 ||
+            n <= (m = ArraysParallelSortHelpers.FJObject.granularity
+                  (a, 0, n, NaturalOrder.INSTANCE, MIN_ARRAY_SORT_GRAN)))
             TimSort.sort(a, 0, n, NaturalOrder.INSTANCE, null, 0, 0);
         else
             new ArraysParallelSortHelpers.FJObject.Sorter<T>
                 (null, a,
                  (T[])Array.newInstance(a.getClass().getComponentType(), n),
-                 0, n, 0, ((g = n / (p << 2)) <= MIN_ARRAY_SORT_GRAN) ?
-                 MIN_ARRAY_SORT_GRAN : g, NaturalOrder.INSTANCE).invoke();
+                 0, n, 0, ((g = n / (p << 2)) <= m) ?
+                 m : g, NaturalOrder.INSTANCE).invoke();
     }
 
     /**
@@ -1058,16 +1059,17 @@ public class Arrays {
     public static <T extends Comparable<? super T>>
     void parallelSort(T[] a, int fromIndex, int toIndex) {
         rangeCheck(a.length, fromIndex, toIndex);
-        int n = toIndex - fromIndex, p, g;
-        if (n <= MIN_ARRAY_SORT_GRAN ||
-            (p = ForkJoinPool.getCommonPoolParallelism()) == 1)
+        int n = toIndex - fromIndex, p, g, m;
+        if ((p = ForkJoinPool.getCommonPoolParallelism()) == 1 ||
+            n <= (m = ArraysParallelSortHelpers.FJObject.granularity
+                  (a, fromIndex, n, NaturalOrder.INSTANCE, MIN_ARRAY_SORT_GRAN)))
             TimSort.sort(a, fromIndex, toIndex, NaturalOrder.INSTANCE, null, 0, 0);
         else
             new ArraysParallelSortHelpers.FJObject.Sorter<T>
                 (null, a,
                  (T[])Array.newInstance(a.getClass().getComponentType(), n),
-                 fromIndex, n, 0, ((g = n / (p << 2)) <= MIN_ARRAY_SORT_GRAN) ?
-                 MIN_ARRAY_SORT_GRAN : g, NaturalOrder.INSTANCE).invoke();
+                 fromIndex, n, 0, ((g = n / (p << 2)) <= m) ?
+                 m : g, NaturalOrder.INSTANCE).invoke();
     }
 
     /**
@@ -1107,16 +1109,17 @@ public class Arrays {
     public static <T> void parallelSort(T[] a, Comparator<? super T> cmp) {
         if (cmp == null)
             cmp = NaturalOrder.INSTANCE;
-        int n = a.length, p, g;
-        if (n <= MIN_ARRAY_SORT_GRAN ||
-            (p = ForkJoinPool.getCommonPoolParallelism()) == 1)
+        int n = a.length, p, g, m;
+        if ((p = ForkJoinPool.getCommonPoolParallelism()) == 1 ||
+            n <= (m = ArraysParallelSortHelpers.FJObject.granularity
+                  (a, 0, n, cmp, MIN_ARRAY_SORT_GRAN)))
             TimSort.sort(a, 0, n, cmp, null, 0, 0);
         else
             new ArraysParallelSortHelpers.FJObject.Sorter<T>
                 (null, a,
                  (T[])Array.newInstance(a.getClass().getComponentType(), n),
-                 0, n, 0, ((g = n / (p << 2)) <= MIN_ARRAY_SORT_GRAN) ?
-                 MIN_ARRAY_SORT_GRAN : g, cmp).invoke();
+                 0, n, 0, ((g = n / (p << 2)) <= m) ?
+                 m : g, cmp).invoke();
     }
 
     /**
@@ -1168,16 +1171,17 @@ public class Arrays {
         rangeCheck(a.length, fromIndex, toIndex);
         if (cmp == null)
             cmp = NaturalOrder.INSTANCE;
-        int n = toIndex - fromIndex, p, g;
-        if (n <= MIN_ARRAY_SORT_GRAN ||
-            (p = ForkJoinPool.getCommonPoolParallelism()) == 1)
+        int n = toIndex - fromIndex, p, g, m;
+        if ((p = ForkJoinPool.getCommonPoolParallelism()) == 1 ||
+            n <= (m = ArraysParallelSortHelpers.FJObject.granularity
+                  (a, fromIndex, n, cmp, MIN_ARRAY_SORT_GRAN)))
             TimSort.sort(a, fromIndex, toIndex, cmp, null, 0, 0);
         else
             new ArraysParallelSortHelpers.FJObject.Sorter<T>
                 (null, a,
                  (T[])Array.newInstance(a.getClass().getComponentType(), n),
-                 fromIndex, n, 0, ((g = n / (p << 2)) <= MIN_ARRAY_SORT_GRAN) ?
-                 MIN_ARRAY_SORT_GRAN : g, cmp).invoke();
+                 fromIndex, n, 0, ((g = n / (p << 2)) <= m) ?
+                 m : g, cmp).invoke();
     }
 
     /*
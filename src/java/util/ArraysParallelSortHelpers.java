@@ -110,6 +110,131 @@ import java.util.concurrent.CountedCompleter;
 
     /** Object + Comparator support class */
     static final class FJObject {
+        /**
+         * The smallest granularity used for sorts whose comparisons are
+         * expensive.
+         */
+        static final int MIN_OBJECT_SORT_GRAN = 1 << 8;
+
+        /** The number of elements sorted to estimate comparison cost */
+        static final int SORT_PROBE_SIZE = 1 << 7;
+
+        /**
+         * The smallest array for which the comparison cost is estimated,
+         * so that the probe sort adds only a few percent to the sort.
+         */
+        static final int MIN_PROBED_SORT_SIZE = SORT_PROBE_SIZE << 4;
+
+        /** The minimum time, in nanoseconds, a leaf sort should take */
+        static final long MIN_LEAF_SORT_NANOS = 500_000L;
+
+        /**
+         * The shortest probe sort, in nanoseconds, that measures the cost of
+         * a comparison; a shorter one is dominated by the resolution of the
+         * clock, and shows that comparisons are cheap.
+         */
+        static final long MIN_PROBE_NANOS = 20_000L;
+
+        /**
+         * The number of probe sorts made for each class of comparator, or
+         * of array for sorts in natural order
+         */
+        static final int MAX_PROBES = 4;
+
+        /** The measured comparison costs, by class of comparator or array */
+        static final ClassValue<ComparisonCost> COSTS =
+            new ClassValue<ComparisonCost>() {
+                protected ComparisonCost computeValue(Class<?> type) {
+                    return new ComparisonCost();
+                }
+            };
+
+        /**
+         * The cost of the comparisons of a class of comparator: the least
+         * time per comparison measured by its first MAX_PROBES probe sorts,
+         * as a probe may be slowed down by compilation, preemption or
+         * garbage collection but not sped up.
+         */
+        static final class ComparisonCost {
+            int probes;
+            double nanosPerCompare = Double.MAX_VALUE;
+        }
+
+        /**
+         * Returns the granularity for sorting n elements of a from base,
+         * at most the given fixed granularity.  Unlike primitive sorts, the
+         * cost of a comparison depends on the comparator, so the first
+         * sorts with each class of comparator, or for natural ordering
+         * with each class of array, sort a copy of SORT_PROBE_SIZE evenly
+         * spaced elements to measure it.  Starting from
+         * MIN_OBJECT_SORT_GRAN, the granularity is then doubled until
+         * a leaf sort of that many elements, taking about g * log2(g)
+         * comparisons, would take at least MIN_LEAF_SORT_NANOS, or until it
+         * reaches the fixed granularity.  Cheap comparisons thus keep the
+         * fixed granularity, as do probes too short to measure, while
+         * expensive ones sort smaller arrays in parallel and split larger
+         * ones more finely.
+         */
+        static <T> int granularity(T[] a, int base, int n,
+                                   Comparator<? super T> c, int gran) {
+            if (n < MIN_PROBED_SORT_SIZE)
+                return gran;
+            // The cost of natural ordering depends on the class of elements
+            ComparisonCost cost = COSTS.get((c == Arrays.NaturalOrder.INSTANCE)
+                                            ? a.getClass().getComponentType()
+                                            : c.getClass());
+            synchronized (cost) {
+                if (cost.probes >= MAX_PROBES)
+                    return granularity(cost.nanosPerCompare, gran);
+            }
+            Object[] probe = new Object[SORT_PROBE_SIZE];
+            int step = n / SORT_PROBE_SIZE;
+            for (int i = 0; i < SORT_PROBE_SIZE; ++i)
+                probe[i] = a[base + i * step];
+            @SuppressWarnings("unchecked")
+            CountingComparator<T> cc =
+                new CountingComparator<T>((Comparator<Object>) c);
+            long start = System.nanoTime();
+            TimSort.sort(probe, 0, SORT_PROBE_SIZE, cc, null, 0, 0);
+            long nanos = System.nanoTime() - start;
+            double measured = (nanos < MIN_PROBE_NANOS) ? 0.0 :
+                (double) nanos / Math.max(1, cc.count);
+            double nanosPerCompare;
+            synchronized (cost) {
+                if (measured < cost.nanosPerCompare)
+                    cost.nanosPerCompare = measured;
+                cost.probes++;
+                nanosPerCompare = cost.nanosPerCompare;
+            }
+            return granularity(nanosPerCompare, gran);
+        }
+
+        /**
+         * Returns the granularity for comparisons taking the given time,
+         * at most the given fixed granularity.
+         */
+        static int granularity(double nanosPerCompare, int gran) {
+            int g = MIN_OBJECT_SORT_GRAN;
+            while (g < gran &&
+                   (double) g * (31 - Integer.numberOfLeadingZeros(g)) *
+                   nanosPerCompare < MIN_LEAF_SORT_NANOS)
+                g <<= 1;
+            return g;
+        }
+
+        /** A comparator counting the comparisons of the probe sort */
+        static final class CountingComparator<T> implements Comparator<Object> {
+            final Comparator<Object> comparator;
+            int count;
+            CountingComparator(Comparator<Object> comparator) {
+                this.comparator = comparator;
+            }
+            public int compare(Object x, Object y) {
+                ++count;
+                return comparator.compare(x, y);
+            }
+        }
+
         static final class Sorter<T> extends CountedCompleter<Void> {
             static final long serialVersionUID = 2446542900576103244L;
             final T[] a, w;
@@ -148,6 +148,12 @@ abstract class AbstractPipeline<E_IN, E_OUT, S extends BaseStream<E_OUT, S>>
      */
     private boolean parallel;
 
+    /**
+     * True if parallel evaluation adapts the target leaf size to the measured
+     * cost per element; only valid for the source stage.
+     */
+    private boolean adaptiveSplitting;
+
     /**
      * Constructor for the head of a stream pipeline.
      *
@@ -371,6 +377,24 @@ abstract class AbstractPipeline<E_IN, E_OUT, S extends BaseStream<E_OUT, S>>
         return sourceStage.parallel;
     }
 
+    /**
+     * Sets whether parallel evaluation of this pipeline adapts the target
+     * leaf size to the measured cost per element.
+     *
+     * @param adaptive {@code true} to split adaptively
+     * @return this stream
+     */
+    @SuppressWarnings("unchecked")
+    final S adaptiveSplitting(boolean adaptive) {
+        sourceStage.adaptiveSplitting = adaptive;
+        return (S) this;
+    }
+
+    @Override
+    final boolean isAdaptiveSplitting() {
+        return sourceStage.adaptiveSplitting;
+    }
+
 
     /**
      * Returns the composition of stream flags of the stream source and all
@@ -384,6 +408,40 @@ abstract class AbstractPipeline<E_IN, E_OUT, S extends BaseStream<E_OUT, S>>
         return StreamOpFlag.toStreamFlags(combinedFlags);
     }
 
+    /**
+     * Returns a textual description of the pipeline up to and including this
+     * stage, one line per stage, giving the name of the operation, whether it
+     * is stateful, the combined stream flags known after the stage and the
+     * flags cleared by the stage.  For parallel pipelines a stateful
+     * operation is marked as a barrier, since the elements output by the
+     * upstream stages are evaluated, and possibly buffered, before the
+     * downstream stages start.  This method does not consume the pipeline.
+     *
+     * @return a description of the pipeline
+     */
+    final String explain() {
+        boolean parallel = isParallel();
+        StringBuilder sb = new StringBuilder();
+        sb.append(parallel ? "parallel" : "sequential")
+          .append(isAdaptiveSplitting() ? " adaptive" : "")
+          .append(" pipeline, ").append(getOutputShape()).append(" output\n");
+        int prevFlags = 0;
+        int index = 0;
+        for (@SuppressWarnings("rawtypes") AbstractPipeline p = sourceStage; ; p = p.nextStage) {
+            boolean stateful = p != sourceStage && p.opIsStateful();
+            sb.append("  ").append(index++).append(": ")
+              .append(p == sourceStage ? "source" : StreamTrace.opName(p))
+              .append(stateful ? (parallel ? " (stateful, barrier) " : " (stateful) ") : " ")
+              .append(StreamTrace.describeFlags(p.combinedFlags))
+              .append(p == sourceStage ? "" : StreamTrace.describeCleared(prevFlags, p.combinedFlags))
+              .append('\n');
+            prevFlags = p.combinedFlags;
+            if (p == this)
+                break;
+        }
+        return sb.toString();
+    }
+
     /**
      * Get the source spliterator for this pipeline stage.  For a sequential or
      * stateless parallel pipeline, this is the source spliterator.  For a
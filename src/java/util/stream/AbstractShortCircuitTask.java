@@ -112,13 +112,15 @@ abstract class AbstractShortCircuitTask<P_IN, P_OUT, R,
                 break;
             }
             if (sizeEstimate <= sizeThreshold || (ls = rs.trySplit()) == null) {
-                result = task.doLeaf();
+                result = task.computeLeaf(sizeEstimate);
                 break;
             }
             K leftChild, rightChild, taskToFork;
             task.leftChild  = leftChild = task.makeChild(ls);
             task.rightChild = rightChild = task.makeChild(rs);
             task.setPendingCount(1);
+            if (trace != null)
+                trace.split();
             if (forkRight) {
                 forkRight = false;
                 rs = ls;
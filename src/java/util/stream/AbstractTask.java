@@ -96,6 +96,20 @@ abstract class AbstractTask<P_IN, P_OUT, R,
      */
     static final int LEAF_TARGET = ForkJoinPool.getCommonPoolParallelism() << 2;
 
+    /**
+     * Minimum time, in nanoseconds, that a leaf task should take when the
+     * split granularity is adaptive.  Leaves of cheap operations are made
+     * larger so that the cost of splitting and forking is amortized.
+     */
+    static final long MIN_LEAF_NANOS = 100_000L;
+
+    /**
+     * Maximum time, in nanoseconds, that a leaf task should take when the
+     * split granularity is adaptive.  Leaves of expensive operations are
+     * made smaller so that idle workers can help out.
+     */
+    static final long MAX_LEAF_NANOS = 10_000_000L;
+
     /** The pipeline helper, common to all tasks in a computation */
     protected final PipelineHelper<P_OUT> helper;
 
@@ -125,6 +139,18 @@ abstract class AbstractTask<P_IN, P_OUT, R,
     /** The result of this node, if completed */
     private R localResult;
 
+    /**
+     * The recorder of the computation, common to all tasks in a computation,
+     * or null if execution is not being traced
+     */
+    final StreamTrace.Recorder trace;
+
+    /**
+     * The adaptive granularity, common to all tasks in a computation, or
+     * null if the target leaf size is fixed
+     */
+    final Granularity granularity;
+
     /**
      * Constructor for root nodes.
      *
@@ -139,6 +165,8 @@ abstract class AbstractTask<P_IN, P_OUT, R,
         this.helper = helper;
         this.spliterator = spliterator;
         this.targetSize = 0L;
+        this.trace = StreamTrace.ENABLED ? new StreamTrace.Recorder(helper, this) : null;
+        this.granularity = Granularity.forRoot(helper, spliterator);
     }
 
     /**
@@ -154,6 +182,8 @@ abstract class AbstractTask<P_IN, P_OUT, R,
         this.spliterator = spliterator;
         this.helper = parent.helper;
         this.targetSize = parent.targetSize;
+        this.trace = parent.trace;
+        this.granularity = parent.granularity;
     }
 
     /**
@@ -175,6 +205,28 @@ abstract class AbstractTask<P_IN, P_OUT, R,
      */
     protected abstract R doLeaf();
 
+    /**
+     * Computes the result associated with a leaf node via {@code doLeaf()},
+     * recording the computation if execution is being traced.
+     *
+     * @param sizeEstimate the estimated size of this node's spliterator
+     * @return the computed result of a leaf node
+     */
+    final R computeLeaf(long sizeEstimate) {
+        StreamTrace.Recorder t = trace;
+        Granularity g = granularity;
+        if (t == null && g == null)
+            return doLeaf();
+        long start = System.nanoTime();
+        R result = doLeaf();
+        long nanos = System.nanoTime() - start;
+        if (g != null)
+            g.sample(sizeEstimate, nanos);
+        if (t != null)
+            t.leaf(this, sizeEstimate, nanos);
+        return result;
+    }
+
     /**
      * Returns a suggested target leaf size based on the initial size estimate.
      *
@@ -187,12 +239,80 @@ abstract class AbstractTask<P_IN, P_OUT, R,
 
     /**
      * Returns the targetSize, initializing it via the supplied
-     * size estimate if not already initialized.
+     * size estimate if not already initialized.  If the granularity is
+     * adaptive the target size is adjusted to the cost per element measured
+     * by the leaves computed so far.
      */
     protected final long getTargetSize(long sizeEstimate) {
         long s;
-        return ((s = targetSize) != 0 ? s :
-                (targetSize = suggestTargetSize(sizeEstimate)));
+        if ((s = targetSize) == 0)
+            s = targetSize = suggestTargetSize(sizeEstimate);
+        Granularity g = granularity;
+        return (g == null) ? s : g.targetSize(s);
+    }
+
+    /**
+     * The adaptive split granularity of a computation.  Leaf tasks sample
+     * the time taken per element; tasks that start splitting after a sample
+     * is available use a target leaf size for which a leaf takes between
+     * {@link #MIN_LEAF_NANOS} and {@link #MAX_LEAF_NANOS}, in preference to
+     * the size suggested by {@link #suggestTargetSize}.  Since leaf sizes
+     * are estimated from the input to the pipeline the per-element cost
+     * also accounts for elements dropped by filtering operations.
+     */
+    static final class Granularity {
+        private long sampledElements;
+        private long sampledNanos;
+
+        /**
+         * Returns the granularity of a computation, or null if its target
+         * leaf size is fixed: if adaptive splitting was not requested, or
+         * the source does not know its size, in which case the sizes of
+         * its leaves, and so their time per element, are unknown.
+         *
+         * @param helper the pipeline of the computation
+         * @param spliterator the source of the computation
+         * @return the granularity of the computation, or null
+         */
+        static Granularity forRoot(PipelineHelper<?> helper,
+                                   Spliterator<?> spliterator) {
+            return (helper.isAdaptiveSplitting()
+                    && spliterator.hasCharacteristics(Spliterator.SIZED))
+                   ? new Granularity() : null;
+        }
+
+        /** Nanoseconds per element, or zero if nothing has been sampled */
+        private volatile double nanosPerElement;
+
+        /**
+         * Records the time taken by a leaf task.
+         *
+         * @param size the estimated number of elements of the leaf
+         * @param nanos the time taken by the leaf
+         */
+        synchronized void sample(long size, long nanos) {
+            if (size > 0 && nanos > 0) {
+                sampledElements += size;
+                sampledNanos += nanos;
+                nanosPerElement = (double) sampledNanos / sampledElements;
+            }
+        }
+
+        /**
+         * Returns the target leaf size given the suggested target size.
+         *
+         * @param suggested the suggested target leaf size
+         * @return the target leaf size
+         */
+        long targetSize(long suggested) {
+            double c = nanosPerElement;
+            if (c <= 0.0)
+                return suggested;
+            long min = (long) (MIN_LEAF_NANOS / c);
+            long max = (long) (MAX_LEAF_NANOS / c);
+            long s = Math.min(Math.max(suggested, min), max);
+            return s > 0L ? s : 1L;
+        }
     }
 
     /**
@@ -299,6 +419,8 @@ abstract class AbstractTask<P_IN, P_OUT, R,
             task.leftChild  = leftChild = task.makeChild(ls);
             task.rightChild = rightChild = task.makeChild(rs);
             task.setPendingCount(1);
+            if (trace != null)
+                trace.split();
             if (forkRight) {
                 forkRight = false;
                 rs = ls;
@@ -313,7 +435,7 @@ abstract class AbstractTask<P_IN, P_OUT, R,
             taskToFork.fork();
             sizeEstimate = rs.estimateSize();
         }
-        task.setLocalResult(task.doLeaf());
+        task.setLocalResult(task.computeLeaf(sizeEstimate));
         task.tryComplete();
     }
 
@@ -321,7 +443,8 @@ abstract class AbstractTask<P_IN, P_OUT, R,
      * {@inheritDoc}
      *
      * @implNote
-     * Clears spliterator and children fields.  Overriders MUST call
+     * Clears spliterator and children fields, and reports the trace of the
+     * computation when the root completes.  Overriders MUST call
      * {@code super.onCompletion} as the last thing they do if they want these
      * cleared.
      */
@@ -329,6 +452,8 @@ abstract class AbstractTask<P_IN, P_OUT, R,
     public void onCompletion(CountedCompleter<?> caller) {
         spliterator = null;
         leftChild = rightChild = null;
+        if (trace != null && isRoot())
+            trace.report();
     }
 
     /**
@@ -505,8 +505,7 @@ abstract class DoublePipeline<E_IN>
 
     @Override
     public final double[] toArray() {
-        return Nodes.flattenDouble((Node.OfDouble) evaluateToArrayNode(Double[]::new))
-                        .asPrimitiveArray();
+        return Nodes.toDoubleArray((Node.OfDouble) evaluateToArrayNode(Double[]::new));
     }
 
     //
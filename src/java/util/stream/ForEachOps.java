@@ -156,8 +156,12 @@ final class ForEachOps {
                                          Spliterator<S> spliterator) {
             if (ordered)
                 new ForEachOrderedTask<>(helper, spliterator, this).invoke();
-            else
-                new ForEachTask<>(helper, spliterator, helper.wrapSink(this)).invoke();
+            else {
+                ForEachTask<S, T> task = new ForEachTask<>(helper, spliterator, helper.wrapSink(this));
+                task.invoke();
+                if (task.trace != null)
+                    task.trace.report();
+            }
             return null;
         }
 
@@ -256,6 +260,10 @@ final class ForEachOps {
         private final Sink<S> sink;
         private final PipelineHelper<T> helper;
         private long targetSize;
+        private final AbstractTask.Granularity granularity;
+        final StreamTrace.Recorder trace;
+        // Path from the root to the split this task is working on, if traced
+        private String tracePath;
 
         ForEachTask(PipelineHelper<T> helper,
                     Spliterator<S> spliterator,
@@ -265,6 +273,9 @@ final class ForEachOps {
             this.helper = helper;
             this.spliterator = spliterator;
             this.targetSize = 0L;
+            this.granularity = AbstractTask.Granularity.forRoot(helper, spliterator);
+            this.trace = StreamTrace.ENABLED ? new StreamTrace.Recorder(helper, this) : null;
+            this.tracePath = "";
         }
 
         ForEachTask(ForEachTask<S, T> parent, Spliterator<S> spliterator) {
@@ -273,6 +284,8 @@ final class ForEachOps {
             this.sink = parent.sink;
             this.targetSize = parent.targetSize;
             this.helper = parent.helper;
+            this.granularity = parent.granularity;
+            this.trace = parent.trace;
         }
 
         // Similar to AbstractTask but doesn't need to track child tasks
@@ -281,6 +294,10 @@ final class ForEachOps {
             long sizeEstimate = rightSplit.estimateSize(), sizeThreshold;
             if ((sizeThreshold = targetSize) == 0L)
                 targetSize = sizeThreshold = AbstractTask.suggestTargetSize(sizeEstimate);
+            AbstractTask.Granularity granularity = this.granularity;
+            if (granularity != null)
+                sizeThreshold = granularity.targetSize(sizeThreshold);
+            StreamTrace.Recorder trace = this.trace;
             boolean isShortCircuit = StreamOpFlag.SHORT_CIRCUIT.isKnown(helper.getStreamAndOpFlags());
             boolean forkRight = false;
             Sink<S> taskSink = sink;
@@ -288,11 +305,27 @@ final class ForEachOps {
             while (!isShortCircuit || !taskSink.cancellationRequested()) {
                 if (sizeEstimate <= sizeThreshold ||
                     (leftSplit = rightSplit.trySplit()) == null) {
-                    task.helper.copyInto(taskSink, rightSplit);
+                    if (granularity == null && trace == null)
+                        task.helper.copyInto(taskSink, rightSplit);
+                    else {
+                        long start = System.nanoTime();
+                        task.helper.copyInto(taskSink, rightSplit);
+                        long nanos = System.nanoTime() - start;
+                        if (granularity != null)
+                            granularity.sample(sizeEstimate, nanos);
+                        if (trace != null)
+                            trace.leaf(task.tracePath, sizeEstimate, nanos);
+                    }
                     break;
                 }
                 ForEachTask<S, T> leftTask = new ForEachTask<>(task, leftSplit);
                 task.addToPendingCount(1);
+                if (trace != null) {
+                    // This task continues with the right split
+                    leftTask.tracePath = task.tracePath + 'L';
+                    task.tracePath = task.tracePath + 'R';
+                    trace.split();
+                }
                 ForEachTask<S, T> taskToFork;
                 if (forkRight) {
                     forkRight = false;
@@ -501,8 +501,7 @@ abstract class IntPipeline<E_IN>
 
     @Override
     public final int[] toArray() {
-        return Nodes.flattenInt((Node.OfInt) evaluateToArrayNode(Integer[]::new))
-                        .asPrimitiveArray();
+        return Nodes.toIntArray((Node.OfInt) evaluateToArrayNode(Integer[]::new));
     }
 
     //
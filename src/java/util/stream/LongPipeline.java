@@ -483,8 +483,7 @@ abstract class LongPipeline<E_IN>
 
     @Override
     public final long[] toArray() {
-        return Nodes.flattenLong((Node.OfLong) evaluateToArrayNode(Long[]::new))
-                .asPrimitiveArray();
+        return Nodes.toLongArray((Node.OfLong) evaluateToArrayNode(Long[]::new));
     }
 
 
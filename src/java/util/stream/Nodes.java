@@ -322,7 +322,7 @@ final class Nodes {
             if (size >= MAX_ARRAY_SIZE)
                 throw new IllegalArgumentException(BAD_SIZE);
             P_OUT[] array = generator.apply((int) size);
-            new SizedCollectorTask.OfRef<>(spliterator, helper, array).invoke();
+            new SizedCollectorTask.OfRef<>(spliterator, helper, array).invokeRoot();
             return node(array);
         } else {
             Node<P_OUT> node = new CollectorTask.OfRef<>(helper, generator, spliterator).invoke();
@@ -359,7 +359,7 @@ final class Nodes {
             if (size >= MAX_ARRAY_SIZE)
                 throw new IllegalArgumentException(BAD_SIZE);
             int[] array = new int[(int) size];
-            new SizedCollectorTask.OfInt<>(spliterator, helper, array).invoke();
+            new SizedCollectorTask.OfInt<>(spliterator, helper, array).invokeRoot();
             return node(array);
         }
         else {
@@ -397,7 +397,7 @@ final class Nodes {
             if (size >= MAX_ARRAY_SIZE)
                 throw new IllegalArgumentException(BAD_SIZE);
             long[] array = new long[(int) size];
-            new SizedCollectorTask.OfLong<>(spliterator, helper, array).invoke();
+            new SizedCollectorTask.OfLong<>(spliterator, helper, array).invokeRoot();
             return node(array);
         }
         else {
@@ -435,7 +435,7 @@ final class Nodes {
             if (size >= MAX_ARRAY_SIZE)
                 throw new IllegalArgumentException(BAD_SIZE);
             double[] array = new double[(int) size];
-            new SizedCollectorTask.OfDouble<>(spliterator, helper, array).invoke();
+            new SizedCollectorTask.OfDouble<>(spliterator, helper, array).invokeRoot();
             return node(array);
         }
         else {
@@ -552,6 +552,64 @@ final class Nodes {
         }
     }
 
+    /**
+     * Copy the elements of a {@link Node.OfInt} that is private to the
+     * caller into an {@code int[]}, flattening it in parallel if necessary.
+     * Chunks held by the node are recycled, so the node must not be used
+     * afterwards.
+     *
+     * @param node the node to copy, which is discarded
+     * @return an array containing the elements of the node
+     */
+    static int[] toIntArray(Node.OfInt node) {
+        Node.OfInt flat = flattenInt(node);
+        int[] array = flat.asPrimitiveArray();
+        release(flat);
+        return array;
+    }
+
+    /**
+     * Copy the elements of a {@link Node.OfLong} that is private to the
+     * caller into a {@code long[]}, flattening it in parallel if necessary.
+     * Chunks held by the node are recycled, so the node must not be used
+     * afterwards.
+     *
+     * @param node the node to copy, which is discarded
+     * @return an array containing the elements of the node
+     */
+    static long[] toLongArray(Node.OfLong node) {
+        Node.OfLong flat = flattenLong(node);
+        long[] array = flat.asPrimitiveArray();
+        release(flat);
+        return array;
+    }
+
+    /**
+     * Copy the elements of a {@link Node.OfDouble} that is private to the
+     * caller into a {@code double[]}, flattening it in parallel if necessary.
+     * Chunks held by the node are recycled, so the node must not be used
+     * afterwards.
+     *
+     * @param node the node to copy, which is discarded
+     * @return an array containing the elements of the node
+     */
+    static double[] toDoubleArray(Node.OfDouble node) {
+        Node.OfDouble flat = flattenDouble(node);
+        double[] array = flat.asPrimitiveArray();
+        release(flat);
+        return array;
+    }
+
+    /**
+     * Recycle the chunks of a discarded flat node, if it is a spined node.
+     * Array nodes are left alone, since their array may have been returned
+     * to the caller.
+     */
+    private static void release(Node<?> node) {
+        if (node instanceof SpinedBuffer.OfPrimitive)
+            ((SpinedBuffer.OfPrimitive<?, ?, ?>) node).release();
+    }
+
     // Implementations
 
     private static abstract class EmptyNode<T, T_ARR, T_CONS> implements Node<T> {
@@ -1642,6 +1700,11 @@ final class Nodes {
 
         IntSpinedNodeBuilder() {} // Avoid creation of special accessor
 
+        @Override
+        protected SpinedBuffer.ChunkPool chunkPool() {
+            return threadChunkPool();
+        }
+
         @Override
         public Spliterator.OfInt spliterator() {
             assert !building : "during building";
@@ -1702,6 +1765,11 @@ final class Nodes {
 
         LongSpinedNodeBuilder() {} // Avoid creation of special accessor
 
+        @Override
+        protected SpinedBuffer.ChunkPool chunkPool() {
+            return threadChunkPool();
+        }
+
         @Override
         public Spliterator.OfLong spliterator() {
             assert !building : "during building";
@@ -1762,6 +1830,11 @@ final class Nodes {
 
         DoubleSpinedNodeBuilder() {} // Avoid creation of special accessor
 
+        @Override
+        protected SpinedBuffer.ChunkPool chunkPool() {
+            return threadChunkPool();
+        }
+
         @Override
         public Spliterator.OfDouble spliterator() {
             assert !building : "during building";
@@ -1830,6 +1903,9 @@ final class Nodes {
         protected long length;
         // For Sink implementation
         protected int index, fence;
+        protected final StreamTrace.Recorder trace;
+        // Path from the root to this task, if traced
+        protected String tracePath;
 
         SizedCollectorTask(Spliterator<P_IN> spliterator,
                            PipelineHelper<P_OUT> helper,
@@ -1840,6 +1916,8 @@ final class Nodes {
             this.targetSize = AbstractTask.suggestTargetSize(spliterator.estimateSize());
             this.offset = 0;
             this.length = arrayLength;
+            this.trace = StreamTrace.ENABLED ? new StreamTrace.Recorder(helper, this) : null;
+            this.tracePath = "";
         }
 
         SizedCollectorTask(K parent, Spliterator<P_IN> spliterator,
@@ -1851,6 +1929,7 @@ final class Nodes {
             this.targetSize = parent.targetSize;
             this.offset = offset;
             this.length = length;
+            this.trace = parent.trace;
 
             if (offset < 0 || length < 0 || (offset + length - 1 >= arrayLength)) {
                 throw new IllegalArgumentException(
@@ -1859,6 +1938,16 @@ final class Nodes {
             }
         }
 
+        /**
+         * Invokes this root task and, if execution is being traced, reports
+         * the trace once the computation has completed.
+         */
+        final void invokeRoot() {
+            invoke();
+            if (trace != null)
+                trace.report();
+        }
+
         @Override
         public void compute() {
             SizedCollectorTask<P_IN, P_OUT, T_SINK, K> task = this;
@@ -1867,15 +1956,29 @@ final class Nodes {
                    (leftSplit = rightSplit.trySplit()) != null) {
                 task.setPendingCount(1);
                 long leftSplitSize = leftSplit.estimateSize();
-                task.makeChild(leftSplit, task.offset, leftSplitSize).fork();
-                task = task.makeChild(rightSplit, task.offset + leftSplitSize,
-                                      task.length - leftSplitSize);
+                K leftTask = task.makeChild(leftSplit, task.offset, leftSplitSize);
+                K rightTask = task.makeChild(rightSplit, task.offset + leftSplitSize,
+                                             task.length - leftSplitSize);
+                if (trace != null) {
+                    leftTask.tracePath = task.tracePath + 'L';
+                    rightTask.tracePath = task.tracePath + 'R';
+                    trace.split();
+                }
+                leftTask.fork();
+                task = rightTask;
             }
 
             assert task.offset + task.length < MAX_ARRAY_SIZE;
             @SuppressWarnings("unchecked")
             T_SINK sink = (T_SINK) task;
-            task.helper.wrapAndCopyInto(sink, rightSplit);
+            if (trace == null)
+                task.helper.wrapAndCopyInto(sink, rightSplit);
+            else {
+                long sizeEstimate = rightSplit.estimateSize();
+                long start = System.nanoTime();
+                task.helper.wrapAndCopyInto(sink, rightSplit);
+                trace.leaf(task.tracePath, sizeEstimate, System.nanoTime() - start);
+            }
             task.propagateCompletion();
         }
 
@@ -2118,6 +2221,10 @@ final class Nodes {
             @Override
             void copyNodeToArray() {
                 node.copyInto(array, offset);
+                // The tree being flattened is discarded once copied, so
+                // the chunks of spined leaves can be recycled
+                if (node instanceof SpinedBuffer.OfPrimitive)
+                    ((SpinedBuffer.OfPrimitive<?, ?, ?>) node).release();
             }
         }
 
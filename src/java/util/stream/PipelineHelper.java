@@ -71,6 +71,14 @@ abstract class PipelineHelper<P_OUT> {
      */
     abstract int getStreamAndOpFlags();
 
+    /**
+     * Returns whether parallel evaluation of the pipeline should adapt the
+     * target leaf size to the measured cost of processing each element.
+     *
+     * @return {@code true} if the split granularity is adaptive
+     */
+    abstract boolean isAdaptiveSplitting();
+
     /**
      * Returns the exact output size of the portion of the output resulting from
      * applying the pipeline stages described by this {@code PipelineHelper} to
@@ -399,6 +399,56 @@ class SpinedBuffer<E>
         return new Splitr(0, spineIndex, 0, elementIndex);
     }
 
+    /**
+     * A per-thread cache of primitive chunk arrays, indexed by chunk power.
+     * Chunks are always a power of two in size, so a released chunk can be
+     * handed to any buffer requesting a chunk of the same size.  Only small
+     * chunks are kept, and only a few of each size, which bounds the memory
+     * retained by each thread while still covering repeated small pipelines.
+     *
+     * <p>A pool must only be accessed by the thread that owns it.  Primitive
+     * chunks need not be cleared before reuse since elements beyond the
+     * current element index of a buffer are never read.
+     */
+    static final class ChunkPool {
+        /** Max power-of-two for pooled chunks */
+        static final int MAX_POOLED_CHUNK_POWER = 10;
+
+        /** Max number of pooled chunks of each size */
+        static final int MAX_POOLED_CHUNKS = 2;
+
+        private final Object[][] chunks
+                = new Object[MAX_POOLED_CHUNK_POWER + 1][MAX_POOLED_CHUNKS];
+        private final int[] counts = new int[MAX_POOLED_CHUNK_POWER + 1];
+
+        /**
+         * Take a pooled chunk of the given size, or return null if there
+         * is none.
+         */
+        Object take(int size) {
+            int power = Integer.numberOfTrailingZeros(size);
+            if (power > MAX_POOLED_CHUNK_POWER || counts[power] == 0)
+                return null;
+            Object[] pooled = chunks[power];
+            int n = --counts[power];
+            Object chunk = pooled[n];
+            pooled[n] = null;
+            return chunk;
+        }
+
+        /**
+         * Offer a chunk of the given size to the pool; the chunk is dropped
+         * if it is too large or the pool is full for that size.
+         */
+        void offer(Object chunk, int size) {
+            if (Integer.bitCount(size) != 1)
+                return;
+            int power = Integer.numberOfTrailingZeros(size);
+            if (power <= MAX_POOLED_CHUNK_POWER && counts[power] < MAX_POOLED_CHUNKS)
+                chunks[power][counts[power]++] = chunk;
+        }
+    }
+
     /**
      * An ordered collection of primitive values.  Elements can be added, but
      * not removed. Goes through a building phase, during which elements can be
@@ -450,7 +500,7 @@ class SpinedBuffer<E>
          */
         OfPrimitive(int initialCapacity) {
             super(initialCapacity);
-            curChunk = newArray(1 << initialChunkPower);
+            curChunk = newChunk(1 << initialChunkPower);
         }
 
         /**
@@ -458,7 +508,7 @@ class SpinedBuffer<E>
          */
         OfPrimitive() {
             super();
-            curChunk = newArray(1 << initialChunkPower);
+            curChunk = newChunk(1 << initialChunkPower);
         }
 
         @Override
@@ -476,6 +526,27 @@ class SpinedBuffer<E>
         /** Get the length of an array */
         protected abstract int arrayLength(T_ARR array);
 
+        /**
+         * Get the chunk pool of the current thread, or null if chunks of
+         * this buffer are not to be recycled.  Buffers that opt in must
+         * call {@link #release()} once their contents are no longer needed.
+         */
+        protected ChunkPool chunkPool() {
+            return null;
+        }
+
+        /** Create a new chunk, reusing a pooled array if one is available */
+        @SuppressWarnings("unchecked")
+        private T_ARR newChunk(int size) {
+            ChunkPool pool = chunkPool();
+            if (pool != null) {
+                Object chunk = pool.take(size);
+                if (chunk != null)
+                    return (T_ARR) chunk;
+            }
+            return newArray(size);
+        }
+
         /** Iterate an array with the provided consumer */
         protected abstract void arrayForEach(T_ARR array, int from, int to,
                                              T_CONS consumer);
@@ -505,7 +576,7 @@ class SpinedBuffer<E>
                         priorElementCount = Arrays.copyOf(priorElementCount, newSpineSize);
                     }
                     int nextChunkSize = chunkSize(i);
-                    spine[i] = newArray(nextChunkSize);
+                    spine[i] = newChunk(nextChunkSize);
                     priorElementCount[i] = priorElementCount[i-1] + arrayLength(spine[i - 1]);
                     capacity += nextChunkSize;
                 }
@@ -583,6 +654,27 @@ class SpinedBuffer<E>
             spineIndex = 0;
         }
 
+        /**
+         * Return all chunks to the chunk pool of the current thread and
+         * discard the contents of the buffer.  The buffer must not be used
+         * after it has been released.
+         */
+        public void release() {
+            ChunkPool pool = chunkPool();
+            if (pool != null) {
+                if (spine == null)
+                    pool.offer(curChunk, arrayLength(curChunk));
+                else
+                    for (int i = 0; i < spine.length && spine[i] != null; i++)
+                        pool.offer(spine[i], arrayLength(spine[i]));
+            }
+            curChunk = null;
+            spine = null;
+            priorElementCount = null;
+            elementIndex = 0;
+            spineIndex = 0;
+        }
+
         @SuppressWarnings("overloads")
         public void forEach(T_CONS consumer) {
             // completed chunks, if any
@@ -740,6 +832,18 @@ class SpinedBuffer<E>
             }
         }
 
+        /** Pooled {@code int} chunks of each thread */
+        private static final ThreadLocal<ChunkPool> CHUNK_POOL
+                = ThreadLocal.withInitial(ChunkPool::new);
+
+        /**
+         * Get the {@code int} chunk pool of the current thread, for use by
+         * subclasses that opt in to chunk recycling.
+         */
+        static ChunkPool threadChunkPool() {
+            return CHUNK_POOL.get();
+        }
+
         @Override
         protected int[][] newArrayArray(int size) {
             return new int[size][];
@@ -853,6 +957,18 @@ class SpinedBuffer<E>
             }
         }
 
+        /** Pooled {@code long} chunks of each thread */
+        private static final ThreadLocal<ChunkPool> CHUNK_POOL
+                = ThreadLocal.withInitial(ChunkPool::new);
+
+        /**
+         * Get the {@code long} chunk pool of the current thread, for use by
+         * subclasses that opt in to chunk recycling.
+         */
+        static ChunkPool threadChunkPool() {
+            return CHUNK_POOL.get();
+        }
+
         @Override
         protected long[][] newArrayArray(int size) {
             return new long[size][];
@@ -968,6 +1084,18 @@ class SpinedBuffer<E>
             }
         }
 
+        /** Pooled {@code double} chunks of each thread */
+        private static final ThreadLocal<ChunkPool> CHUNK_POOL
+                = ThreadLocal.withInitial(ChunkPool::new);
+
+        /**
+         * Get the {@code double} chunk pool of the current thread, for use by
+         * subclasses that opt in to chunk recycling.
+         */
+        static ChunkPool threadChunkPool() {
+            return CHUNK_POOL.get();
+        }
+
         @Override
         protected double[][] newArrayArray(int size) {
             return new double[size][];
@@ -315,4 +315,69 @@ public final class StreamSupport {
                                          StreamOpFlag.fromCharacteristics(characteristics),
                                          parallel);
     }
+
+    /**
+     * Returns a textual description of how a stream pipeline will be
+     * executed, for diagnostic purposes.  The description lists the stream
+     * source and each intermediate operation of the pipeline, in order, with
+     * the stream flags (such as {@code SIZED}, {@code ORDERED} and
+     * {@code DISTINCT}) known after each stage and the flags that each stage
+     * clears.  Stateful operations of a parallel pipeline are marked as
+     * barriers, at which the output of the upstream stages is evaluated before
+     * downstream stages start.
+     *
+     * <p>The stream is not consumed, and the format of the description is
+     * unspecified and subject to change.  How a parallel pipeline was split
+     * into tasks, and how long each leaf task took, can be logged by setting
+     * the system property {@code org.openjdk.java.util.stream.trace} to
+     * {@code true}.  The tasks of {@code forEachOrdered}, and those that
+     * copy the intermediate results of a parallel pipeline into a single
+     * array, are not traced.
+     *
+     * @param stream the stream to describe
+     * @return a description of the stream pipeline, or the class name of the
+     *         stream if it is not implemented by this package
+     * @throws NullPointerException if {@code stream} is null
+     */
+    public static String explain(BaseStream<?, ?> stream) {
+        Objects.requireNonNull(stream);
+        return (stream instanceof AbstractPipeline)
+               ? ((AbstractPipeline<?, ?, ?>) stream).explain()
+               : stream.getClass().getName();
+    }
+
+    /**
+     * Makes the parallel evaluation of a stream adapt the size of the tasks
+     * it splits the source into to the measured cost of processing each
+     * element.  By default a parallel stream is split into a fixed number
+     * of leaf tasks for each processor, which creates too many tasks when
+     * the operations are cheap and too few when they are expensive or the
+     * cost per element is skewed.  With adaptive splitting the first leaf
+     * tasks to complete sample the time taken per source element, and tasks
+     * that start later choose their size so that each leaf takes a moderate
+     * amount of time.
+     *
+     * <p>This is a hint; it has no effect on sequential evaluation and
+     * the results of the stream are unaffected.  It also has no effect
+     * unless the source spliterator is {@link Spliterator#SIZED SIZED}, as
+     * the time per element cannot be sampled without knowing the number of
+     * elements of each task.  Like
+     * {@link BaseStream#parallel()}, it applies to the whole pipeline.
+     *
+     * @param <T> the type of stream elements
+     * @param <S> the type of the stream
+     * @param stream the stream
+     * @param adaptive {@code true} to split adaptively, {@code false} to use
+     *        a fixed split granularity
+     * @return the stream
+     * @throws NullPointerException if {@code stream} is null
+     */
+    @SuppressWarnings("unchecked")
+    public static <T, S extends BaseStream<T, S>> S adaptiveSplitting(S stream,
+                                                                      boolean adaptive) {
+        Objects.requireNonNull(stream);
+        return (stream instanceof AbstractPipeline)
+               ? ((AbstractPipeline<?, T, S>) stream).adaptiveSplitting(adaptive)
+               : stream;
+    }
 }
@@ -0,0 +1,246 @@
+/*
+ * Copyright (c) 2013, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.util.stream;
+
+import java.security.AccessController;
+import java.security.PrivilegedAction;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import sun.util.logging.PlatformLogger;
+
+/**
+ * Utility class for describing stream pipelines and tracing their parallel
+ * execution.  Pipelines can always be described, via
+ * {@link StreamSupport#explain(BaseStream)}; execution tracing is turned on or
+ * off based on whether the system property
+ * {@code org.openjdk.java.util.stream.trace} is considered {@code true}
+ * according to {@link Boolean#getBoolean(String)}.  This should normally be
+ * turned off for production use.
+ *
+ * <p>When tracing is enabled each root {@link AbstractTask},
+ * {@link ForEachOps.ForEachTask} and {@code Nodes.SizedCollectorTask} creates
+ * a {@link Recorder} that is shared by all tasks of the computation.  The
+ * recorder counts splits and records, for every leaf task, its position in
+ * the split tree, the estimated size of its spliterator, the time spent
+ * evaluating the pipeline and the thread that ran it.  When the computation
+ * completes the recorder logs, using
+ * {@code PlatformLogger.getLogger("java.util.stream")}, a description of the
+ * pipeline followed by the split tree.
+ *
+ * <p>The tasks of ordered {@code forEachOrdered} operations, and those that
+ * flatten a tree of nodes into an array, are not traced.
+ *
+ * @since 1.8
+ */
+final class StreamTrace {
+    private static final String TRACE_PROPERTY = "org.openjdk.java.util.stream.trace";
+
+    /** Should parallel execution be traced? */
+    static final boolean ENABLED = AccessController.doPrivileged(
+            (PrivilegedAction<Boolean>) () -> Boolean.getBoolean(TRACE_PROPERTY));
+
+    /** The stream flags, in the order they are described */
+    private static final StreamOpFlag[] STREAM_FLAGS = {
+            StreamOpFlag.DISTINCT, StreamOpFlag.SORTED,
+            StreamOpFlag.ORDERED, StreamOpFlag.SIZED };
+
+    private StreamTrace() { }
+
+    /**
+     * Returns the name of the operation of a pipeline stage.  Most operations
+     * are implemented by anonymous classes in the method of the same name,
+     * otherwise the (nested) class name is used.
+     *
+     * @param stage the pipeline stage
+     * @return the name of the operation
+     */
+    static String opName(AbstractPipeline<?, ?, ?> stage) {
+        Class<?> c = stage.getClass();
+        if (c.isAnonymousClass()) {
+            // Not a method reference: getEnclosingMethod is caller sensitive
+            java.lang.reflect.Method m = AccessController.doPrivileged(
+                    new PrivilegedAction<java.lang.reflect.Method>() {
+                        public java.lang.reflect.Method run() {
+                            return c.getEnclosingMethod();
+                        }
+                    });
+            if (m != null)
+                return m.getName();
+        }
+        StringBuilder sb = new StringBuilder(c.getSimpleName());
+        for (Class<?> e = c.getEnclosingClass(); e != null; e = e.getEnclosingClass())
+            sb.insert(0, '.').insert(0, e.getSimpleName());
+        return sb.toString();
+    }
+
+    /**
+     * Describes the stream flags known on combined stream and operation
+     * flags, for example {@code [ORDERED, SIZED]}.
+     *
+     * @param combinedFlags the combined stream and operation flags
+     * @return a description of the known flags
+     */
+    static String describeFlags(int combinedFlags) {
+        StringBuilder sb = new StringBuilder("[");
+        for (StreamOpFlag f : STREAM_FLAGS) {
+            if (f.isKnown(combinedFlags)) {
+                if (sb.length() > 1)
+                    sb.append(", ");
+                sb.append(f);
+            }
+        }
+        return sb.append(']').toString();
+    }
+
+    /**
+     * Describes the stream flags known on the combined flags of the previous
+     * stage that are no longer known on the combined flags of a stage, for
+     * example {@code " clears SIZED"}, or returns the empty string if none
+     * were cleared.
+     *
+     * @param prevCombinedFlags the combined flags of the previous stage
+     * @param combinedFlags the combined flags of the stage
+     * @return a description of the cleared flags
+     */
+    static String describeCleared(int prevCombinedFlags, int combinedFlags) {
+        StringBuilder sb = new StringBuilder();
+        for (StreamOpFlag f : STREAM_FLAGS) {
+            if (f.isKnown(prevCombinedFlags) && !f.isKnown(combinedFlags))
+                sb.append(sb.length() == 0 ? " clears " : ", ").append(f);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Records the execution of the tasks of one parallel computation.
+     * Recording methods may be called concurrently from any task of the
+     * computation.
+     */
+    static final class Recorder {
+        private final PipelineHelper<?> helper;
+        private final String rootTask;
+        private final ForkJoinPool pool;
+        private final long startSteals;
+        private final long startNanos;
+        private final AtomicInteger splits = new AtomicInteger();
+        private final ConcurrentLinkedQueue<Leaf> leaves = new ConcurrentLinkedQueue<>();
+
+        Recorder(PipelineHelper<?> helper, ForkJoinTask<?> root) {
+            this.helper = helper;
+            this.rootTask = root.getClass().getName();
+            ForkJoinPool p = ForkJoinTask.getPool();
+            this.pool = (p != null) ? p : ForkJoinPool.commonPool();
+            this.startSteals = pool.getStealCount();
+            this.startNanos = System.nanoTime();
+        }
+
+        /** Records the split of a task into two child tasks */
+        void split() {
+            splits.incrementAndGet();
+        }
+
+        /**
+         * Records the computation of a leaf task.
+         *
+         * @param task the leaf task
+         * @param sizeEstimate the estimated size of the leaf's spliterator
+         * @param nanos the time spent computing the leaf
+         */
+        void leaf(AbstractTask<?, ?, ?, ?> task, long sizeEstimate, long nanos) {
+            // The children of an ancestor are only cleared once all its
+            // descendants have completed, so the path is stable here
+            StringBuilder path = new StringBuilder();
+            AbstractTask<?, ?, ?, ?> t = task, p;
+            while ((p = t.getParent()) != null) {
+                path.append(p.leftChild == t ? 'L' : 'R');
+                t = p;
+            }
+            leaf(path.reverse().toString(), sizeEstimate, nanos);
+        }
+
+        /**
+         * Records the computation of a leaf task of a computation whose
+         * tasks do not link to their children.
+         *
+         * @param path the path from the root to the leaf, 'L' for a left
+         *        and 'R' for a right child
+         * @param sizeEstimate the estimated size of the leaf's spliterator
+         * @param nanos the time spent computing the leaf
+         */
+        void leaf(String path, long sizeEstimate, long nanos) {
+            leaves.add(new Leaf(path, sizeEstimate, nanos,
+                                Thread.currentThread().getName()));
+        }
+
+        /**
+         * Logs the description of the pipeline and the recorded split tree.
+         * Called when the computation completes.
+         */
+        void report() {
+            long elapsed = System.nanoTime() - startNanos;
+            List<Leaf> sorted = new ArrayList<>(leaves);
+            Collections.sort(sorted, (a, b) -> a.path.compareTo(b.path));
+
+            StringBuilder sb = new StringBuilder();
+            sb.append(rootTask).append(": ");
+            if (helper instanceof AbstractPipeline)
+                sb.append(((AbstractPipeline<?, ?, ?>) helper).explain());
+            else
+                sb.append(helper.getClass().getName()).append('\n');
+            sb.append(String.format("  splits=%d leaves=%d steals=%d elapsed=%dus%n",
+                                    splits.get(), sorted.size(),
+                                    pool.getStealCount() - startSteals,
+                                    elapsed / 1000));
+            for (Leaf l : sorted)
+                sb.append(String.format("  leaf %s size=%d time=%dus thread=%s%n",
+                                        l.path.isEmpty() ? "root" : l.path,
+                                        l.size, l.nanos / 1000, l.thread));
+            PlatformLogger.getLogger("java.util.stream").info(sb.toString());
+        }
+    }
+
+    /** A recorded leaf task */
+    private static final class Leaf {
+        /** Path from the root, 'L' for a left and 'R' for a right child */
+        final String path;
+        final long size;
+        final long nanos;
+        final String thread;
+
+        Leaf(String path, long size, long nanos, String thread) {
+            this.path = path;
+            this.size = size;
+            this.nanos = nanos;
+            this.thread = thread;
+        }
+    }
+}
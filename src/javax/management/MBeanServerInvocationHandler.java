@@ -27,12 +27,12 @@ package javax.management;
 
 import com.sun.jmx.mbeanserver.MXBeanProxy;
 
-import java.lang.ref.WeakReference;
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
 import java.lang.reflect.Proxy;
 import java.util.Arrays;
-import java.util.WeakHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * <p>{@link InvocationHandler} that forwards methods in an MBean's
@@ -257,46 +257,25 @@ public class MBeanServerInvocationHandler implements InvocationHandler {
                 MXBeanProxy p = findMXBeanProxy(methodClass);
                 return p.invoke(connection, objectName, method, args);
             } else {
-                final String methodName = method.getName();
-                final Class<?>[] paramTypes = method.getParameterTypes();
-                final Class<?> returnType = method.getReturnType();
-
                 /* Inexplicably, InvocationHandler specifies that args is null
                    when the method takes no arguments rather than a
                    zero-length array.  */
                 final int nargs = (args == null) ? 0 : args.length;
 
-                if (methodName.startsWith("get")
-                    && methodName.length() > 3
-                    && nargs == 0
-                    && !returnType.equals(Void.TYPE)) {
-                    return connection.getAttribute(objectName,
-                        methodName.substring(3));
-                }
-
-                if (methodName.startsWith("is")
-                    && methodName.length() > 2
-                    && nargs == 0
-                    && (returnType.equals(Boolean.TYPE)
-                    || returnType.equals(Boolean.class))) {
-                    return connection.getAttribute(objectName,
-                        methodName.substring(2));
-                }
-
-                if (methodName.startsWith("set")
-                    && methodName.length() > 3
-                    && nargs == 1
-                    && returnType.equals(Void.TYPE)) {
-                    Attribute attr = new Attribute(methodName.substring(3), args[0]);
-                    connection.setAttribute(objectName, attr);
-                    return null;
+                final Dispatch d = dispatch(methodClass, method);
+                if (nargs == d.signature.length) {
+                    switch (d.kind) {
+                    case Dispatch.GET:
+                        return connection.getAttribute(objectName, d.attribute);
+                    case Dispatch.SET:
+                        Attribute attr = new Attribute(d.attribute, args[0]);
+                        connection.setAttribute(objectName, attr);
+                        return null;
+                    }
                 }
 
-                final String[] signature = new String[paramTypes.length];
-                for (int i = 0; i < paramTypes.length; i++)
-                    signature[i] = paramTypes[i].getName();
-                return connection.invoke(objectName, methodName,
-                                         args, signature);
+                return connection.invoke(objectName, method.getName(),
+                                         args, d.signature.clone());
             }
         } catch (MBeanException e) {
             throw e.getTargetException();
@@ -320,29 +299,95 @@ public class MBeanServerInvocationHandler implements InvocationHandler {
     }
 
     private static MXBeanProxy findMXBeanProxy(Class<?> mxbeanInterface) {
-        synchronized (mxbeanProxies) {
-            WeakReference<MXBeanProxy> proxyRef =
-                    mxbeanProxies.get(mxbeanInterface);
-            MXBeanProxy p = (proxyRef == null) ? null : proxyRef.get();
-            if (p == null) {
-                try {
-                    p = new MXBeanProxy(mxbeanInterface);
-                } catch (IllegalArgumentException e) {
-                    String msg = "Cannot make MXBean proxy for " +
-                            mxbeanInterface.getName() + ": " + e.getMessage();
-                    IllegalArgumentException iae =
-                            new IllegalArgumentException(msg, e.getCause());
-                    iae.setStackTrace(e.getStackTrace());
-                    throw iae;
-                }
-                mxbeanProxies.put(mxbeanInterface,
-                                  new WeakReference<MXBeanProxy>(p));
+        try {
+            return mxbeanProxies.get(mxbeanInterface);
+        } catch (IllegalArgumentException e) {
+            String msg = "Cannot make MXBean proxy for " +
+                    mxbeanInterface.getName() + ": " + e.getMessage();
+            IllegalArgumentException iae =
+                    new IllegalArgumentException(msg, e.getCause());
+            iae.setStackTrace(e.getStackTrace());
+            throw iae;
+        }
+    }
+    private static final ClassValue<MXBeanProxy> mxbeanProxies =
+        new ClassValue<MXBeanProxy>() {
+            @Override
+            protected MXBeanProxy computeValue(Class<?> mxbeanInterface) {
+                return new MXBeanProxy(mxbeanInterface);
+            }
+        };
+
+    /**
+     * How a method of a Standard MBean interface is forwarded to the MBean:
+     * as an attribute getter or setter, or as an operation.  Working this
+     * out from the method's name and signature is done once per method
+     * rather than on every call through the proxy.
+     */
+    private static final class Dispatch {
+        static final int GET = 0, SET = 1, INVOKE = 2;
+
+        final int kind;
+        final String attribute;     // null for an operation
+        final String[] signature;   // never modified; cloned when passed on
+
+        Dispatch(Method method) {
+            final String methodName = method.getName();
+            final Class<?>[] paramTypes = method.getParameterTypes();
+            final Class<?> returnType = method.getReturnType();
+            final int nargs = paramTypes.length;
+
+            if (methodName.startsWith("get")
+                && methodName.length() > 3
+                && nargs == 0
+                && !returnType.equals(Void.TYPE)) {
+                kind = GET;
+                attribute = methodName.substring(3);
+            } else if (methodName.startsWith("is")
+                && methodName.length() > 2
+                && nargs == 0
+                && (returnType.equals(Boolean.TYPE)
+                || returnType.equals(Boolean.class))) {
+                kind = GET;
+                attribute = methodName.substring(2);
+            } else if (methodName.startsWith("set")
+                && methodName.length() > 3
+                && nargs == 1
+                && returnType.equals(Void.TYPE)) {
+                kind = SET;
+                attribute = methodName.substring(3);
+            } else {
+                kind = INVOKE;
+                attribute = null;
             }
-            return p;
+
+            signature = new String[nargs];
+            for (int i = 0; i < nargs; i++)
+                signature[i] = paramTypes[i].getName();
         }
     }
-    private static final WeakHashMap<Class<?>, WeakReference<MXBeanProxy>>
-            mxbeanProxies = new WeakHashMap<Class<?>, WeakReference<MXBeanProxy>>();
+
+    /**
+     * The dispatch of each method, by the interface declaring the method.
+     * The table is held by the interface, so it does not keep the
+     * interface's class loader alive.
+     */
+    private static final ClassValue<Map<Method, Dispatch>> dispatches =
+        new ClassValue<Map<Method, Dispatch>>() {
+            @Override
+            protected Map<Method, Dispatch> computeValue(Class<?> intf) {
+                return new ConcurrentHashMap<>();
+            }
+        };
+
+    private static Dispatch dispatch(Class<?> intf, Method method) {
+        Map<Method, Dispatch> map = dispatches.get(intf);
+        // computeIfAbsent locks the bin even if the key is present
+        Dispatch d = map.get(method);
+        if (d == null)
+            d = map.computeIfAbsent(method, Dispatch::new);
+        return d;
+    }
 
     private Object invokeBroadcasterMethod(Object proxy, Method method,
                                            Object[] args) throws Exception {
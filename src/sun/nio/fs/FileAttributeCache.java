@@ -0,0 +1,439 @@
+/*
+ * Copyright (c) 2013, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package sun.nio.fs;
+
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.AccessController;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import sun.misc.Launcher;
+import sun.misc.VM;
+import sun.security.action.GetPropertyAction;
+import static java.nio.file.StandardWatchEventKinds.*;
+
+/**
+ * A cache of the basic attributes of files of the default file system,
+ * shared by {@link java.io.File} and {@link java.nio.file.Files}.
+ *
+ * <p>The cache is disabled unless the system property {@code
+ * sun.nio.fs.attributeCacheTimeout} is set to a positive number of
+ * milliseconds, for which an entry remains valid.  It is also disabled
+ * while a security manager is installed, since a cached entry would skip
+ * the check of read access, and until the system class loader and the
+ * default file system are initialized.
+ * The property {@code sun.nio.fs.attributeCacheSize} bounds the number of
+ * entries, 10000 by default.
+ *
+ * <p>Entries are keyed by the normalized absolute path of the file.  A
+ * path with a {@code ".."} element is not cached, since the parent of a
+ * symbolic link is not the directory the link is in, and changing the file
+ * of such a path removes all entries.
+ *
+ * <p>An entry is removed when the file, or a directory above it, is
+ * changed by {@code File} or {@code Files} through the same path.  Changes
+ * made by other means, including writes to an open file, are seen when the
+ * entry expires, or earlier if the directory of the file is watched: unless
+ * the system property {@code sun.nio.fs.attributeCacheWatch} is {@code
+ * false}, the directories of cached files are registered with a {@link
+ * WatchService}, whose events remove the entries of the files concerned.
+ * At most {@code sun.nio.fs.attributeCacheWatchLimit} directories are
+ * watched, 256 by default, since watches may be a scarce resource of the
+ * operating system.
+ *
+ * <p>Aliases of a file are not invalidated.  A file reached through a
+ * symbolic link, or through another hard link, has an entry of its own,
+ * which is not removed when the file is changed through another of its
+ * paths, unless a watch event for the directory of the alias removes it.
+ */
+public final class FileAttributeCache {
+
+    private FileAttributeCache() {}
+
+    /**
+     * The configuration, read when the cache is first used after the
+     * system class loader is initialized.
+     */
+    private static class Config {
+        static final long TIMEOUT_NANOS =
+            readLong("sun.nio.fs.attributeCacheTimeout", 0L) * 1000_000L;
+        static final int MAX_ENTRIES =
+            (int)Math.min(readLong("sun.nio.fs.attributeCacheSize", 10000L),
+                          Integer.MAX_VALUE);
+        static final boolean WATCH = !"false".equals(
+            AccessController.doPrivileged(
+                new GetPropertyAction("sun.nio.fs.attributeCacheWatch")));
+        static final int MAX_WATCHED =
+            (int)Math.min(readLong("sun.nio.fs.attributeCacheWatchLimit", 256L),
+                          Integer.MAX_VALUE);
+
+        private static long readLong(String name, long def) {
+            String s = AccessController.doPrivileged(new GetPropertyAction(name));
+            if (s == null)
+                return def;
+            try {
+                return Math.max(0L, Long.parseLong(s.trim()));
+            } catch (NumberFormatException x) {
+                return def;
+            }
+        }
+    }
+
+    /**
+     * A cached entry: the attributes of the file, or null if it does not
+     * exist, and the value of System.nanoTime at which the entry expires.
+     */
+    private static final class Entry {
+        final BasicFileAttributes attrs;
+        final long expiry;
+
+        Entry(BasicFileAttributes attrs, long expiry) {
+            this.attrs = attrs;
+            this.expiry = expiry;
+        }
+    }
+
+    // the entries by normalized absolute path
+    private static final ConcurrentHashMap<String, Entry> entries =
+        new ConcurrentHashMap<>();
+
+    // the absolute paths of the directories with entries below them
+    private static final Set<String> containers =
+        ConcurrentHashMap.newKeySet();
+
+    // incremented before each invalidation, so that a file read while it
+    // was being invalidated is not cached
+    private static final AtomicLong epoch = new AtomicLong();
+
+    private static final AtomicBoolean evicting = new AtomicBoolean();
+
+    private static final LongAdder hits = new LongAdder();
+    private static final LongAdder misses = new LongAdder();
+    private static final LongAdder invalidations = new LongAdder();
+
+    /**
+     * The states of the cache.  The default file system is initialized when
+     * the cache is enabled, which must wait until the system class loader
+     * exists, and during which java.io.File is used without the cache.
+     */
+    private static final int UNKNOWN = 0;
+    private static final int INITIALIZING = 1;
+    private static final int ENABLED = 2;
+    private static final int DISABLED = 3;
+    private static volatile int state;
+
+    /**
+     * Returns true if the cache is enabled.
+     */
+    public static boolean isEnabled() {
+        int s = state;
+        if (s == DISABLED || (s != ENABLED && !initialize()))
+            return false;
+        return System.getSecurityManager() == null;
+    }
+
+    private static boolean initialize() {
+        if (!VM.isBooted() || Launcher.getLauncher() == null)
+            return false;
+        synchronized (FileAttributeCache.class) {
+            if (state != UNKNOWN)
+                return state == ENABLED;
+            state = INITIALIZING;
+        }
+        int s = DISABLED;
+        try {
+            if (Config.TIMEOUT_NANOS > 0L) {
+                FileSystems.getDefault();
+                s = ENABLED;
+            }
+        } finally {
+            state = s;
+        }
+        return s == ENABLED;
+    }
+
+    /**
+     * Returns true if the cache is enabled and may hold the attributes of
+     * the given file.
+     */
+    public static boolean isCacheable(Path file) {
+        return isEnabled() && file.getFileSystem() == FileSystems.getDefault();
+    }
+
+    /**
+     * Returns the basic attributes of the given file, following symbolic
+     * links, from the cache or by reading them.  The file must be one for
+     * which {@link #isCacheable} returns true.
+     *
+     * @throws  NoSuchFileException
+     *          if the file does not exist
+     * @throws  IOException
+     *          if another I/O error occurs; such errors are not cached
+     */
+    public static BasicFileAttributes readAttributes(Path file)
+        throws IOException
+    {
+        Path abs = normalizedAbsolutePath(file);
+        if (abs == null) {
+            misses.increment();
+            return file.getFileSystem().provider()
+                .readAttributes(file, BasicFileAttributes.class);
+        }
+        String key = abs.toString();
+        Entry e = entries.get(key);
+        if (e != null && System.nanoTime() - e.expiry < 0L) {
+            hits.increment();
+            if (e.attrs == null)
+                throw new NoSuchFileException(file.toString());
+            return e.attrs;
+        }
+        misses.increment();
+
+        // watch the directory before reading, so that no change is missed
+        long seq = epoch.get();
+        Path dir = abs.getParent();
+        if (dir != null && Config.WATCH)
+            Watcher.watch(dir);
+        BasicFileAttributes attrs;
+        try {
+            attrs = file.getFileSystem().provider()
+                .readAttributes(file, BasicFileAttributes.class);
+        } catch (NoSuchFileException x) {
+            put(abs, key, null, seq);
+            throw x;
+        }
+        put(abs, key, attrs, seq);
+        return attrs;
+    }
+
+    // Returns the normalized absolute path of the given file, or null if the
+    // file has a ".." element, which cannot be removed without resolving
+    // symbolic links
+    private static Path normalizedAbsolutePath(Path file) {
+        if (file.toString().contains("..")) {
+            for (Path name : file) {
+                if (name.toString().equals(".."))
+                    return null;
+            }
+        }
+        return file.toAbsolutePath().normalize();
+    }
+
+    private static void put(Path abs, String key, BasicFileAttributes attrs,
+                            long seq)
+    {
+        if (entries.size() >= Config.MAX_ENTRIES)
+            evict();
+        for (Path p = abs.getParent(); p != null; p = p.getParent()) {
+            if (!containers.add(p.toString()))
+                break;
+        }
+        Entry e = new Entry(attrs, System.nanoTime() + Config.TIMEOUT_NANOS);
+        entries.put(key, e);
+        if (epoch.get() != seq)
+            entries.remove(key, e);
+    }
+
+    // Removes the expired entries and, if that is not enough, about half of
+    // the others
+    private static void evict() {
+        if (!evicting.compareAndSet(false, true))
+            return;
+        try {
+            long now = System.nanoTime();
+            entries.values().removeIf(e -> now - e.expiry >= 0L);
+            int excess = entries.size() - Config.MAX_ENTRIES / 2;
+            Iterator<Entry> it = entries.values().iterator();
+            while (excess-- > 0 && it.hasNext()) {
+                it.next();
+                it.remove();
+            }
+        } finally {
+            evicting.set(false);
+        }
+    }
+
+    /**
+     * Removes the entries of the given file, and of the files below it if
+     * it is a directory.  Invoked after an operation that may have changed
+     * or removed the file.
+     */
+    public static void invalidate(Path file) {
+        if (!isCacheable(file))
+            return;
+        Path abs = normalizedAbsolutePath(file);
+        if (abs == null) {
+            invalidations.add(entries.size());
+            clear();
+            return;
+        }
+        invalidate(abs.toString(), file.getFileSystem().getSeparator());
+    }
+
+    private static void invalidate(String key, String separator) {
+        epoch.incrementAndGet();
+        if (entries.remove(key) != null)
+            invalidations.increment();
+        if (containers.remove(key)) {
+            String prefix = key.endsWith(separator) ? key : key + separator;
+            containers.removeIf(k -> k.startsWith(prefix));
+            entries.keySet().removeIf(k -> {
+                if (!k.startsWith(prefix))
+                    return false;
+                invalidations.increment();
+                return true;
+            });
+        }
+    }
+
+    /**
+     * Removes all entries.
+     */
+    public static void clear() {
+        epoch.incrementAndGet();
+        containers.clear();
+        entries.clear();
+    }
+
+    /**
+     * Returns the number of lookups that found a valid entry.
+     */
+    public static long hitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * Returns the number of lookups that read the attributes of the file.
+     */
+    public static long missCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Returns the number of entries removed because the file was, or may
+     * have been, changed.
+     */
+    public static long invalidationCount() {
+        return invalidations.sum();
+    }
+
+    /**
+     * Returns the number of entries.
+     */
+    public static int size() {
+        return entries.size();
+    }
+
+    /**
+     * Watches the directories of cached files, removing the entries of the
+     * files that change.  The watch service and its thread are created when
+     * the first directory is watched.
+     */
+    private static final class Watcher implements Runnable {
+
+        // the watch service, or null if the default file system has none
+        private static final WatchService service = start();
+
+        // the watched directories, and those that could not be watched
+        private static final ConcurrentHashMap<String, Boolean> dirs =
+            new ConcurrentHashMap<>();
+
+        private static WatchService start() {
+            WatchService ws;
+            try {
+                ws = FileSystems.getDefault().newWatchService();
+            } catch (IOException | UnsupportedOperationException x) {
+                return null;
+            }
+            Thread t = new Thread(new Watcher(ws), "File Attribute Cache Watcher");
+            t.setDaemon(true);
+            t.setContextClassLoader(null);
+            t.start();
+            return ws;
+        }
+
+        static void watch(Path dir) {
+            String key = dir.toString();
+            if (service == null || dirs.containsKey(key)
+                    || dirs.size() >= Config.MAX_WATCHED)
+                return;
+            boolean watched;
+            try {
+                dir.register(service, ENTRY_CREATE, ENTRY_DELETE, ENTRY_MODIFY);
+                watched = true;
+            } catch (IOException | RuntimeException x) {
+                watched = false;
+            }
+            dirs.putIfAbsent(key, watched);
+        }
+
+        private final WatchService ws;
+
+        private Watcher(WatchService ws) {
+            this.ws = ws;
+        }
+
+        @Override
+        public void run() {
+            for (;;) {
+                WatchKey key;
+                try {
+                    key = ws.take();
+                } catch (InterruptedException x) {
+                    continue;
+                } catch (RuntimeException x) {
+                    // the watch service was closed
+                    clear();
+                    return;
+                }
+                Path dir = (Path)key.watchable();
+                String separator = dir.getFileSystem().getSeparator();
+                for (WatchEvent<?> ev: key.pollEvents()) {
+                    if (ev.kind() == OVERFLOW) {
+                        clear();
+                    } else {
+                        Path child = dir.resolve((Path)ev.context());
+                        invalidate(child.toString(), separator);
+                    }
+                }
+                if (!key.reset()) {
+                    dirs.remove(dir.toString());
+                    invalidate(dir.toString(), separator);
+                }
+            }
+        }
+    }
+}